@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.assertj;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.testing.internal.MessageSuppliers;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+public class LazyAssertJDescriptions extends Recipe {
+    private static final MethodMatcher AS = new MethodMatcher("org.assertj.core.api.Descriptable as(java.lang.String, ..)", true);
+    private static final MethodMatcher DESCRIBED_AS = new MethodMatcher("org.assertj.core.api.Descriptable describedAs(java.lang.String, ..)", true);
+    private static final MethodMatcher STRING_FORMAT = new MethodMatcher("java.lang.String format(java.lang.String, ..)");
+
+    @Override
+    public String getDisplayName() {
+        return "Format AssertJ descriptions lazily";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Pass the format and arguments of a `String.format` description to AssertJ's `as(String, Object...)`, " +
+               "and other descriptions built at runtime, like concatenations, as a `Supplier<String>`, " +
+               "so that descriptions are only formatted when an assertion fails.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(Preconditions.or(new UsesMethod<>(AS), new UsesMethod<>(DESCRIBED_AS)), new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J.MethodInvocation mi = super.visitMethodInvocation(method, ctx);
+                if (!(AS.matches(mi) || DESCRIBED_AS.matches(mi)) || mi.getArguments().size() != 1) {
+                    return mi;
+                }
+
+                Expression description = mi.getArguments().get(0);
+                if (STRING_FORMAT.matches(description) && ((J.MethodInvocation) description).getArguments().size() > 1) {
+                    // already bound to the varargs overload, which formats on demand; without arguments that
+                    // overload would print the format as it is, with escapes such as %% left in
+                    return mi.withArguments(ListUtils.mapFirst(((J.MethodInvocation) description).getArguments(),
+                            format -> format.withPrefix(description.getPrefix())));
+                }
+
+                if (mi.getMethodType() == null || !MessageSuppliers.isComputed(description) ||
+                    !MessageSuppliers.capturesOnlyEffectivelyFinal(description, getCursor())) {
+                    return mi;
+                }
+                JavaType.Method supplierOverload = supplierOverload(mi.getMethodType().getDeclaringType(), mi.getSimpleName());
+                if (supplierOverload == null) {
+                    return mi;
+                }
+                return mi
+                        .withArguments(ListUtils.mapFirst(mi.getArguments(), MessageSuppliers::supplier))
+                        .withMethodType(supplierOverload)
+                        .withName(mi.getName().withType(supplierOverload));
+            }
+        });
+    }
+
+    /**
+     * Find {@code as(Supplier<String>)} or {@code describedAs(Supplier<String>)}, which {@code Descriptable} declares
+     * as default methods and most assert classes therefore only inherit.
+     */
+    @Nullable
+    private static JavaType.Method supplierOverload(@Nullable JavaType.FullyQualified type, String name) {
+        if (type == null) {
+            return null;
+        }
+        for (JavaType.Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterTypes().size() == 1 &&
+                TypeUtils.isOfClassType(method.getParameterTypes().get(0), "java.util.function.Supplier")) {
+                return method;
+            }
+        }
+        JavaType.Method found = supplierOverload(type.getSupertype(), name);
+        for (JavaType.FullyQualified anInterface : type.getInterfaces()) {
+            if (found == null) {
+                found = supplierOverload(anInterface, name);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Value;
+import lombok.experimental.NonFinal;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.marker.JavaSourceSet;
+import org.openrewrite.java.testing.internal.RecipeDecorators;
+import org.openrewrite.java.tree.JavaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Runs another recipe, remembering on disk which source files it left unchanged so that the next run can skip
+ * them without visiting them at all.
+ * <p>
+ * A source file is skipped when an entry exists for the hash of its printed content and path, the classpath it
+ * was compiled against, the descriptor of the recipe including all option values, and the versions of this
+ * library and of rewrite-core. Any difference in one of those produces a different key, so stale entries are
+ * never read, only left behind. Only "no change" outcomes are recorded, because those can be replayed by doing
+ * nothing. The key does not cover other source files, so recipe trees containing a scanning recipe are never
+ * cached: those may change a file based on what they saw in others, such as adding a dependency to a build file
+ * only if a test uses one of its types. Recipes that declare data tables are never cached either, as skipping a
+ * file would also skip the rows they add for it.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class CacheUnchangedResults extends Recipe {
+    private static final String SKIPPED = "org.openrewrite.java.testing.cache.skipped";
+    private static final String PENDING = "org.openrewrite.java.testing.cache.pending";
+
+    @Option(displayName = "Recipe",
+            description = "The fully qualified name of the recipe to run.",
+            example = "org.openrewrite.java.testing.junit5.JUnit4to5Migration")
+    String recipe;
+
+    @Option(displayName = "Cache directory",
+            description = "The directory to keep cache entries in. Entries are never deleted by the recipe.",
+            example = "build/rewrite-cache")
+    String cacheDirectory;
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    @Nullable
+    transient Recipe delegate;
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    @Nullable
+    transient String recipeDigest;
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    @Nullable
+    transient List<Recipe> recipeList;
+
+    @Getter(AccessLevel.NONE)
+    transient Map<UUID, String> classpathDigests = new ConcurrentHashMap<>();
+
+    @JsonCreator
+    public CacheUnchangedResults(@JsonProperty("recipe") String recipe, @JsonProperty("cacheDirectory") String cacheDirectory) {
+        this.recipe = recipe;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Cache unchanged results";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Run a recipe and record on disk which source files it did not change, keyed by a content hash, the " +
+               "recipe configuration and the library version. On subsequent runs those source files are skipped.";
+    }
+
+    @Override
+    public List<Recipe> getRecipeList() {
+        if (recipeList == null) {
+            recipeList = Arrays.asList(
+                    RecipeDecorators.decorate(delegate(), (recipe, visitor) -> new SkippingVisitor(visitor)),
+                    new RecordUnchanged());
+        }
+        return recipeList;
+    }
+
+    /**
+     * Runs before the delegate recipe on every source file and decides whether it can be skipped.
+     */
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        if (!isCacheable(delegate())) {
+            return TreeVisitor.noop();
+        }
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile) {
+                    SourceFile sourceFile = (SourceFile) tree;
+                    String key = cacheKey(sourceFile);
+                    if (Files.exists(entry(key))) {
+                        ctx.computeMessageIfAbsent(SKIPPED, k -> ConcurrentHashMap.<UUID>newKeySet()).add(sourceFile.getId());
+                    } else {
+                        ctx.<Set<UUID>>getMessage(SKIPPED, Collections.emptySet()).remove(sourceFile.getId());
+                        ctx.computeMessageIfAbsent(PENDING, k -> new ConcurrentHashMap<UUID, Pending>())
+                                .put(sourceFile.getId(), new Pending(key, sourceFile));
+                    }
+                }
+                return tree;
+            }
+        };
+    }
+
+    String cacheKey(SourceFile sourceFile) {
+        return sha256(sourceFile.getSourcePath().toString(),
+                sourceFile.printAll(),
+                classpathDigest(sourceFile),
+                recipeDigest(),
+                version(CacheUnchangedResults.class),
+                version(Recipe.class));
+    }
+
+    Path entry(String key) {
+        return Paths.get(cacheDirectory).resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private Recipe delegate() {
+        if (delegate == null) {
+            delegate = RecipeDecorators.resolve(recipe);
+        }
+        return delegate;
+    }
+
+    private static boolean isCacheable(Recipe recipe) {
+        return !(recipe instanceof ScanningRecipe) &&
+               recipe.getDataTableDescriptors().isEmpty() &&
+               recipe.getRecipeList().stream().allMatch(CacheUnchangedResults::isCacheable);
+    }
+
+    private String recipeDigest() {
+        if (recipeDigest == null) {
+            recipeDigest = sha256(delegate().getDescriptor().toString());
+        }
+        return recipeDigest;
+    }
+
+    private String classpathDigest(SourceFile sourceFile) {
+        Optional<JavaSourceSet> sourceSet = sourceFile.getMarkers().findFirst(JavaSourceSet.class);
+        return sourceSet.map(s -> classpathDigests.computeIfAbsent(s.getId(), id -> sha256(s.getClasspath().stream()
+                        .map(JavaType.FullyQualified::getFullyQualifiedName)
+                        .sorted()
+                        .collect(Collectors.joining(",")))))
+                .orElse("");
+    }
+
+    private static String version(Class<?> clazz) {
+        String version = clazz.getPackage().getImplementationVersion();
+        return version == null ? "unknown" : version;
+    }
+
+    private static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isSkipped(@Nullable Tree tree, ExecutionContext ctx) {
+        return tree instanceof SourceFile &&
+               ctx.<Set<UUID>>getMessage(SKIPPED, Collections.emptySet()).contains(tree.getId());
+    }
+
+    @Value
+    private static class Pending {
+        String key;
+        SourceFile before;
+    }
+
+    /**
+     * Runs after the delegate recipe and records the source files it left as they were.
+     */
+    private class RecordUnchanged extends Recipe {
+        @Override
+        public String getDisplayName() {
+            return "Record unchanged results";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Write a cache entry for each source file the delegate recipe did not change.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile) {
+                        Pending pending = ctx.<Map<UUID, Pending>>getMessage(PENDING, Collections.emptyMap()).remove(tree.getId());
+                        if (pending != null && pending.getBefore() == tree) {
+                            try {
+                                Path entry = entry(pending.getKey());
+                                Files.createDirectories(entry.getParent());
+                                Files.write(entry, new byte[0]);
+                            } catch (IOException e) {
+                                ctx.getOnError().accept(e);
+                            }
+                        }
+                    }
+                    return tree;
+                }
+            };
+        }
+    }
+
+    private static class SkippingVisitor extends RecipeDecorators.AroundVisitor {
+        SkippingVisitor(TreeVisitor<?, ExecutionContext> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected @Nullable Tree around(@Nullable Tree tree, ExecutionContext ctx, Supplier<Tree> visit) {
+            return isSkipped(tree, ctx) ? tree : visit.get();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.testing.internal.MessageSuppliers;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.List;
+
+public class AssertionMessageSupplier extends Recipe {
+    private static final MethodMatcher JUPITER_ASSERTION = new MethodMatcher("org.junit.jupiter.api.Assertions *(..)");
+
+    @Override
+    public String getDisplayName() {
+        return "Compute JUnit Jupiter assertion messages lazily";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Pass assertion messages that are built at runtime, like concatenations, `String.format` or `toString()` calls, " +
+               "to JUnit Jupiter's `Assertions` as a `Supplier<String>`, so that they are only built when the assertion fails. " +
+               "Constant messages are left unchanged.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesMethod<>(JUPITER_ASSERTION), new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J.MethodInvocation mi = super.visitMethodInvocation(method, ctx);
+                if (!JUPITER_ASSERTION.matches(mi) || mi.getMethodType() == null) {
+                    return mi;
+                }
+
+                List<Expression> args = mi.getArguments();
+                Expression message = args.get(args.size() - 1);
+                List<JavaType> parameterTypes = mi.getMethodType().getParameterTypes();
+                if (parameterTypes.size() != args.size() ||
+                    !TypeUtils.isOfClassType(parameterTypes.get(parameterTypes.size() - 1), "java.lang.String") ||
+                    !MessageSuppliers.isComputed(message) || !MessageSuppliers.capturesOnlyEffectivelyFinal(message, getCursor())) {
+                    return mi;
+                }
+
+                JavaType.Method supplierOverload = supplierOverload(mi.getMethodType());
+                if (supplierOverload == null) {
+                    return mi;
+                }
+
+                J.Lambda supplier = MessageSuppliers.supplier(message);
+                return mi
+                        .withArguments(ListUtils.mapLast(args, last -> supplier))
+                        .withMethodType(supplierOverload)
+                        .withName(mi.getName().withType(supplierOverload));
+            }
+        });
+    }
+
+    @Nullable
+    private static JavaType.Method supplierOverload(JavaType.Method method) {
+        List<JavaType> parameterTypes = method.getParameterTypes();
+        nextMethod:
+        for (JavaType.Method candidate : method.getDeclaringType().getMethods()) {
+            List<JavaType> candidateTypes = candidate.getParameterTypes();
+            if (!candidate.getName().equals(method.getName()) || candidateTypes.size() != parameterTypes.size() ||
+                !TypeUtils.isOfClassType(candidateTypes.get(candidateTypes.size() - 1), "java.util.function.Supplier")) {
+                continue;
+            }
+            for (int i = 0; i < parameterTypes.size() - 1; i++) {
+                if (!TypeUtils.isOfType(candidateTypes.get(i), parameterTypes.get(i))) {
+                    continue nextMethod;
+                }
+            }
+            return candidate;
+        }
+        return null;
+    }
+}
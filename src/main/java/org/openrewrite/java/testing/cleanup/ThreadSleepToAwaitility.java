@@ -0,0 +1,265 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.testing.internal.MessageSuppliers;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ThreadSleepToAwaitility extends Recipe {
+    private static final MethodMatcher THREAD_SLEEP = new MethodMatcher("java.lang.Thread sleep(long)");
+
+    private static final List<String> TEST_ANNOTATIONS = Arrays.asList(
+            "org.junit.Test",
+            "org.junit.jupiter.api.Test",
+            "org.junit.jupiter.api.RepeatedTest",
+            "org.junit.jupiter.params.ParameterizedTest");
+
+    /**
+     * The first call of an assertion statement, such as {@code assertEquals(..)}, {@code assertThat(..)} or
+     * {@code verify(..)}.
+     */
+    private static final List<MethodMatcher> ASSERTIONS = Arrays.asList(
+            new MethodMatcher("org.junit.jupiter.api.Assertions assert*(..)"),
+            new MethodMatcher("org.junit.Assert assert*(..)"),
+            new MethodMatcher("org.assertj.core.api.* assertThat(..)"),
+            new MethodMatcher("org.assertj.core.api.* then(..)"),
+            new MethodMatcher("org.hamcrest.MatcherAssert assertThat(..)"),
+            new MethodMatcher("org.mockito.Mockito verify*(..)"));
+
+    /**
+     * Checks that something did not happen, which pass right away when retried, long before it could have happened.
+     */
+    private static final List<MethodMatcher> ABSENCE_CHECKS = Arrays.asList(
+            new MethodMatcher("org.junit.jupiter.api.Assertions assertFalse(..)"),
+            new MethodMatcher("org.junit.jupiter.api.Assertions assertNull(..)"),
+            new MethodMatcher("org.junit.Assert assertFalse(..)"),
+            new MethodMatcher("org.junit.Assert assertNull(..)"),
+            new MethodMatcher("org.assertj.core.api.* isFalse()", true),
+            new MethodMatcher("org.assertj.core.api.* isNull()", true),
+            new MethodMatcher("org.assertj.core.api.* isEmpty()", true),
+            new MethodMatcher("org.assertj.core.api.* isNullOrEmpty()", true),
+            new MethodMatcher("org.assertj.core.api.* isNotPresent()", true),
+            new MethodMatcher("org.assertj.core.api.* doesNotContain*(..)", true),
+            new MethodMatcher("org.assertj.core.api.* doesNotExist()", true),
+            new MethodMatcher("org.hamcrest..* not(..)"),
+            new MethodMatcher("org.hamcrest..* empty*(..)"),
+            new MethodMatcher("org.hamcrest..* nullValue(..)"),
+            new MethodMatcher("org.mockito.Mockito never()"),
+            new MethodMatcher("org.mockito.Mockito verifyNoInteractions(..)"),
+            new MethodMatcher("org.mockito.Mockito verifyNoMoreInteractions(..)"),
+            new MethodMatcher("org.mockito.Mockito verifyZeroInteractions(..)"));
+
+    private static final MethodMatcher TIMES = new MethodMatcher("org.mockito.Mockito times(int)");
+
+    private static final String[] AWAITILITY_STUBS = {
+            "package org.awaitility.core;\n" +
+            "public interface ThrowingRunnable { void run() throws Throwable; }",
+            "package org.awaitility.core;\n" +
+            "import java.time.Duration;\n" +
+            "import java.util.concurrent.Callable;\n" +
+            "public class ConditionFactory {\n" +
+            "    public ConditionFactory atMost(Duration timeout) { return this; }\n" +
+            "    public ConditionFactory forever() { return this; }\n" +
+            "    public ConditionFactory pollInterval(Duration pollInterval) { return this; }\n" +
+            "    public void untilAsserted(ThrowingRunnable assertion) {}\n" +
+            "    public void until(Callable<Boolean> conditionEvaluator) {}\n" +
+            "}",
+            "package org.awaitility;\n" +
+            "import org.awaitility.core.ConditionFactory;\n" +
+            "public class Awaitility {\n" +
+            "    public static ConditionFactory await() { return new ConditionFactory(); }\n" +
+            "}"
+    };
+
+    @Override
+    public String getDisplayName() {
+        return "Replace `Thread.sleep` in tests with Awaitility";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace `Thread.sleep(..)` followed by assertions with `await().atMost(..).untilAsserted(..)`, and loops " +
+               "that only sleep until a condition holds with `await().forever().pollInterval(..).until(..)`, so that " +
+               "tests continue as soon as the awaited state is reached. Such loops have no time limit, so neither " +
+               "has the replacement, rather than failing after Awaitility's default timeout of 10 seconds. Sleeps " +
+               "before checks that something did not happen, like `verify(mock, never())`, are kept, as those " +
+               "checks would pass right away.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesMethod<>(THREAD_SLEEP), new JavaIsoVisitor<ExecutionContext>() {
+            @Nullable
+            private JavaParser.Builder<?, ?> javaParser;
+
+            private JavaParser.Builder<?, ?> javaParser() {
+                if (javaParser == null) {
+                    javaParser = JavaParser.fromJavaVersion().dependsOn(AWAITILITY_STUBS);
+                }
+                return javaParser;
+            }
+
+            @Override
+            public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+                J.Block b = super.visitBlock(block, ctx);
+                J.MethodDeclaration method = getCursor().firstEnclosing(J.MethodDeclaration.class);
+                if (method == null || method.getBody() == null || !isTest(method)) {
+                    return b;
+                }
+
+                for (int i = 0; i < b.getStatements().size(); i++) {
+                    Statement statement = b.getStatements().get(i);
+                    if (isSleep(statement)) {
+                        List<Statement> assertions = new ArrayList<>();
+                        for (int j = i + 1; j < b.getStatements().size() && isAssertion(b.getStatements().get(j)); j++) {
+                            assertions.add(b.getStatements().get(j));
+                        }
+                        if (!assertions.isEmpty() && assertions.stream().noneMatch(ThreadSleepToAwaitility::checksAbsence) &&
+                            assertions.stream().allMatch(a -> MessageSuppliers.capturesOnlyEffectivelyFinal((Expression) a, getCursor()))) {
+                            b = awaitAssertions(b, (J.MethodInvocation) statement, assertions);
+                        }
+                    } else if (statement instanceof J.WhileLoop) {
+                        J.WhileLoop loop = (J.WhileLoop) statement;
+                        Statement body = loop.getBody() instanceof J.Block && ((J.Block) loop.getBody()).getStatements().size() == 1 ?
+                                ((J.Block) loop.getBody()).getStatements().get(0) : loop.getBody();
+                        Expression condition = loop.getCondition().getTree();
+                        if (isSleep(body) && MessageSuppliers.capturesOnlyEffectivelyFinal(condition, getCursor())) {
+                            b = awaitCondition(b, loop, ((J.MethodInvocation) body).getArguments().get(0), condition);
+                        }
+                    }
+                }
+                return b;
+            }
+
+            private J.Block awaitAssertions(J.Block b, J.MethodInvocation sleep, List<Statement> assertions) {
+                StringBuilder untilAsserted = new StringBuilder();
+                if (assertions.size() == 1) {
+                    untilAsserted.append("#{any()}");
+                } else {
+                    untilAsserted.append("{\n");
+                    for (int i = 0; i < assertions.size(); i++) {
+                        untilAsserted.append("#{any()};\n");
+                    }
+                    untilAsserted.append('}');
+                }
+                List<Object> parameters = new ArrayList<>();
+                parameters.add(sleep.getArguments().get(0));
+                for (Statement assertion : assertions) {
+                    parameters.add(assertion.withPrefix(Space.EMPTY));
+                }
+
+                b = b.withStatements(ListUtils.map(b.getStatements(), s -> assertions.contains(s) ? null : s));
+                b = JavaTemplate.builder("await().atMost(Duration.ofMillis(#{any(long)})).untilAsserted(() -> " + untilAsserted + ");")
+                        .javaParser(javaParser())
+                        .staticImports("org.awaitility.Awaitility.await")
+                        .imports("java.time.Duration")
+                        .build()
+                        .apply(updateCursor(b), sleep.getCoordinates().replace(), parameters.toArray());
+                maybeAddImport("org.awaitility.Awaitility", "await");
+                maybeAddImport("java.time.Duration");
+                return b;
+            }
+
+            private J.Block awaitCondition(J.Block b, J.WhileLoop loop, Expression interval, Expression condition) {
+                String until;
+                Expression awaited;
+                if (condition instanceof J.Unary && ((J.Unary) condition).getOperator() == J.Unary.Type.Not) {
+                    until = "#{any(boolean)}";
+                    awaited = ((J.Unary) condition).getExpression();
+                } else if (condition instanceof J.Identifier || condition instanceof J.FieldAccess ||
+                           condition instanceof J.MethodInvocation || condition instanceof J.Parentheses) {
+                    until = "!#{any(boolean)}";
+                    awaited = condition;
+                } else {
+                    until = "!(#{any(boolean)})";
+                    awaited = condition;
+                }
+                // the loop waited as long as it took, which Awaitility only does when told to
+                b = JavaTemplate.builder("await().forever().pollInterval(Duration.ofMillis(#{any(long)})).until(() -> " + until + ");")
+                        .javaParser(javaParser())
+                        .staticImports("org.awaitility.Awaitility.await")
+                        .imports("java.time.Duration")
+                        .build()
+                        .apply(updateCursor(b), loop.getCoordinates().replace(), interval, awaited.withPrefix(Space.EMPTY));
+                maybeAddImport("org.awaitility.Awaitility", "await");
+                maybeAddImport("java.time.Duration");
+                return b;
+            }
+        });
+    }
+
+    private static boolean isTest(J.MethodDeclaration method) {
+        for (J.Annotation annotation : method.getAllAnnotations()) {
+            for (String testAnnotation : TEST_ANNOTATIONS) {
+                if (TypeUtils.isOfClassType(annotation.getType(), testAnnotation)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSleep(@Nullable Statement statement) {
+        return statement instanceof J.MethodInvocation && THREAD_SLEEP.matches((J.MethodInvocation) statement);
+    }
+
+    /**
+     * Whether the statement is an assertion of JUnit, AssertJ or Hamcrest, or a Mockito verification.
+     */
+    private static boolean isAssertion(Statement statement) {
+        if (!(statement instanceof J.MethodInvocation)) {
+            return false;
+        }
+        J.MethodInvocation root = (J.MethodInvocation) statement;
+        while (root.getSelect() instanceof J.MethodInvocation) {
+            root = (J.MethodInvocation) root.getSelect();
+        }
+        J.MethodInvocation first = root;
+        return ASSERTIONS.stream().anyMatch(matcher -> matcher.matches(first));
+    }
+
+    /**
+     * Whether the assertion checks that something did not happen, like {@code verify(mock, never())} or
+     * {@code assertThat(queue).isEmpty()}, which has to keep waiting the whole time to mean anything.
+     */
+    private static boolean checksAbsence(Statement assertion) {
+        return new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                if (ABSENCE_CHECKS.stream().anyMatch(matcher -> matcher.matches(method)) ||
+                    TIMES.matches(method) && method.getArguments().get(0) instanceof J.Literal &&
+                    Integer.valueOf(0).equals(((J.Literal) method.getArguments().get(0)).getValue())) {
+                    found.set(true);
+                }
+                return super.visitMethodInvocation(method, found);
+            }
+        }.reduce(assertion, new AtomicBoolean()).get();
+    }
+}
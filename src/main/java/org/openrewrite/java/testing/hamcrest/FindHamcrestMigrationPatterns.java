@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.hamcrest;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.table.MigrationPatternTable;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.java.testing.table.MigrationPatternsVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FindHamcrestMigrationPatterns extends Recipe {
+    transient MigrationPatterns patterns = new MigrationPatterns(this);
+
+    @Override
+    public String getDisplayName() {
+        return "Find Hamcrest migration patterns";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Count the Hamcrest `assertThat` calls and matchers that `MigrateHamcrestToAssertJ` would rewrite, " +
+               "without changing any source file. Walks method types only, so estimating the size of a migration " +
+               "costs a fraction of running it.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("org.hamcrest..*", false),
+                new MigrationPatternsVisitor(patterns, new MigrationPatternTable() {
+                    @Override
+                    public String getMigration() {
+                        return "org.openrewrite.java.testing.hamcrest.MigrateHamcrestToAssertJ";
+                    }
+
+                    @Override
+                    public boolean isFrameworkType(@Nullable JavaType.FullyQualified type) {
+                        return type != null && type.getFullyQualifiedName().startsWith("org.hamcrest.");
+                    }
+
+                    @Override
+                    public @Nullable String extendsPattern(JavaType.FullyQualified supertype) {
+                        // only calls are migrated
+                        return null;
+                    }
+
+                    @Override
+                    public List<String> annotationPatterns(J.Annotation annotation, JavaType.FullyQualified type) {
+                        return new ArrayList<>();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.singletonList;
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Turns assertion messages and descriptions that are built at runtime into suppliers, so that they are only built
+ * when an assertion fails.
+ */
+public final class MessageSuppliers {
+    private MessageSuppliers() {
+    }
+
+    /**
+     * Wrap {@code message} in a {@code () -> message} lambda typed as a {@link java.util.function.Supplier}.
+     */
+    public static J.Lambda supplier(Expression message) {
+        return new J.Lambda(
+                randomId(),
+                message.getPrefix(),
+                Markers.EMPTY,
+                new J.Lambda.Parameters(randomId(), Space.EMPTY, Markers.EMPTY, true,
+                        singletonList(JRightPadded.build(new J.Empty(randomId(), Space.EMPTY, Markers.EMPTY)))),
+                Space.format(" "),
+                message.withPrefix(Space.format(" ")),
+                JavaType.ShallowClass.build("java.util.function.Supplier")
+        );
+    }
+
+    /**
+     * Whether building the message allocates, as opposed to a literal, a constant concatenation or a reference to
+     * a string that already exists.
+     */
+    public static boolean isComputed(Expression message) {
+        Expression e = unwrap(message);
+        if (e instanceof J.Binary) {
+            return isComputed(((J.Binary) e).getLeft()) || isComputed(((J.Binary) e).getRight()) ||
+                   !(unwrap(((J.Binary) e).getLeft()) instanceof J.Literal) ||
+                   !(unwrap(((J.Binary) e).getRight()) instanceof J.Literal);
+        } else if (e instanceof J.Ternary) {
+            return isComputed(((J.Ternary) e).getTruePart()) || isComputed(((J.Ternary) e).getFalsePart());
+        }
+        return e instanceof J.MethodInvocation || e instanceof J.NewClass;
+    }
+
+    private static Expression unwrap(Expression expression) {
+        Expression e = expression;
+        while (e instanceof J.Parentheses && ((J.Parentheses<?>) e).getTree() instanceof Expression) {
+            e = (Expression) ((J.Parentheses<?>) e).getTree();
+        }
+        return e;
+    }
+
+    /**
+     * A lambda may only capture local variables that are never reassigned, which a message built in a loop over an
+     * index variable, for instance, does not satisfy.
+     */
+    public static boolean capturesOnlyEffectivelyFinal(Expression message, Cursor cursor) {
+        Set<JavaType.Variable> locals = new JavaIsoVisitor<Set<JavaType.Variable>>() {
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, Set<JavaType.Variable> locals) {
+                JavaType.Variable variable = identifier.getFieldType();
+                if (variable != null && !(variable.getOwner() instanceof JavaType.FullyQualified)) {
+                    locals.add(variable);
+                }
+                return super.visitIdentifier(identifier, locals);
+            }
+        }.reduce(message, new HashSet<>());
+        if (locals.isEmpty()) {
+            return true;
+        }
+
+        J.MethodDeclaration enclosing = cursor.firstEnclosing(J.MethodDeclaration.class);
+        if (enclosing == null) {
+            return false;
+        }
+        return !new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.Assignment visitAssignment(J.Assignment assignment, AtomicBoolean reassigned) {
+                check(assignment.getVariable(), reassigned);
+                return super.visitAssignment(assignment, reassigned);
+            }
+
+            @Override
+            public J.AssignmentOperation visitAssignmentOperation(J.AssignmentOperation assignOp, AtomicBoolean reassigned) {
+                check(assignOp.getVariable(), reassigned);
+                return super.visitAssignmentOperation(assignOp, reassigned);
+            }
+
+            @Override
+            public J.Unary visitUnary(J.Unary unary, AtomicBoolean reassigned) {
+                switch (unary.getOperator()) {
+                    case PreIncrement:
+                    case PreDecrement:
+                    case PostIncrement:
+                    case PostDecrement:
+                        check(unary.getExpression(), reassigned);
+                }
+                return super.visitUnary(unary, reassigned);
+            }
+
+            private void check(Expression variable, AtomicBoolean reassigned) {
+                if (variable instanceof J.Identifier && locals.contains(((J.Identifier) variable).getFieldType())) {
+                    reassigned.set(true);
+                }
+            }
+        }.reduce(enclosing, new AtomicBoolean()).get();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.properties.tree.Properties;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and edits properties files such as {@code junit-platform.properties} or {@code .testcontainers.properties}
+ * entry by entry, so that comments and the layout of the other entries are kept.
+ */
+public final class PropertiesFiles {
+    private PropertiesFiles() {
+    }
+
+    public static boolean hasFileName(SourceFile sourceFile, String fileName) {
+        Path name = sourceFile.getSourcePath().getFileName();
+        return name != null && fileName.equals(name.toString());
+    }
+
+    /**
+     * A new properties file at the given path holding just the given entry.
+     */
+    public static Collection<SourceFile> create(Path path, String key, String value, ExecutionContext ctx) {
+        return PropertiesParser.builder().build()
+                .parse(ctx, key + "=" + value + "\n")
+                .map(properties -> (SourceFile) properties.withSourcePath(path))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The value of the entry for {@code key}, or {@code null} if the file has none.
+     */
+    @Nullable
+    public static String get(SourceFile sourceFile, String key) {
+        Properties.Entry entry = sourceFile instanceof Properties.File ? entry((Properties.File) sourceFile, key) : null;
+        return entry == null ? null : entry.getValue().getText();
+    }
+
+    /**
+     * Add the entry, unless the file already has one for {@code key}. An existing value is always kept, as it is
+     * either the one wanted or a choice a developer made explicitly.
+     */
+    public static SourceFile addIfAbsent(SourceFile sourceFile, String key, String value, ExecutionContext ctx) {
+        if (!(sourceFile instanceof Properties.File) || entry((Properties.File) sourceFile, key) != null) {
+            return sourceFile;
+        }
+        Properties.File file = (Properties.File) sourceFile;
+        Properties.Entry added = newEntry(key, value, ctx);
+        return added == null ? file : file.withContent(ListUtils.concat(file.getContent(),
+                added.withPrefix(file.getContent().isEmpty() ? "" : "\n")));
+    }
+
+    @Nullable
+    private static Properties.Entry entry(Properties.File file, String key) {
+        for (Properties.Content content : file.getContent()) {
+            if (content instanceof Properties.Entry && key.equals(((Properties.Entry) content).getKey())) {
+                return (Properties.Entry) content;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Properties.Entry newEntry(String key, String value, ExecutionContext ctx) {
+        return PropertiesParser.builder().build()
+                .parse(ctx, key + "=" + value)
+                .map(properties -> ((Properties.File) properties).getContent())
+                .flatMap(Collection::stream)
+                .filter(Properties.Entry.class::isInstance)
+                .map(Properties.Entry.class::cast)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.*;
+import org.openrewrite.config.DataTableDescriptor;
+import org.openrewrite.config.Environment;
+import org.openrewrite.config.RecipeDescriptor;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps every recipe in a recipe tree, so that recipes which run another recipe by name can act around each of
+ * its visitors without changing what the recipes themselves do.
+ */
+public final class RecipeDecorators {
+    private static final Map<ClassLoader, Map<String, Recipe>> RESOLVED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private RecipeDecorators() {
+    }
+
+    /**
+     * What to do around the visitors, and the source file generation, of each recipe in a recipe tree.
+     */
+    public interface Decoration {
+        TreeVisitor<?, ExecutionContext> visitor(Recipe recipe, TreeVisitor<?, ExecutionContext> visitor);
+
+        default Collection<? extends SourceFile> generate(Recipe recipe, Supplier<Collection<? extends SourceFile>> generate) {
+            return generate.get();
+        }
+    }
+
+    /**
+     * A visitor that runs another visitor, with a hook around each visit.
+     */
+    public abstract static class AroundVisitor extends TreeVisitor<Tree, ExecutionContext> {
+        protected final TreeVisitor<?, ExecutionContext> delegate;
+
+        protected AroundVisitor(TreeVisitor<?, ExecutionContext> delegate) {
+            this.delegate = delegate;
+        }
+
+        protected abstract @Nullable Tree around(@Nullable Tree tree, ExecutionContext ctx, Supplier<Tree> visit);
+
+        @Override
+        public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+            return delegate.isAcceptable(sourceFile, ctx);
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+            return around(tree, ctx, () -> delegate.visit(tree, ctx));
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx, Cursor parent) {
+            return around(tree, ctx, () -> delegate.visit(tree, ctx, parent));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Recipe decorate(Recipe recipe, Decoration decoration) {
+        if (recipe instanceof ScanningRecipe) {
+            return new DecoratedScanningRecipe((ScanningRecipe<Object>) recipe, decoration);
+        }
+        return new DecoratedRecipe(recipe, decoration);
+    }
+
+    /**
+     * Find a recipe by name once per class loader. A recipe class is instantiated directly; only declarative
+     * recipes need the class loader scanned. The context class loader is preferred, as that is the one a build
+     * plugin loads recipe modules with.
+     */
+    public static Recipe resolve(String name) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = RecipeDecorators.class.getClassLoader();
+        }
+        ClassLoader loader = classLoader;
+        return RESOLVED.computeIfAbsent(loader, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> load(n, loader));
+    }
+
+    private static Recipe load(String name, ClassLoader classLoader) {
+        try {
+            Class<?> recipeClass = Class.forName(name, true, classLoader);
+            if (Recipe.class.isAssignableFrom(recipeClass)) {
+                return (Recipe) recipeClass.getDeclaredConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | LinkageError ignored) {
+            // not a recipe class with a default constructor, so it may be a declarative recipe
+        }
+        return Environment.builder().scanClassLoader(classLoader).build().activateRecipes(name);
+    }
+
+    private static List<Recipe> decorateAll(List<Recipe> recipes, Decoration decoration) {
+        List<Recipe> decorated = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            decorated.add(decorate(recipe, decoration));
+        }
+        return Collections.unmodifiableList(decorated);
+    }
+
+    private static class DecoratedRecipe extends Recipe {
+        private final Recipe delegate;
+        private final Decoration decoration;
+
+        @Nullable
+        private List<Recipe> recipeList;
+
+        DecoratedRecipe(Recipe delegate, Decoration decoration) {
+            this.delegate = delegate;
+            this.decoration = decoration;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return delegate.getDisplayName();
+        }
+
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+
+        @Override
+        public List<Recipe> getRecipeList() {
+            // the same instances every time, since scanning recipes find their accumulator by recipe instance
+            if (recipeList == null) {
+                recipeList = decorateAll(delegate.getRecipeList(), decoration);
+            }
+            return recipeList;
+        }
+
+        @Override
+        protected RecipeDescriptor createRecipeDescriptor() {
+            return delegate.getDescriptor();
+        }
+
+        @Override
+        public List<DataTableDescriptor> getDataTableDescriptors() {
+            return delegate.getDataTableDescriptors();
+        }
+
+        @Override
+        public Validated<Object> validate() {
+            return delegate.validate();
+        }
+
+        @Override
+        public Validated<Object> validate(ExecutionContext ctx) {
+            return delegate.validate(ctx);
+        }
+
+        @Override
+        public boolean causesAnotherCycle() {
+            return delegate.causesAnotherCycle();
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return decoration.visitor(delegate, delegate.getVisitor());
+        }
+    }
+
+    private static class DecoratedScanningRecipe extends ScanningRecipe<Object> {
+        private final ScanningRecipe<Object> delegate;
+        private final Decoration decoration;
+
+        @Nullable
+        private List<Recipe> recipeList;
+
+        DecoratedScanningRecipe(ScanningRecipe<Object> delegate, Decoration decoration) {
+            this.delegate = delegate;
+            this.decoration = decoration;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return delegate.getDisplayName();
+        }
+
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+
+        @Override
+        public List<Recipe> getRecipeList() {
+            // the same instances every time, since scanning recipes find their accumulator by recipe instance
+            if (recipeList == null) {
+                recipeList = decorateAll(delegate.getRecipeList(), decoration);
+            }
+            return recipeList;
+        }
+
+        @Override
+        protected RecipeDescriptor createRecipeDescriptor() {
+            return delegate.getDescriptor();
+        }
+
+        @Override
+        public List<DataTableDescriptor> getDataTableDescriptors() {
+            return delegate.getDataTableDescriptors();
+        }
+
+        @Override
+        public Validated<Object> validate() {
+            return delegate.validate();
+        }
+
+        @Override
+        public Validated<Object> validate(ExecutionContext ctx) {
+            return delegate.validate(ctx);
+        }
+
+        @Override
+        public boolean causesAnotherCycle() {
+            return delegate.causesAnotherCycle();
+        }
+
+        @Override
+        public Object getInitialValue(ExecutionContext ctx) {
+            return delegate.getInitialValue(ctx);
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getScanner(Object acc) {
+            return delegate.getScanner(acc);
+        }
+
+        @Override
+        public Collection<? extends SourceFile> generate(Object acc, ExecutionContext ctx) {
+            return decoration.generate(delegate, () -> delegate.generate(acc, ctx));
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor(Object acc) {
+            return decoration.visitor(delegate, delegate.getVisitor(acc));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.jmockit;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.table.MigrationPatternTable;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.java.testing.table.MigrationPatternsVisitor;
+import org.openrewrite.java.tree.JavaType;
+
+public class FindJMockitMigrationPatterns extends Recipe {
+    transient MigrationPatterns patterns = new MigrationPatterns(this);
+
+    @Override
+    public String getDisplayName() {
+        return "Find JMockit migration patterns";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Count the JMockit annotations, `Expectations` and `Verifications` blocks, fakes and API calls that " +
+               "`JMockitToMockito` would rewrite, without changing any source file. Walks annotations and types only, " +
+               "so estimating the size of a migration costs a fraction of running it.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("mockit..*", false),
+                new MigrationPatternsVisitor(patterns, new MigrationPatternTable() {
+                    @Override
+                    public String getMigration() {
+                        return "org.openrewrite.java.testing.jmockit.JMockitToMockito";
+                    }
+
+                    @Override
+                    public boolean isFrameworkType(@Nullable JavaType.FullyQualified type) {
+                        return type != null && type.getFullyQualifiedName().startsWith("mockit.");
+                    }
+
+                    @Override
+                    public boolean countsAnonymousSubclasses() {
+                        return true;
+                    }
+                }));
+    }
+}
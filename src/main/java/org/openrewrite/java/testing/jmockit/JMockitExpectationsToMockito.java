@@ -55,27 +55,6 @@ public class JMockitExpectationsToMockito extends Recipe {
         private static final String PRIMITIVE_RESULT_TEMPLATE = "when(#{any()}).thenReturn(#{});";
         private static final String OBJECT_RESULT_TEMPLATE = "when(#{any()}).thenReturn(#{any(java.lang.String)});";
         private static final String THROWABLE_RESULT_TEMPLATE = "when(#{any()}).thenThrow(#{any()});";
-        private static final Set<String> JMOCKIT_ARGUMENT_MATCHERS = new HashSet<>();
-        static {
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyString");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyInt");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyLong");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyDouble");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyFloat");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyBoolean");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyByte");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyChar");
-            JMOCKIT_ARGUMENT_MATCHERS.add("anyShort");
-            JMOCKIT_ARGUMENT_MATCHERS.add("any");
-        }
-        private static final Map<String, String> MOCKITO_COLLECTION_MATCHERS = new HashMap<>();
-        static {
-            MOCKITO_COLLECTION_MATCHERS.put("java.util.List", "anyList");
-            MOCKITO_COLLECTION_MATCHERS.put("java.util.Set", "anySet");
-            MOCKITO_COLLECTION_MATCHERS.put("java.util.Collection", "anyCollection");
-            MOCKITO_COLLECTION_MATCHERS.put("java.util.Iterable", "anyIterable");
-            MOCKITO_COLLECTION_MATCHERS.put("java.util.Map", "anyMap");
-        }
 
         @Override
         public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration methodDeclaration, ExecutionContext ctx) {
@@ -83,15 +62,12 @@ public class JMockitExpectationsToMockito extends Recipe {
             if (md.getBody() == null) {
                 return md;
             }
-            // the LST element that is being updated when applying a java template
-            Object cursorLocation = md.getBody();
             J.Block newBody = md.getBody();
-            List<Statement> statements = md.getBody().getStatements();
+            MockitoVerifications verifications = new MockitoVerifications(new Cursor(getCursor(), newBody));
 
             try {
-                // iterate over each statement in the method body, find Expectations blocks and rewrite them
-                for (int bodyStatementIndex = 0; bodyStatementIndex < statements.size(); bodyStatementIndex++) {
-                    Statement s = statements.get(bodyStatementIndex);
+                // find Expectations blocks in the method body and rewrite each with a single template application
+                for (Statement s : md.getBody().getStatements()) {
                     if (!(s instanceof J.NewClass)) {
                         continue;
                     }
@@ -111,44 +87,34 @@ public class JMockitExpectationsToMockito extends Recipe {
                     // we have a valid Expectations block, update imports and rewrite with Mockito statements
                     maybeRemoveImport("mockit.Expectations");
 
-                    // the first coordinates are the coordinates of the Expectations block, replacing it
-                    JavaCoordinates coordinates = nc.getCoordinates().replace();
+                    // group the expectations statements, each invocation followed by its result assignment if any
                     J.Block expectationsBlock = (J.Block) nc.getBody().getStatements().get(0);
-                    List<Object> templateParams = new ArrayList<>();
-
-                    // iterate over the expectations statements and rebuild the method body
-                    int mockitoStatementIndex = 0;
+                    List<List<Object>> expectations = new ArrayList<>();
                     for (Statement expectationStatement : expectationsBlock.getStatements()) {
                         // TODO: handle additional jmockit expectations features
 
                         if (expectationStatement instanceof J.MethodInvocation) {
-                            if (!templateParams.isEmpty()) {
-                                // apply template to build new method body
-                                newBody = rewriteMethodBody(ctx, templateParams, cursorLocation, coordinates);
-
-                                // next statement coordinates are immediately after the statement just added
-                                int newStatementIndex = bodyStatementIndex + mockitoStatementIndex;
-                                coordinates = newBody.getStatements().get(newStatementIndex).getCoordinates().after();
-
-                                // cursor location is now the new body
-                                cursorLocation = newBody;
-
-                                // reset template params for next expectation
-                                templateParams = new ArrayList<>();
-                                mockitoStatementIndex += 1;
-                            }
-                            templateParams.add(expectationStatement);
+                            expectations.add(new ArrayList<>());
+                            expectations.get(expectations.size() - 1).add(expectationStatement);
+                        } else if (MockitoVerifications.isInvocationCount(expectationStatement)) {
+                            // JMockit checks invocation counts when the test ends, so verify them at the end of the method
+                            J.MethodInvocation invocation = (J.MethodInvocation) expectations.get(expectations.size() - 1).get(0);
+                            verifications.add(invocation, (J.Assignment) expectationStatement);
                         } else {
                             // assignment
-                            templateParams.add(((J.Assignment) expectationStatement).getAssignment());
+                            expectations.get(expectations.size() - 1).add(((J.Assignment) expectationStatement).getAssignment());
                         }
                     }
 
-                    // handle the last statement
-                    if (!templateParams.isEmpty()) {
-                        newBody = rewriteMethodBody(ctx, templateParams, cursorLocation, coordinates);
+                    if (!expectations.isEmpty()) {
+                        // the Expectations block is still in the new body, as only the blocks before it have been replaced
+                        newBody = rewriteMethodBody(ctx, expectations, newBody, nc.getCoordinates().replace());
                     }
                 }
+
+                if (!verifications.isEmpty()) {
+                    newBody = appendVerifications(ctx, verifications, newBody);
+                }
             } catch (Exception e) {
                 // if anything goes wrong, just return the original method declaration
                 return md;
@@ -157,31 +123,57 @@ public class JMockitExpectationsToMockito extends Recipe {
             return md.withBody(newBody);
         }
 
-        private J.Block rewriteMethodBody(ExecutionContext ctx, List<Object> templateParams, Object cursorLocation,
+        private J.Block rewriteMethodBody(ExecutionContext ctx, List<List<Object>> expectations, J.Block body,
                                           JavaCoordinates coordinates) {
-            Expression result = null;
-            String methodName;
-            if (templateParams.size() == 1) {
-                methodName = "doNothing";
-            } else if (templateParams.size() == 2) {
-                methodName = "when";
-                result = (Expression) templateParams.get(1);
-            } else {
-                throw new IllegalStateException("Unexpected number of template params: " + templateParams.size());
+            List<String> statementTemplates = new ArrayList<>(expectations.size());
+            Set<String> staticImports = new LinkedHashSet<>();
+            List<Object> templateParams = new ArrayList<>();
+            for (List<Object> expectation : expectations) {
+                Expression result = null;
+                String methodName;
+                if (expectation.size() == 1) {
+                    methodName = "doNothing";
+                } else if (expectation.size() == 2) {
+                    methodName = "when";
+                    result = (Expression) expectation.get(1);
+                } else {
+                    throw new IllegalStateException("Unexpected number of template params: " + expectation.size());
+                }
+                maybeAddImport("org.mockito.Mockito", methodName);
+                staticImports.add("org.mockito.Mockito." + methodName);
+                rewriteArgumentMatchers(ctx, expectation);
+                statementTemplates.add(getMockitoStatementTemplate(result));
+                templateParams.addAll(expectation);
             }
-            maybeAddImport("org.mockito.Mockito", methodName);
-            rewriteArgumentMatchers(ctx, templateParams);
-            return JavaTemplate.builder(getMockitoStatementTemplate(result))
+            return JavaTemplate.builder(String.join("\n", statementTemplates))
                     .javaParser(JavaParser.fromJavaVersion().classpathFromResources(ctx, "mockito-core-3.12"))
-                    .staticImports("org.mockito.Mockito." + methodName)
+                    .staticImports(staticImports.toArray(new String[0]))
                     .build()
                     .apply(
-                            new Cursor(getCursor(), cursorLocation),
+                            new Cursor(getCursor(), body),
                             coordinates,
                             templateParams.toArray()
                     );
         }
 
+        private J.Block appendVerifications(ExecutionContext ctx, MockitoVerifications verifications, J.Block body) {
+            for (String staticImport : verifications.getStaticImports()) {
+                maybeAddImport("org.mockito.Mockito", staticImport);
+            }
+            for (String anImport : verifications.getImports()) {
+                maybeAddImport(anImport);
+            }
+            return JavaTemplate.builder(verifications.getTemplate())
+                    .contextSensitive()
+                    .javaParser(JavaParser.fromJavaVersion().classpathFromResources(ctx, "mockito-core-3.12"))
+                    .staticImports(verifications.getStaticImports().stream()
+                            .map(member -> "org.mockito.Mockito." + member)
+                            .toArray(String[]::new))
+                    .imports(verifications.getImports().toArray(new String[0]))
+                    .build()
+                    .apply(new Cursor(getCursor(), body), body.getCoordinates().lastStatement());
+        }
+
         private void rewriteArgumentMatchers(ExecutionContext ctx, List<Object> bodyTemplateParams) {
             J.MethodInvocation invocation = (J.MethodInvocation) bodyTemplateParams.get(0);
             List<Expression> newArguments = new ArrayList<>(invocation.getArguments().size());
@@ -213,9 +205,9 @@ public class JMockitExpectationsToMockito extends Recipe {
                 } else {
                     throw new IllegalStateException("Unexpected J.TypeCast type: " + typeCastType);
                 }
-                if (MOCKITO_COLLECTION_MATCHERS.containsKey(fqn)) {
+                if (MockitoVerifications.MOCKITO_COLLECTION_MATCHERS.containsKey(fqn)) {
                     // mockito has specific argument matchers for collections
-                    argumentMatcher = MOCKITO_COLLECTION_MATCHERS.get(fqn);
+                    argumentMatcher = MockitoVerifications.MOCKITO_COLLECTION_MATCHERS.get(fqn);
                     template = argumentMatcher + "()";
                 } else {
                     // rewrite parameter from ((<type>) any) to <type>.class
@@ -258,7 +250,7 @@ public class JMockitExpectationsToMockito extends Recipe {
                 return false;
             }
             J.Identifier identifier = (J.Identifier) expression;
-            return JMOCKIT_ARGUMENT_MATCHERS.contains(identifier.getSimpleName());
+            return MockitoVerifications.JMOCKIT_ARGUMENT_MATCHERS.contains(identifier.getSimpleName());
         }
 
         private static String getMockitoStatementTemplate(Expression result) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.jmockit;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+
+import java.util.List;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class JMockitVerificationsToMockito extends Recipe {
+    @Override
+    public String getDisplayName() {
+        return "Rewrite JMockit Verifications";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Rewrites JMockit `Verifications` blocks to Mockito `verify(..)` statements, translating `times`, " +
+               "`minTimes` and `maxTimes` to `times(..)`, `atLeast(..)` and `atMost(..)`.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("mockit.Verifications", false),
+                new RewriteVerificationsVisitor());
+    }
+
+    private static class RewriteVerificationsVisitor extends JavaIsoVisitor<ExecutionContext> {
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration methodDeclaration, ExecutionContext ctx) {
+            J.MethodDeclaration md = super.visitMethodDeclaration(methodDeclaration, ctx);
+            if (md.getBody() == null) {
+                return md;
+            }
+            J.Block newBody = md.getBody();
+
+            try {
+                for (Statement s : md.getBody().getStatements()) {
+                    if (!(s instanceof J.NewClass)) {
+                        continue;
+                    }
+                    J.NewClass nc = (J.NewClass) s;
+                    if (!(nc.getClazz() instanceof J.Identifier) ||
+                        !TypeUtils.isOfClassType(nc.getClazz().getType(), "mockit.Verifications") ||
+                        nc.getBody() == null || nc.getBody().getStatements().size() != 1) {
+                        continue;
+                    }
+
+                    // collect the verified invocations, each optionally followed by an invocation count
+                    J.Block verificationsBlock = (J.Block) nc.getBody().getStatements().get(0);
+                    Cursor bodyCursor = new Cursor(getCursor(), newBody);
+                    MockitoVerifications verifications = new MockitoVerifications(bodyCursor);
+                    List<Statement> statements = verificationsBlock.getStatements();
+                    for (int i = 0; i < statements.size(); i++) {
+                        J.MethodInvocation invocation = (J.MethodInvocation) statements.get(i);
+                        if (i + 1 < statements.size() && MockitoVerifications.isInvocationCount(statements.get(i + 1))) {
+                            verifications.add(invocation, (J.Assignment) statements.get(++i));
+                        } else {
+                            verifications.add(invocation, null);
+                        }
+                    }
+                    if (verifications.isEmpty()) {
+                        continue;
+                    }
+
+                    maybeRemoveImport("mockit.Verifications");
+                    for (String staticImport : verifications.getStaticImports()) {
+                        maybeAddImport("org.mockito.Mockito", staticImport);
+                    }
+                    for (String anImport : verifications.getImports()) {
+                        maybeAddImport(anImport);
+                    }
+                    newBody = JavaTemplate.builder(verifications.getTemplate())
+                            .contextSensitive()
+                            .javaParser(JavaParser.fromJavaVersion().classpathFromResources(ctx, "mockito-core-3.12"))
+                            .staticImports(verifications.getStaticImports().stream()
+                                    .map(member -> "org.mockito.Mockito." + member)
+                                    .toArray(String[]::new))
+                            .imports(verifications.getImports().toArray(new String[0]))
+                            .build()
+                            .apply(bodyCursor, nc.getCoordinates().replace());
+                }
+            } catch (Exception e) {
+                // if anything goes wrong, for example when a block uses withCapture(), leave the method as it is
+                return md;
+            }
+
+            return md.withBody(newBody);
+        }
+    }
+}
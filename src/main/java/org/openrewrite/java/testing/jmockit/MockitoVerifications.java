@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.jmockit;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+
+/**
+ * Builds the source of Mockito {@code verify(..)} statements for the invocations recorded in a JMockit
+ * {@code Verifications} block, or for the invocations of an {@code Expectations} block that constrain how often they
+ * are called, so that all of them can be added with a single template application.
+ */
+final class MockitoVerifications {
+    static final Set<String> JMOCKIT_ARGUMENT_MATCHERS = new HashSet<>(Arrays.asList(
+            "anyString", "anyInt", "anyLong", "anyDouble", "anyFloat", "anyBoolean", "anyByte", "anyChar", "anyShort", "any"));
+
+    static final Map<String, String> MOCKITO_COLLECTION_MATCHERS = new HashMap<>();
+
+    static {
+        MOCKITO_COLLECTION_MATCHERS.put("java.util.List", "anyList");
+        MOCKITO_COLLECTION_MATCHERS.put("java.util.Set", "anySet");
+        MOCKITO_COLLECTION_MATCHERS.put("java.util.Collection", "anyCollection");
+        MOCKITO_COLLECTION_MATCHERS.put("java.util.Iterable", "anyIterable");
+        MOCKITO_COLLECTION_MATCHERS.put("java.util.Map", "anyMap");
+    }
+
+    private static final Map<String, String> VERIFICATION_MODES = new HashMap<>();
+
+    static {
+        VERIFICATION_MODES.put("times", "times");
+        VERIFICATION_MODES.put("minTimes", "atLeast");
+        VERIFICATION_MODES.put("maxTimes", "atMost");
+    }
+
+    private final Cursor cursor;
+    private final List<String> statements = new ArrayList<>();
+    private final Set<String> staticImports = new LinkedHashSet<>();
+    private final Set<String> imports = new LinkedHashSet<>();
+
+    MockitoVerifications(Cursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return Whether the statement is a {@code times}, {@code minTimes} or {@code maxTimes} assignment.
+     */
+    static boolean isInvocationCount(Statement statement) {
+        return statement instanceof J.Assignment &&
+               ((J.Assignment) statement).getVariable() instanceof J.Identifier &&
+               VERIFICATION_MODES.containsKey(((J.Identifier) ((J.Assignment) statement).getVariable()).getSimpleName());
+    }
+
+    /**
+     * Add a statement verifying the invocation, at least once or as constrained by an invocation count assignment.
+     */
+    void add(J.MethodInvocation invocation, @Nullable J.Assignment invocationCount) {
+        if (!(invocation.getSelect() instanceof J.Identifier || invocation.getSelect() instanceof J.FieldAccess)) {
+            throw new IllegalStateException("Only invocations on a mock can be verified: " + invocation);
+        }
+        StringBuilder statement = new StringBuilder("verify(").append(invocation.getSelect().printTrimmed(cursor));
+        staticImports.add("verify");
+        if (invocationCount == null) {
+            // JMockit verifies an invocation without a count at least once, Mockito's verify(..) exactly once
+            statement.append(", atLeastOnce()");
+            staticImports.add("atLeastOnce");
+        } else {
+            String mode = VERIFICATION_MODES.get(((J.Identifier) invocationCount.getVariable()).getSimpleName());
+            statement.append(", ").append(mode).append('(')
+                    .append(invocationCount.getAssignment().printTrimmed(cursor)).append(')');
+            staticImports.add(mode);
+        }
+        statement.append(").").append(invocation.getSimpleName()).append('(');
+        StringJoiner arguments = new StringJoiner(", ");
+        for (Expression argument : invocation.getArguments()) {
+            if (!(argument instanceof J.Empty)) {
+                arguments.add(argument(argument));
+            }
+        }
+        statements.add(statement.append(arguments).append(");").toString());
+    }
+
+    boolean isEmpty() {
+        return statements.isEmpty();
+    }
+
+    String getTemplate() {
+        return String.join("\n", statements);
+    }
+
+    /**
+     * @return The members of {@code org.mockito.Mockito} the statements use.
+     */
+    Set<String> getStaticImports() {
+        return staticImports;
+    }
+
+    /**
+     * @return The types referenced by {@code any(..)} argument matchers.
+     */
+    Set<String> getImports() {
+        return imports;
+    }
+
+    private String argument(Expression argument) {
+        if (argument instanceof J.MethodInvocation && ((J.MethodInvocation) argument).getSimpleName().startsWith("with")) {
+            // withCapture(), withEqual(..), withInstanceOf(..) and friends have no direct textual equivalent
+            throw new IllegalStateException("Unsupported JMockit argument matcher: " + argument);
+        }
+        Expression matcher = argument instanceof J.TypeCast ? ((J.TypeCast) argument).getExpression() : argument;
+        if (!(matcher instanceof J.Identifier) || !JMOCKIT_ARGUMENT_MATCHERS.contains(((J.Identifier) matcher).getSimpleName())) {
+            return argument.printTrimmed(cursor);
+        }
+        String argumentMatcher = ((J.Identifier) matcher).getSimpleName();
+        if (!(argument instanceof J.TypeCast)) {
+            staticImports.add(argumentMatcher);
+            return argumentMatcher + "()";
+        }
+        JavaType.FullyQualified type = TypeUtils.asFullyQualified(argument.getType());
+        if (type == null) {
+            throw new IllegalStateException("Unexpected J.TypeCast type: " + argument.getType());
+        }
+        String collectionMatcher = MOCKITO_COLLECTION_MATCHERS.get(type.getFullyQualifiedName());
+        if (collectionMatcher != null) {
+            staticImports.add(collectionMatcher);
+            return collectionMatcher + "()";
+        }
+        staticImports.add(argumentMatcher);
+        imports.add(type.getFullyQualifiedName());
+        return argumentMatcher + "(" + type.getClassName() + ".class)";
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+
+/**
+ * The annotations of a compilation unit by annotation type, so that the JUnit 4 to 5 migration recipes can look up
+ * annotated declarations instead of each scanning the tree with {@link org.openrewrite.java.search.FindAnnotations}.
+ * <p>
+ * The index is built once per compilation unit and kept in the execution context. It is rebuilt as soon as a recipe
+ * hands on a different compilation unit instance, so it is never stale, and recipes that make no change share it.
+ * Declarations are identified by id, which survives the changes a visitor makes to them. Annotations with a single
+ * class literal argument are additionally indexed in {@link org.openrewrite.java.AnnotationMatcher} signature form,
+ * such as {@code org.junit.runner.RunWith(org.junit.experimental.runners.Enclosed.class)}.
+ */
+final class AnnotationIndex {
+    private static final String KEY = AnnotationIndex.class.getName();
+
+    private final J.CompilationUnit cu;
+
+    /**
+     * Annotation type to the ids of the declarations carrying it.
+     */
+    private final Map<String, Set<UUID>> annotated = new HashMap<>();
+
+    /**
+     * Annotation type to the ids of the classes containing a declaration carrying it, including the class itself.
+     */
+    private final Map<String, Set<UUID>> annotatedWithin = new HashMap<>();
+
+    /**
+     * Annotation type to the ids of its annotations.
+     */
+    private final Map<String, Set<UUID>> annotations = new HashMap<>();
+
+    private AnnotationIndex(J.CompilationUnit cu) {
+        this.cu = cu;
+        new JavaIsoVisitor<Deque<UUID>>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Deque<UUID> classes) {
+                classes.push(classDecl.getId());
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, classes);
+                classes.pop();
+                return cd;
+            }
+
+            @Override
+            public J.Annotation visitAnnotation(J.Annotation annotation, Deque<UUID> classes) {
+                JavaType.FullyQualified type = TypeUtils.asFullyQualified(annotation.getType());
+                if (type != null) {
+                    // for `public @Test void m()` the direct parent is the modifier, not the method
+                    UUID declaration = getCursor().dropParentUntil(p -> p instanceof J.ClassDeclaration ||
+                                                                        p instanceof J.MethodDeclaration ||
+                                                                        p instanceof J.VariableDeclarations ||
+                                                                        p instanceof SourceFile)
+                            .<J>getValue().getId();
+                    index(type.getFullyQualifiedName(), annotation, declaration, classes);
+                    String classLiteral = classLiteralArgument(annotation);
+                    if (classLiteral != null) {
+                        index(type.getFullyQualifiedName() + "(" + classLiteral + ".class)", annotation, declaration, classes);
+                    }
+                }
+                return annotation;
+            }
+        }.visit(cu, new ArrayDeque<>());
+    }
+
+    static AnnotationIndex of(Cursor cursor, ExecutionContext ctx) {
+        return of(cursor.firstEnclosingOrThrow(J.CompilationUnit.class), ctx);
+    }
+
+    static AnnotationIndex of(J.CompilationUnit cu, ExecutionContext ctx) {
+        AnnotationIndex index = ctx.getMessage(KEY);
+        if (index == null || index.cu != cu) {
+            index = new AnnotationIndex(cu);
+            ctx.putMessage(KEY, index);
+        }
+        return index;
+    }
+
+    boolean contains(String annotationType) {
+        return annotated.containsKey(normalize(annotationType));
+    }
+
+    /**
+     * @return Whether the class, method or variable declaration itself carries the annotation.
+     */
+    boolean isAnnotated(J declaration, String annotationType) {
+        return annotated.getOrDefault(normalize(annotationType), Collections.emptySet()).contains(declaration.getId());
+    }
+
+    /**
+     * @return Whether the class or any declaration in it, including those of nested classes, carries the annotation.
+     */
+    boolean isAnnotatedWithin(J.ClassDeclaration classDecl, String annotationType) {
+        return annotatedWithin.getOrDefault(normalize(annotationType), Collections.emptySet()).contains(classDecl.getId());
+    }
+
+    /**
+     * @return Those of the given annotations, typically the ones of a declaration, that are of the annotation type.
+     */
+    List<J.Annotation> find(List<J.Annotation> candidates, String annotationType) {
+        Set<UUID> ids = annotations.getOrDefault(normalize(annotationType), Collections.emptySet());
+        List<J.Annotation> found = new ArrayList<>();
+        for (J.Annotation candidate : candidates) {
+            if (ids.contains(candidate.getId())) {
+                found.add(candidate);
+            }
+        }
+        return found;
+    }
+
+    private void index(String annotationType, J.Annotation annotation, UUID declaration, Deque<UUID> classes) {
+        annotations.computeIfAbsent(normalize(annotationType), t -> new HashSet<>()).add(annotation.getId());
+        annotated.computeIfAbsent(normalize(annotationType), t -> new HashSet<>()).add(declaration);
+        annotatedWithin.computeIfAbsent(normalize(annotationType), t -> new HashSet<>()).addAll(classes);
+    }
+
+    /**
+     * Nested types may be given with either {@code $} or {@code .} separating them from their outer type.
+     */
+    private static String normalize(String annotationType) {
+        return annotationType.replace('$', '.');
+    }
+
+    @Nullable
+    private static String classLiteralArgument(J.Annotation annotation) {
+        List<Expression> arguments = annotation.getArguments();
+        if (arguments == null || arguments.size() != 1) {
+            return null;
+        }
+        Expression argument = arguments.get(0);
+        if (argument instanceof J.Assignment) {
+            argument = ((J.Assignment) argument).getAssignment();
+        }
+        if (argument instanceof J.FieldAccess && "class".equals(((J.FieldAccess) argument).getSimpleName())) {
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(((J.FieldAccess) argument).getTarget().getType());
+            return type == null ? null : type.getFullyQualifiedName();
+        }
+        return null;
+    }
+}
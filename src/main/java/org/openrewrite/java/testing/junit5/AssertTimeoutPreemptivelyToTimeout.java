@@ -0,0 +1,337 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.*;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.singletonList;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AssertTimeoutPreemptivelyToTimeout extends ScanningRecipe<AssertTimeoutPreemptivelyToTimeout.Accumulator> {
+    private static final String TIMEOUT_DEFAULT = "junit.jupiter.execution.timeout.default";
+    private static final MethodMatcher ASSERT_TIMEOUT_PREEMPTIVELY = new MethodMatcher("org.junit.jupiter.api.Assertions assertTimeoutPreemptively(..)");
+    private static final String TIMEOUT_FAILURE_FACTORY = "org.junit.jupiter.api.Assertions$TimeoutFailureFactory";
+    private static final AnnotationMatcher TEST = new AnnotationMatcher("@org.junit.jupiter.api.Test");
+    private static final AnnotationMatcher TIMEOUT = new AnnotationMatcher("@org.junit.jupiter.api.Timeout");
+
+    /**
+     * Calls that may block indefinitely, which only a preemptive timeout interrupts.
+     */
+    private static final List<MethodMatcher> BLOCKING = Arrays.asList(
+            new MethodMatcher("java.util.concurrent.Future get(..)", true),
+            new MethodMatcher("java.util.concurrent.CompletableFuture join()"),
+            new MethodMatcher("java.util.concurrent.CountDownLatch await(..)"),
+            new MethodMatcher("java.util.concurrent.CyclicBarrier await(..)"),
+            new MethodMatcher("java.util.concurrent.locks.Condition await*(..)", true),
+            new MethodMatcher("java.util.concurrent.locks.Lock lock*(..)", true),
+            new MethodMatcher("java.util.concurrent.Semaphore acquire*(..)"),
+            new MethodMatcher("java.util.concurrent.BlockingQueue take()", true),
+            new MethodMatcher("java.util.concurrent.BlockingQueue put(..)", true),
+            new MethodMatcher("java.lang.Thread join(..)"),
+            new MethodMatcher("java.lang.Object wait(..)"),
+            new MethodMatcher("java.net.ServerSocket accept()", true),
+            new MethodMatcher("java.io.InputStream read(..)", true));
+
+    private static final Map<String, String> DURATION_UNITS = new HashMap<>();
+
+    static {
+        DURATION_UNITS.put("ofNanos", "NANOSECONDS");
+        DURATION_UNITS.put("ofMillis", "MILLISECONDS");
+        DURATION_UNITS.put("ofSeconds", "SECONDS");
+        DURATION_UNITS.put("ofMinutes", "MINUTES");
+        DURATION_UNITS.put("ofHours", "HOURS");
+        DURATION_UNITS.put("ofDays", "DAYS");
+    }
+
+    private static final MethodMatcher DURATION_OF = new MethodMatcher("java.time.Duration of*(long)");
+
+    @Option(displayName = "Default timeout",
+            description = "A timeout for all tests, set as `junit.jupiter.execution.timeout.default` in `junit-platform.properties` " +
+                          "unless the project already configures one.",
+            example = "5 m",
+            required = false)
+    @Nullable
+    String defaultTimeout;
+
+    @JsonCreator
+    public AssertTimeoutPreemptivelyToTimeout(@Nullable @JsonProperty("defaultTimeout") String defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Time out tests on the thread running them";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace `assertTimeoutPreemptively`, which runs the code under test on a new thread and so loses thread-local " +
+               "state such as transactions, with a `@Timeout(threadMode = SAME_THREAD)` when it wraps the whole test, " +
+               "or with `assertTimeout` otherwise. Code that may block indefinitely, such as waiting on a latch, a lock " +
+               "or a future, or that loops, keeps its preemptive timeout, as do calls with a `TimeoutFailureFactory`. " +
+               "Optionally sets a default timeout for all tests.";
+    }
+
+    public static class Accumulator {
+        final AtomicBoolean usesJupiter = new AtomicBoolean();
+        final Set<Path> propertiesPaths = Collections.synchronizedSet(new LinkedHashSet<>());
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        if (defaultTimeout == null) {
+            return TreeVisitor.noop();
+        }
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && JUnitPlatformProperties.isJUnitPlatformProperties((SourceFile) tree)) {
+                    acc.propertiesPaths.add(((SourceFile) tree).getSourcePath());
+                } else if (tree instanceof JavaSourceFile && !acc.usesJupiter.get() &&
+                           new UsesType<>("org.junit.jupiter.api.Test", false).visit(tree, ctx) != tree) {
+                    acc.usesJupiter.set(true);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        if (defaultTimeout == null || !acc.usesJupiter.get() || !acc.propertiesPaths.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return JUnitPlatformProperties.create(TIMEOUT_DEFAULT, defaultTimeout, ctx);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        TreeVisitor<?, ExecutionContext> javaVisitor = Preconditions.check(
+                new UsesMethod<>(ASSERT_TIMEOUT_PREEMPTIVELY), new SameThreadTimeoutVisitor());
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && JUnitPlatformProperties.isJUnitPlatformProperties((SourceFile) tree)) {
+                    return defaultTimeout != null && acc.usesJupiter.get() ?
+                            JUnitPlatformProperties.addIfAbsent((SourceFile) tree, TIMEOUT_DEFAULT, defaultTimeout, ctx) : tree;
+                }
+                return tree instanceof JavaSourceFile ? javaVisitor.visit(tree, ctx) : tree;
+            }
+        };
+    }
+
+    private static class SameThreadTimeoutVisitor extends JavaIsoVisitor<ExecutionContext> {
+        @Nullable
+        private JavaParser.Builder<?, ?> javaParser;
+
+        private JavaParser.Builder<?, ?> javaParser(ExecutionContext ctx) {
+            if (javaParser == null) {
+                javaParser = JavaParser.fromJavaVersion()
+                        .classpathFromResources(ctx, "junit-jupiter-api-5.9");
+            }
+            return javaParser;
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            J.MethodInvocation wrapper = wholeTestWrapper(method);
+            if (wrapper == null) {
+                return super.visitMethodDeclaration(method, ctx);
+            }
+
+            J.MethodInvocation duration = (J.MethodInvocation) wrapper.getArguments().get(0);
+            J.Lambda lambda = (J.Lambda) wrapper.getArguments().get(1);
+            J.Block body = Objects.requireNonNull(method.getBody());
+            J.Block inlined = lambda.getBody() instanceof J.Block ?
+                    ((J.Block) lambda.getBody()).withPrefix(body.getPrefix()) :
+                    body.withStatements(singletonList(((Statement) lambda.getBody()).withPrefix(wrapper.getPrefix())));
+            J.MethodDeclaration m = super.visitMethodDeclaration(method.withBody(inlined), ctx);
+
+            String unit = DURATION_UNITS.get(duration.getSimpleName());
+            String value = ((J.Literal) duration.getArguments().get(0)).getValueSource();
+            m = JavaTemplate.builder("SECONDS".equals(unit) ?
+                            "@Timeout(value = " + value + ", threadMode = Timeout.ThreadMode.SAME_THREAD)" :
+                            "@Timeout(value = " + value + ", unit = TimeUnit." + unit + ", threadMode = Timeout.ThreadMode.SAME_THREAD)")
+                    .javaParser(javaParser(ctx))
+                    .imports("org.junit.jupiter.api.Timeout", "java.util.concurrent.TimeUnit")
+                    .build()
+                    .apply(updateCursor(m), m.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+            maybeAddImport("org.junit.jupiter.api.Timeout");
+            if (!"SECONDS".equals(unit)) {
+                maybeAddImport("java.util.concurrent.TimeUnit");
+            }
+            maybeRemoveImport("org.junit.jupiter.api.Assertions");
+            maybeRemoveImport("org.junit.jupiter.api.Assertions.assertTimeoutPreemptively");
+            maybeRemoveImport("java.time.Duration");
+            return maybeAutoFormat(method, m, ctx, getCursor().getParentOrThrow());
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+            J.MethodInvocation mi = super.visitMethodInvocation(method, ctx);
+            // assertTimeout has no counterpart of the overloads taking a TimeoutFailureFactory
+            if (!ASSERT_TIMEOUT_PREEMPTIVELY.matches(mi) || mi.getMethodType() == null ||
+                mi.getMethodType().getParameterTypes().stream().anyMatch(type -> TypeUtils.isOfClassType(type, TIMEOUT_FAILURE_FACTORY)) ||
+                !(mi.getArguments().get(1) instanceof J.Lambda) || mayBlock(mi.getArguments().get(1))) {
+                return mi;
+            }
+            JavaType.Method assertTimeout = mi.getMethodType().withName("assertTimeout");
+            if (mi.getSelect() == null) {
+                maybeRemoveImport("org.junit.jupiter.api.Assertions.assertTimeoutPreemptively");
+                maybeAddImport("org.junit.jupiter.api.Assertions", "assertTimeout");
+            }
+            return mi.withName(mi.getName().withSimpleName("assertTimeout").withType(assertTimeout))
+                    .withMethodType(assertTimeout);
+        }
+
+        /**
+         * The {@code assertTimeoutPreemptively(Duration.ofX(n), () -> ...)} that is the only statement of a test
+         * without a {@code @Timeout} yet, and whose code can run as the body of the test method.
+         */
+        @Nullable
+        private static J.MethodInvocation wholeTestWrapper(J.MethodDeclaration method) {
+            if (method.getBody() == null || method.getBody().getStatements().size() != 1 ||
+                method.getLeadingAnnotations().stream().noneMatch(TEST::matches) ||
+                method.getLeadingAnnotations().stream().anyMatch(TIMEOUT::matches) ||
+                !(method.getBody().getStatements().get(0) instanceof J.MethodInvocation)) {
+                return null;
+            }
+            J.MethodInvocation wrapper = (J.MethodInvocation) method.getBody().getStatements().get(0);
+            if (!ASSERT_TIMEOUT_PREEMPTIVELY.matches(wrapper) || wrapper.getArguments().size() != 2 ||
+                !DURATION_OF.matches(wrapper.getArguments().get(0)) ||
+                !DURATION_UNITS.containsKey(((J.MethodInvocation) wrapper.getArguments().get(0)).getSimpleName()) ||
+                !(((J.MethodInvocation) wrapper.getArguments().get(0)).getArguments().get(0) instanceof J.Literal) ||
+                !(wrapper.getArguments().get(1) instanceof J.Lambda)) {
+                return null;
+            }
+            J.Lambda lambda = (J.Lambda) wrapper.getArguments().get(1);
+            if (!(lambda.getBody() instanceof J.Block || lambda.getBody() instanceof J.MethodInvocation ||
+                  lambda.getBody() instanceof J.NewClass) || mayBlock(lambda) || returnsOrThrows(lambda) ||
+                throwsUndeclared(lambda, method)) {
+                return null;
+            }
+            return wrapper;
+        }
+
+        private static boolean mayBlock(J executable) {
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.WhileLoop visitWhileLoop(J.WhileLoop whileLoop, AtomicBoolean found) {
+                    found.set(true);
+                    return whileLoop;
+                }
+
+                @Override
+                public J.ForLoop visitForLoop(J.ForLoop forLoop, AtomicBoolean found) {
+                    found.set(true);
+                    return forLoop;
+                }
+
+                @Override
+                public J.DoWhileLoop visitDoWhileLoop(J.DoWhileLoop doWhileLoop, AtomicBoolean found) {
+                    found.set(true);
+                    return doWhileLoop;
+                }
+
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                    if (BLOCKING.stream().anyMatch(matcher -> matcher.matches(method))) {
+                        found.set(true);
+                    }
+                    return super.visitMethodInvocation(method, found);
+                }
+            }.reduce(executable, new AtomicBoolean()).get();
+        }
+
+        /**
+         * Whether inlining the lambda body would change the meaning of its {@code return} or {@code throw} statements.
+         */
+        private static boolean returnsOrThrows(J.Lambda lambda) {
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Return visitReturn(J.Return _return, AtomicBoolean found) {
+                    found.set(true);
+                    return _return;
+                }
+
+                @Override
+                public J.Throw visitThrow(J.Throw thrown, AtomicBoolean found) {
+                    found.set(true);
+                    return thrown;
+                }
+            }.reduce(lambda.getBody(), new AtomicBoolean()).get();
+        }
+
+        /**
+         * Whether the lambda calls code declaring checked exceptions which the {@code Executable} it implements may
+         * throw but the test method does not declare.
+         */
+        private static boolean throwsUndeclared(J.Lambda lambda, J.MethodDeclaration test) {
+            List<JavaType> declared = new ArrayList<>();
+            if (test.getThrows() != null) {
+                for (NameTree thrown : test.getThrows()) {
+                    declared.add(thrown.getType());
+                }
+            }
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                    check(method.getMethodType(), found);
+                    return super.visitMethodInvocation(method, found);
+                }
+
+                @Override
+                public J.NewClass visitNewClass(J.NewClass newClass, AtomicBoolean found) {
+                    check(newClass.getConstructorType(), found);
+                    return super.visitNewClass(newClass, found);
+                }
+
+                private void check(@Nullable JavaType.Method methodType, AtomicBoolean found) {
+                    if (methodType == null) {
+                        found.set(true);
+                        return;
+                    }
+                    for (JavaType thrown : methodType.getThrownExceptions()) {
+                        if (!TypeUtils.isAssignableTo("java.lang.RuntimeException", thrown) &&
+                            !TypeUtils.isAssignableTo("java.lang.Error", thrown) &&
+                            declared.stream().noneMatch(type -> TypeUtils.isAssignableTo(type, thrown))) {
+                            found.set(true);
+                        }
+                    }
+                }
+            }.reduce(lambda.getBody(), new AtomicBoolean()).get();
+        }
+    }
+}
@@ -20,13 +20,11 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
 import java.util.Collections;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,13 +49,13 @@ public class CategoryToTag extends Recipe {
     }
 
     public static class CategoryToTagVisitor extends JavaIsoVisitor<ExecutionContext> {
+        private static final String CATEGORY = "org.junit.experimental.categories.Category";
         private static final JavaType.Class tagType = JavaType.ShallowClass.build("org.junit.jupiter.api.Tag");
 
         @Override
         public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
             J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
-            Set<J.Annotation> categoryAnnotations = FindAnnotations.find(cd, "@" + "org.junit.experimental.categories.Category");
-            if (!categoryAnnotations.isEmpty()) {
+            if (AnnotationIndex.of(getCursor(), ctx).isAnnotated(cd, CATEGORY)) {
                 cd = cd.withLeadingAnnotations(cd.getLeadingAnnotations().stream()
                         .flatMap(this::categoryAnnotationToTagAnnotations)
                         .collect(Collectors.toList()));
@@ -71,8 +69,7 @@ public class CategoryToTag extends Recipe {
         @Override
         public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
             J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
-            Set<J.Annotation> categoryAnnotations = FindAnnotations.find(m, "@" + "org.junit.experimental.categories.Category");
-            if (!categoryAnnotations.isEmpty()) {
+            if (AnnotationIndex.of(getCursor(), ctx).isAnnotated(m, CATEGORY)) {
                 m = m.withLeadingAnnotations(m.getLeadingAnnotations().stream()
                         .flatMap(this::categoryAnnotationToTagAnnotations)
                         .collect(Collectors.toList()));
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.*;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets JUnit Jupiter run test classes concurrently where that is safe. Each top-level test class is checked for
+ * state that tests running in parallel would share: static fields other than constants of immutable types, such as
+ * static mocks, collections or servers, static {@code @TempDir} fields,
+ * assignments to static fields of other classes, mutable instance fields of {@code PER_CLASS} test instances,
+ * changes to system properties, the environment, {@code System.out}/{@code System.err}, the default locale or
+ * time zone, and Mockito static mocks, whether in the test class itself or in a static helper method of another
+ * class it calls. Classes without any are annotated {@code @Execution(CONCURRENT)}, the others
+ * {@code @Execution(SAME_THREAD)} together with a {@code @ResourceLock} for each shared resource that can be named.
+ * Test classes extending another class are kept on one thread, as their superclass is not checked. Classes that
+ * already configure their parallel execution are left alone.
+ * <p>
+ * Parallel execution is enabled in the {@code junit-platform.properties} of every module with Jupiter tests,
+ * unless it is explicitly disabled there.
+ */
+public class EnableParallelExecution extends ScanningRecipe<EnableParallelExecution.Accumulator> {
+    private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+
+    private static final List<AnnotationMatcher> TEST_ANNOTATIONS = Arrays.asList(
+            new AnnotationMatcher("@org.junit.jupiter.api.Test"),
+            new AnnotationMatcher("@org.junit.jupiter.api.RepeatedTest"),
+            new AnnotationMatcher("@org.junit.jupiter.api.TestFactory"),
+            new AnnotationMatcher("@org.junit.jupiter.api.TestTemplate"),
+            new AnnotationMatcher("@org.junit.jupiter.params.ParameterizedTest"));
+    private static final AnnotationMatcher TEMP_DIR = new AnnotationMatcher("@org.junit.jupiter.api.io.TempDir");
+    private static final AnnotationMatcher TEST_INSTANCE = new AnnotationMatcher("@org.junit.jupiter.api.TestInstance");
+
+    /**
+     * Methods changing JVM-wide state, by the {@code @ResourceLock} value guarding it.
+     */
+    private static final Map<String, List<MethodMatcher>> SHARED_RESOURCES = new LinkedHashMap<>();
+
+    static {
+        SHARED_RESOURCES.put("Resources.SYSTEM_PROPERTIES", Arrays.asList(
+                new MethodMatcher("java.lang.System setProperty(..)"),
+                new MethodMatcher("java.lang.System clearProperty(..)"),
+                new MethodMatcher("java.lang.System setProperties(..)")));
+        SHARED_RESOURCES.put("Resources.SYSTEM_OUT", Collections.singletonList(new MethodMatcher("java.lang.System setOut(..)")));
+        SHARED_RESOURCES.put("Resources.SYSTEM_ERR", Collections.singletonList(new MethodMatcher("java.lang.System setErr(..)")));
+        SHARED_RESOURCES.put("Resources.LOCALE", Collections.singletonList(new MethodMatcher("java.util.Locale setDefault(..)")));
+        SHARED_RESOURCES.put("Resources.TIME_ZONE", Collections.singletonList(new MethodMatcher("java.util.TimeZone setDefault(..)")));
+        SHARED_RESOURCES.put("\"java.lang.System.getenv\"", Arrays.asList(
+                new MethodMatcher("*..EnvironmentVariables *(..)"),
+                new MethodMatcher("com.github.stefanbirkner.systemlambda.SystemLambda withEnvironmentVariable(..)")));
+    }
+
+    private static final MethodMatcher MOCK_STATIC = new MethodMatcher("org.mockito.Mockito mockStatic(..)");
+
+    /**
+     * Types whose instances cannot change, so that constants of them are safe to share besides primitives and enums.
+     */
+    private static final Set<String> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.String",
+            "java.lang.Boolean",
+            "java.lang.Byte",
+            "java.lang.Character",
+            "java.lang.Short",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double",
+            "java.lang.Class",
+            "java.math.BigDecimal",
+            "java.math.BigInteger",
+            "java.time.Duration",
+            "java.time.Instant",
+            "java.time.LocalDate",
+            "java.time.LocalDateTime",
+            "java.time.LocalTime",
+            "java.time.OffsetDateTime",
+            "java.time.ZonedDateTime",
+            "java.util.UUID",
+            "java.util.regex.Pattern"));
+
+    @Override
+    public String getDisplayName() {
+        return "Enable parallel execution of JUnit Jupiter tests";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Annotate test classes that share no mutable state with `@Execution(ExecutionMode.CONCURRENT)` and the " +
+               "others with `@Execution(ExecutionMode.SAME_THREAD)` and a `@ResourceLock` for each shared resource " +
+               "that can be identified, such as system properties. Enables parallel execution in `junit-platform.properties`.";
+    }
+
+    public static class Accumulator {
+        final Set<Path> jupiterModules = ConcurrentHashMap.newKeySet();
+        final Set<Path> propertiesModules = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Static methods that change shared state, by their declaring type and name, with the resources they change.
+         */
+        final Map<String, Set<String>> sharingHelpers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && JUnitPlatformProperties.isJUnitPlatformProperties((SourceFile) tree)) {
+                    acc.propertiesModules.add(JUnitPlatformProperties.moduleOf(((SourceFile) tree).getSourcePath()));
+                } else if (tree instanceof JavaSourceFile) {
+                    if (new UsesType<>("org.junit.jupiter.api.Test", false).visit(tree, ctx) != tree) {
+                        acc.jupiterModules.add(JUnitPlatformProperties.moduleOf(((JavaSourceFile) tree).getSourcePath()));
+                    }
+                    new SharingHelpers(acc.sharingHelpers).visit(tree, 0);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        List<SourceFile> generated = new ArrayList<>();
+        for (Path module : acc.jupiterModules) {
+            if (!acc.propertiesModules.contains(module)) {
+                generated.addAll(JUnitPlatformProperties.create(module, PARALLEL_ENABLED, "true", ctx));
+            }
+        }
+        return generated;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        TreeVisitor<?, ExecutionContext> javaVisitor = Preconditions.check(
+                new UsesType<>("org.junit.jupiter..*", false), new ParallelExecutionVisitor(acc.sharingHelpers));
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && JUnitPlatformProperties.isJUnitPlatformProperties((SourceFile) tree)) {
+                    return acc.jupiterModules.contains(JUnitPlatformProperties.moduleOf(((SourceFile) tree).getSourcePath())) ?
+                            JUnitPlatformProperties.addIfAbsent((SourceFile) tree, PARALLEL_ENABLED, "true", ctx) : tree;
+                }
+                return tree instanceof JavaSourceFile ? javaVisitor.visit(tree, ctx) : tree;
+            }
+        };
+    }
+
+    /**
+     * Collects the static methods that change state shared by all tests, so that calls to them from test classes in
+     * other source files count as well.
+     */
+    private static class SharingHelpers extends JavaIsoVisitor<Integer> {
+        private final Map<String, Set<String>> sharingHelpers;
+
+        SharingHelpers(Map<String, Set<String>> sharingHelpers) {
+            this.sharingHelpers = sharingHelpers;
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+            JavaType.Method methodType = method.getMethodType();
+            if (method.hasModifier(J.Modifier.Type.Static) && method.getBody() != null && methodType != null) {
+                SharedState shared = new SharedState(null, Collections.emptyMap());
+                shared.visit(method.getBody(), 0, getCursor());
+                if (shared.found) {
+                    sharingHelpers.put(helperKey(methodType), shared.resources);
+                }
+            }
+            return method;
+        }
+    }
+
+    private static String helperKey(JavaType.Method method) {
+        return method.getDeclaringType().getFullyQualifiedName() + "#" + method.getName();
+    }
+
+    private static class ParallelExecutionVisitor extends JavaIsoVisitor<ExecutionContext> {
+        private final Map<String, Set<String>> sharingHelpers;
+
+        @Nullable
+        private JavaParser.Builder<?, ?> javaParser;
+
+        ParallelExecutionVisitor(Map<String, Set<String>> sharingHelpers) {
+            this.sharingHelpers = sharingHelpers;
+        }
+
+        private JavaParser.Builder<?, ?> javaParser(ExecutionContext ctx) {
+            if (javaParser == null) {
+                javaParser = JavaParser.fromJavaVersion()
+                        .classpathFromResources(ctx, "junit-jupiter-api-5.9");
+            }
+            return javaParser;
+        }
+
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            // only top-level classes, whose execution mode their nested classes inherit
+            if (!(getCursor().getParentTreeCursor().getValue() instanceof JavaSourceFile) ||
+                classDecl.getType() == null || !hasTests(classDecl) || configuresExecution(classDecl)) {
+                return classDecl;
+            }
+
+            SharedState shared = new SharedState(classDecl.getType(), sharingHelpers);
+            shared.visit(classDecl, 0, getCursor().getParentOrThrow());
+
+            J.ClassDeclaration cd = classDecl;
+            List<String> annotations = new ArrayList<>();
+            if (shared.found) {
+                annotations.add("@Execution(ExecutionMode.SAME_THREAD)");
+                for (String resource : shared.resources) {
+                    annotations.add("@ResourceLock(" + resource + ")");
+                }
+            } else {
+                annotations.add("@Execution(ExecutionMode.CONCURRENT)");
+            }
+            for (String annotation : annotations) {
+                cd = JavaTemplate.builder(annotation)
+                        .javaParser(javaParser(ctx))
+                        .imports("org.junit.jupiter.api.parallel.Execution",
+                                "org.junit.jupiter.api.parallel.ExecutionMode",
+                                "org.junit.jupiter.api.parallel.ResourceLock",
+                                "org.junit.jupiter.api.parallel.Resources")
+                        .build()
+                        .apply(updateCursor(cd), cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+            }
+            maybeAddImport("org.junit.jupiter.api.parallel.Execution");
+            maybeAddImport("org.junit.jupiter.api.parallel.ExecutionMode");
+            if (!shared.resources.isEmpty()) {
+                maybeAddImport("org.junit.jupiter.api.parallel.ResourceLock");
+                if (shared.resources.stream().anyMatch(r -> r.startsWith("Resources."))) {
+                    maybeAddImport("org.junit.jupiter.api.parallel.Resources");
+                }
+            }
+            return cd;
+        }
+
+        private static boolean hasTests(J.ClassDeclaration classDecl) {
+            for (Statement statement : classDecl.getBody().getStatements()) {
+                if (statement instanceof J.MethodDeclaration) {
+                    for (J.Annotation annotation : ((J.MethodDeclaration) statement).getLeadingAnnotations()) {
+                        if (TEST_ANNOTATIONS.stream().anyMatch(m -> m.matches(annotation))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean configuresExecution(J.ClassDeclaration classDecl) {
+            for (J.Annotation annotation : classDecl.getLeadingAnnotations()) {
+                JavaType.FullyQualified type = TypeUtils.asFullyQualified(annotation.getType());
+                if (type != null && "org.junit.jupiter.api.parallel".equals(type.getPackageName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Finds the state that tests of one class would share with other tests running at the same time.
+     */
+    private static class SharedState extends JavaIsoVisitor<Integer> {
+        @Nullable
+        private final JavaType.FullyQualified testClass;
+
+        private final Map<String, Set<String>> sharingHelpers;
+
+        boolean found;
+        final Set<String> resources = new TreeSet<>();
+
+        SharedState(@Nullable JavaType.FullyQualified testClass, Map<String, Set<String>> sharingHelpers) {
+            this.testClass = testClass;
+            this.sharingHelpers = sharingHelpers;
+        }
+
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Integer p) {
+            // the state of a superclass is not known here, so a test class with one is not proven free of it
+            if (classDecl.getExtends() != null && ParallelExecutionVisitor.hasTests(classDecl)) {
+                found = true;
+            }
+            if (classDecl.getLeadingAnnotations().stream().anyMatch(SharedState::isPerClass)) {
+                for (Statement statement : classDecl.getBody().getStatements()) {
+                    if (statement instanceof J.VariableDeclarations &&
+                        !((J.VariableDeclarations) statement).hasModifier(J.Modifier.Type.Final)) {
+                        found = true;
+                    }
+                }
+            }
+            return super.visitClassDeclaration(classDecl, p);
+        }
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, Integer p) {
+            // a final field still shares the state of the object it refers to, like a mock, collection or server
+            if (multiVariable.hasModifier(J.Modifier.Type.Static) &&
+                (!multiVariable.hasModifier(J.Modifier.Type.Final) || !isImmutable(multiVariable.getType()) ||
+                 multiVariable.getLeadingAnnotations().stream().anyMatch(TEMP_DIR::matches))) {
+                found = true;
+            }
+            return super.visitVariableDeclarations(multiVariable, p);
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+            for (Map.Entry<String, List<MethodMatcher>> resource : SHARED_RESOURCES.entrySet()) {
+                if (resource.getValue().stream().anyMatch(m -> m.matches(method))) {
+                    found = true;
+                    resources.add(resource.getKey());
+                }
+            }
+            JavaType.Method methodType = method.getMethodType();
+            if (methodType != null && !TypeUtils.isOfType(methodType.getDeclaringType(), testClass)) {
+                Set<String> helperResources = sharingHelpers.get(helperKey(methodType));
+                if (helperResources != null) {
+                    found = true;
+                    resources.addAll(helperResources);
+                }
+            }
+            if (MOCK_STATIC.matches(method)) {
+                found = true;
+                Expression mocked = method.getArguments().get(0);
+                if (mocked instanceof J.FieldAccess && "class".equals(((J.FieldAccess) mocked).getSimpleName())) {
+                    JavaType.FullyQualified mockedType = TypeUtils.asFullyQualified(((J.FieldAccess) mocked).getTarget().getType());
+                    if (mockedType != null) {
+                        resources.add("\"" + mockedType.getFullyQualifiedName() + "\"");
+                    }
+                }
+            }
+            return super.visitMethodInvocation(method, p);
+        }
+
+        @Override
+        public J.Assignment visitAssignment(J.Assignment assignment, Integer p) {
+            assigned(assignment.getVariable());
+            return super.visitAssignment(assignment, p);
+        }
+
+        @Override
+        public J.AssignmentOperation visitAssignmentOperation(J.AssignmentOperation assignOp, Integer p) {
+            assigned(assignOp.getVariable());
+            return super.visitAssignmentOperation(assignOp, p);
+        }
+
+        @Override
+        public J.Unary visitUnary(J.Unary unary, Integer p) {
+            J.Unary.Type operator = unary.getOperator();
+            if (operator == J.Unary.Type.PreIncrement || operator == J.Unary.Type.PreDecrement ||
+                operator == J.Unary.Type.PostIncrement || operator == J.Unary.Type.PostDecrement) {
+                assigned(unary.getExpression());
+            }
+            return super.visitUnary(unary, p);
+        }
+
+        private static boolean isPerClass(J.Annotation annotation) {
+            if (!TEST_INSTANCE.matches(annotation) || annotation.getArguments() == null) {
+                return false;
+            }
+            for (Expression argument : annotation.getArguments()) {
+                Expression value = argument instanceof J.Assignment ? ((J.Assignment) argument).getAssignment() : argument;
+                JavaType.Variable constant = null;
+                if (value instanceof J.FieldAccess) {
+                    constant = ((J.FieldAccess) value).getName().getFieldType();
+                } else if (value instanceof J.Identifier) {
+                    constant = ((J.Identifier) value).getFieldType();
+                }
+                if (constant != null && "PER_CLASS".equals(constant.getName()) &&
+                    TypeUtils.isOfClassType(constant.getType(), "org.junit.jupiter.api.TestInstance$Lifecycle")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isImmutable(@Nullable JavaType type) {
+            if (type instanceof JavaType.Primitive) {
+                return true;
+            }
+            JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+            return fq != null && (fq.getKind() == JavaType.FullyQualified.Kind.Enum ||
+                                  IMMUTABLE_TYPES.contains(fq.getFullyQualifiedName()));
+        }
+
+        private void assigned(Expression variable) {
+            JavaType.Variable field = null;
+            if (variable instanceof J.Identifier) {
+                field = ((J.Identifier) variable).getFieldType();
+            } else if (variable instanceof J.FieldAccess) {
+                field = ((J.FieldAccess) variable).getName().getFieldType();
+            }
+            if (field == null || !field.hasFlags(Flag.Static)) {
+                return;
+            }
+            found = true;
+            JavaType.FullyQualified owner = TypeUtils.asFullyQualified(field.getOwner());
+            if (owner != null && (testClass == null || !TypeUtils.isOfType(owner, testClass))) {
+                resources.add("\"" + owner.getFullyQualifiedName() + "." + field.getName() + "\"");
+            }
+        }
+    }
+}
@@ -24,12 +24,10 @@ import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
 
 import java.util.Comparator;
-import java.util.Set;
 
 @Value
 @EqualsAndHashCode(callSuper = true)
@@ -57,9 +55,8 @@ public class EnclosedToNested extends Recipe {
             @Override
             public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
                 J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
-                final Set<J.Annotation> runWithEnclosedAnnotationSet = FindAnnotations.find(cd.withBody(null),
-                        String.format("@%s(%s.class)", RUN_WITH, ENCLOSED));
-                for (J.Annotation runWithEnclosed : runWithEnclosedAnnotationSet) {
+                for (J.Annotation runWithEnclosed : AnnotationIndex.of(getCursor(), ctx)
+                        .find(cd.getLeadingAnnotations(), RUN_WITH + "(" + ENCLOSED + ".class)")) {
                     cd.getLeadingAnnotations().remove(runWithEnclosed);
                     cd = cd.withBody((J.Block) new AddNestedAnnotationVisitor().visit(cd.getBody(), ctx, getCursor()));
 
@@ -76,7 +73,7 @@ public class EnclosedToNested extends Recipe {
         @Override
         public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
             J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
-            if (hasTestMethods(cd)) {
+            if (hasTestMethods(cd, AnnotationIndex.of(getCursor(), ctx))) {
                 cd = getNestedJavaTemplate(ctx).apply(updateCursor(cd), cd.getCoordinates().addAnnotation(Comparator.comparing(
                         J.Annotation::getSimpleName)));
                 cd.getModifiers().removeIf(modifier -> modifier.getType().equals(J.Modifier.Type.Static));
@@ -92,9 +89,9 @@ public class EnclosedToNested extends Recipe {
                     .build();
         }
 
-        private boolean hasTestMethods(final J.ClassDeclaration cd) {
-            return !FindAnnotations.find(cd, "@" + TEST_JUNIT4).isEmpty()
-                    || !FindAnnotations.find(cd, "@" + TEST_JUNIT_JUPITER).isEmpty();
+        private boolean hasTestMethods(final J.ClassDeclaration cd, AnnotationIndex annotations) {
+            return annotations.isAnnotatedWithin(cd, TEST_JUNIT4)
+                    || annotations.isAnnotatedWithin(cd, TEST_JUNIT_JUPITER);
         }
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.table.MigrationPatternTable;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.java.testing.table.MigrationPatternsVisitor;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FindJUnit4MigrationPatterns extends Recipe {
+    transient MigrationPatterns patterns = new MigrationPatterns(this);
+
+    @Override
+    public String getDisplayName() {
+        return "Find JUnit 4 migration patterns";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Count the JUnit 4 annotations, runners, rules and assertions that `JUnit4to5Migration` would rewrite, " +
+               "without changing any source file. Walks annotations and method types only, so estimating the size of " +
+               "a migration costs a fraction of running it.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(Preconditions.or(
+                new UsesType<>("org.junit..*", false),
+                new UsesType<>("junit.framework..*", false)
+        ), new MigrationPatternsVisitor(patterns, new JUnit4Patterns()));
+    }
+
+    private static class JUnit4Patterns implements MigrationPatternTable {
+        @Override
+        public String getMigration() {
+            return "org.openrewrite.java.testing.junit5.JUnit4to5Migration";
+        }
+
+        @Override
+        public boolean isFrameworkType(@Nullable JavaType.FullyQualified type) {
+            if (type == null) {
+                return false;
+            }
+            String fqn = type.getFullyQualifiedName();
+            return fqn.startsWith("junit.framework.") ||
+                   fqn.startsWith("org.junit.") && !fqn.startsWith("org.junit.jupiter.") && !fqn.startsWith("org.junit.platform.");
+        }
+
+        @Override
+        public @Nullable String extendsPattern(JavaType.FullyQualified supertype) {
+            return TypeUtils.isAssignableTo("junit.framework.TestCase", supertype) ? "extends TestCase" : null;
+        }
+
+        @Override
+        public List<String> annotationPatterns(J.Annotation annotation, JavaType.FullyQualified type) {
+            List<String> patterns = MigrationPatternTable.super.annotationPatterns(annotation, type);
+            if (isFrameworkType(type) && annotation.getArguments() != null) {
+                for (Expression arg : annotation.getArguments()) {
+                    if (arg instanceof J.Assignment) {
+                        patterns.add("@" + type.getClassName() + "(" + ((J.Assignment) arg).getVariable() + ")");
+                    }
+                }
+            }
+            return patterns;
+        }
+
+        @Override
+        public boolean isFrameworkRunner(JavaType.FullyQualified runner) {
+            // every runner is replaced by an extension, or dropped, when migrating to JUnit 5
+            return true;
+        }
+
+        @Override
+        public List<String> fieldPatterns(J.VariableDeclarations field) {
+            List<String> patterns = new ArrayList<>();
+            JavaType.FullyQualified ruleType = TypeUtils.asFullyQualified(field.getType());
+            if (ruleType != null) {
+                for (J.Annotation annotation : field.getLeadingAnnotations()) {
+                    if (TypeUtils.isOfClassType(annotation.getType(), "org.junit.Rule") ||
+                        TypeUtils.isOfClassType(annotation.getType(), "org.junit.ClassRule")) {
+                        patterns.add("@" + annotation.getSimpleName() + " " + ruleType.getClassName());
+                    }
+                }
+            }
+            return patterns;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.*;
 import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.timeout.RecipeDeadline;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Space;
@@ -89,6 +90,7 @@ public class JUnitParamsRunnerToParameterized extends Recipe {
 
         @Override
         public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            RecipeDeadline.check(ctx);
             J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
             Cursor classDeclCursor = getCursor().dropParentUntil(J.ClassDeclaration.class::isInstance);
             // methods having names starting with parametersFor... are init methods
@@ -243,6 +245,7 @@ public class JUnitParamsRunnerToParameterized extends Recipe {
             if (unsupportedConversions.contains(method.getSimpleName())) {
                 return method;
             }
+            RecipeDeadline.check(ctx);
             J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
             final String paramTestName = initMethodReferences.get(m.getSimpleName());
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.testing.internal.PropertiesFiles;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+/**
+ * The {@code junit-platform.properties} files that configure the JUnit Platform.
+ */
+final class JUnitPlatformProperties {
+    private static final String FILE_NAME = "junit-platform.properties";
+    private static final Path DEFAULT_PATH = Paths.get("src", "test", "resources", FILE_NAME);
+
+    private JUnitPlatformProperties() {
+    }
+
+    static boolean isJUnitPlatformProperties(SourceFile sourceFile) {
+        return PropertiesFiles.hasFileName(sourceFile, FILE_NAME);
+    }
+
+    /**
+     * The directory of the module a source file belongs to, which is everything before its {@code src} directory.
+     */
+    static Path moduleOf(Path sourcePath) {
+        for (int i = 0; i < sourcePath.getNameCount() - 1; i++) {
+            if ("src".equals(sourcePath.getName(i).toString())) {
+                return i == 0 ? Paths.get("") : sourcePath.subpath(0, i);
+            }
+        }
+        return Paths.get("");
+    }
+
+    /**
+     * A new {@code src/test/resources/junit-platform.properties} holding just the given entry.
+     */
+    static Collection<SourceFile> create(String key, String value, ExecutionContext ctx) {
+        return create(Paths.get(""), key, value, ctx);
+    }
+
+    /**
+     * A new {@code src/test/resources/junit-platform.properties} of the given module holding just the given entry.
+     */
+    static Collection<SourceFile> create(Path module, String key, String value, ExecutionContext ctx) {
+        return PropertiesFiles.create(module.resolve(DEFAULT_PATH), key, value, ctx);
+    }
+
+    /**
+     * Add the entry, unless the file already has one for {@code key}.
+     */
+    static SourceFile addIfAbsent(SourceFile sourceFile, String key, String value, ExecutionContext ctx) {
+        return PropertiesFiles.addIfAbsent(sourceFile, key, value, ctx);
+    }
+}
@@ -20,7 +20,6 @@ import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
-import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
@@ -30,7 +29,6 @@ import org.openrewrite.java.tree.J.Modifier.Type;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class LifecycleNonPrivate extends Recipe {
 
@@ -59,16 +57,13 @@ public class LifecycleNonPrivate extends Recipe {
     }
 
     private static class LifecycleNonPrivateVisitor extends JavaIsoVisitor<ExecutionContext> {
-        final List<AnnotationMatcher> lifeCycleAnnotationMatchers = ANNOTATION_TYPES.stream()
-                .map(annoFqn -> "@" + annoFqn).map(AnnotationMatcher::new).collect(Collectors.toList());
-
         @Override
         public J.MethodDeclaration visitMethodDeclaration(MethodDeclaration method, ExecutionContext ctx) {
             J.MethodDeclaration md = super.visitMethodDeclaration(method, ctx);
 
+            AnnotationIndex annotations = AnnotationIndex.of(getCursor(), ctx);
             if (J.Modifier.hasModifier(md.getModifiers(), Type.Private)
-                    && md.getLeadingAnnotations().stream().anyMatch(ann -> lifeCycleAnnotationMatchers.stream()
-                    .anyMatch(matcher -> matcher.matches(ann)))) {
+                    && ANNOTATION_TYPES.stream().anyMatch(type -> annotations.isAnnotated(md, type))) {
                 return maybeAutoFormat(md,
                         md.withModifiers(ListUtils.map(md.getModifiers(),
                                 modifier -> modifier.getType() == Type.Private ? null : modifier)),
@@ -37,10 +37,7 @@ public class ParameterizedRunnerToParameterized extends Recipe {
     private static final AnnotationMatcher PARAMETER = new AnnotationMatcher("@org.junit.runners.Parameterized$Parameter");
     private static final AnnotationMatcher PARAMETERIZED_TEST = new AnnotationMatcher("@org.junit.jupiter.params.ParameterizedTest");
 
-    private static final String PARAMETERS_ANNOTATION_ARGUMENTS = "parameters-annotation-args";
-    private static final String CONSTRUCTOR_ARGUMENTS = "constructor-args";
-    private static final String FIELD_INJECTION_ARGUMENTS = "field-injection-args";
-    private static final String PARAMETERS_METHOD_NAME = "parameters-method-name";
+    private static final String PARAMETERIZED_CLASS = "parameterized-class";
 
     @Override
     public String getDisplayName() {
@@ -57,29 +54,42 @@ public class ParameterizedRunnerToParameterized extends Recipe {
         return Preconditions.check(new UsesType<>("org.junit.runners.Parameterized", false), new ParameterizedRunnerVisitor());
     }
 
+    /**
+     * What {@link ParameterizedRunnerVisitor} collects about one class, kept on that class's cursor.
+     */
+    private static class ParameterizedClass {
+        @Nullable
+        String parametersMethodName;
+
+        @Nullable
+        List<Expression> parametersAnnotationArguments;
+
+        @Nullable
+        List<Statement> constructorParams;
+
+        final TreeMap<Integer, Statement> fieldInjectionParams = new TreeMap<>();
+    }
+
     private static class ParameterizedRunnerVisitor extends JavaIsoVisitor<ExecutionContext> {
-        @SuppressWarnings("unchecked")
         @Override
         public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            ParameterizedClass params = new ParameterizedClass();
+            getCursor().putMessage(PARAMETERIZED_CLASS, params);
             J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
-            Map<String, Object> params = getCursor().pollMessage(classDecl.getId().toString());
-            if (params != null) {
-                String parametersMethodName = (String) params.get(PARAMETERS_METHOD_NAME);
-                List<Expression> parametersAnnotationArguments = (List<Expression>) params.get(PARAMETERS_ANNOTATION_ARGUMENTS);
-                List<Statement> constructorParams = (List<Statement>) params.get(CONSTRUCTOR_ARGUMENTS);
-                Map<Integer, Statement> fieldInjectionParams = (Map<Integer, Statement>) params.get(FIELD_INJECTION_ARGUMENTS);
-                String initMethodName = "init" + cd.getSimpleName();
-
-                // Constructor Injected Test
-                if (parametersMethodName != null && constructorParams != null && constructorParams.stream().anyMatch(org.openrewrite.java.tree.J.VariableDeclarations.class::isInstance)) {
-                    doAfterVisit(new ParameterizedRunnerToParameterizedTestsVisitor(classDecl, parametersMethodName, initMethodName, parametersAnnotationArguments, constructorParams, true, ctx));
-                }
+            if (params.parametersMethodName == null) {
+                return cd;
+            }
 
-                // Field Injected Test
-                else if (parametersMethodName != null && fieldInjectionParams != null) {
-                    List<Statement> fieldParams = new ArrayList<>(fieldInjectionParams.values());
-                    doAfterVisit(new ParameterizedRunnerToParameterizedTestsVisitor(classDecl, parametersMethodName, initMethodName, parametersAnnotationArguments, fieldParams, false, ctx));
-                }
+            String initMethodName = "init" + cd.getSimpleName();
+            // Constructor Injected Test
+            if (params.constructorParams != null && params.constructorParams.stream().anyMatch(J.VariableDeclarations.class::isInstance)) {
+                doAfterVisit(new ParameterizedRunnerToParameterizedTestsVisitor(classDecl, params.parametersMethodName, initMethodName, params.parametersAnnotationArguments, params.constructorParams, true, ctx));
+            }
+
+            // Field Injected Test
+            else if (!params.fieldInjectionParams.isEmpty()) {
+                List<Statement> fieldParams = new ArrayList<>(params.fieldInjectionParams.values());
+                doAfterVisit(new ParameterizedRunnerToParameterizedTestsVisitor(classDecl, params.parametersMethodName, initMethodName, params.parametersAnnotationArguments, fieldParams, false, ctx));
             }
             return cd;
         }
@@ -87,16 +97,14 @@ public class ParameterizedRunnerToParameterized extends Recipe {
         @Override
         public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
             J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
-            Cursor classDeclCursor = getCursor().dropParentUntil(J.ClassDeclaration.class::isInstance);
             if (m.isConstructor()) {
-                Map<String, Object> params = classDeclCursor.computeMessageIfAbsent(((J.ClassDeclaration) classDeclCursor.getValue()).getId().toString(), v -> new HashMap<>());
-                params.put(CONSTRUCTOR_ARGUMENTS, m.getParameters());
+                parameterizedClass().constructorParams = m.getParameters();
             }
             for (J.Annotation annotation : m.getLeadingAnnotations()) {
                 if (PARAMETERS.matches(annotation)) {
-                    Map<String, Object> params = classDeclCursor.computeMessageIfAbsent(((J.ClassDeclaration) classDeclCursor.getValue()).getId().toString(), v -> new HashMap<>());
-                    params.put(PARAMETERS_ANNOTATION_ARGUMENTS, annotation.getArguments());
-                    params.put(PARAMETERS_METHOD_NAME, method.getSimpleName());
+                    ParameterizedClass params = parameterizedClass();
+                    params.parametersAnnotationArguments = annotation.getArguments();
+                    params.parametersMethodName = method.getSimpleName();
                     break;
                 }
             }
@@ -106,7 +114,6 @@ public class ParameterizedRunnerToParameterized extends Recipe {
         @Override
         public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
             J.VariableDeclarations variableDeclarations = super.visitVariableDeclarations(multiVariable, ctx);
-            Cursor classDeclCursor = getCursor().dropParentUntil(J.ClassDeclaration.class::isInstance);
             J.Annotation parameterAnnotation = null;
             Integer position = 0;
             for (J.Annotation leadingAnnotation : variableDeclarations.getLeadingAnnotations()) {
@@ -130,11 +137,14 @@ public class ParameterizedRunnerToParameterized extends Recipe {
                 if (variableForInitMethod.getTypeExpression() != null) {
                     variableForInitMethod = variableForInitMethod.withTypeExpression(variableForInitMethod.getTypeExpression().withPrefix(Space.EMPTY).withComments(new ArrayList<>()));
                 }
-                Map<String, TreeMap<Integer, Statement>> params = classDeclCursor.computeMessageIfAbsent(((J.ClassDeclaration) classDeclCursor.getValue()).getId().toString(), v -> new HashMap<>());
-                params.computeIfAbsent(FIELD_INJECTION_ARGUMENTS, v -> new TreeMap<>()).put(position, variableForInitMethod);
+                parameterizedClass().fieldInjectionParams.put(position, variableForInitMethod);
             }
             return variableDeclarations;
         }
+
+        private ParameterizedClass parameterizedClass() {
+            return Objects.requireNonNull(getCursor().getNearestMessage(PARAMETERIZED_CLASS));
+        }
     }
 
     private static class ParameterizedRunnerToParameterizedTestsVisitor extends JavaIsoVisitor<ExecutionContext> {
@@ -55,9 +55,12 @@ public class RemoveObsoleteRunners extends Recipe {
 
         @Override
         public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            AnnotationIndex annotations = AnnotationIndex.of(getCursor(), ctx);
             for (String runner : obsoleteRunners) {
-                //noinspection ConstantConditions
-                doAfterVisit(new RemoveAnnotation("@org.junit.runner.RunWith(" + runner + ".class)").getVisitor());
+                if (annotations.isAnnotated(classDecl, "org.junit.runner.RunWith(" + runner + ".class)")) {
+                    //noinspection ConstantConditions
+                    doAfterVisit(new RemoveAnnotation("@org.junit.runner.RunWith(" + runner + ".class)").getVisitor());
+                }
                 maybeRemoveImport(runner);
             }
             maybeRemoveImport("org.junit.runner.RunWith");
@@ -24,7 +24,6 @@ import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
@@ -93,9 +92,9 @@ public class RunnerToExtension extends Recipe {
             public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
                 J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
 
+                AnnotationIndex annotations = AnnotationIndex.of(getCursor(), ctx);
                 for (String runner : runners) {
-                    //noinspection ConstantConditions
-                    for (J.Annotation runWith : FindAnnotations.find(classDecl.withBody(null), "@org.junit.runner.RunWith(" + runner + ".class)")) {
+                    for (J.Annotation runWith : annotations.find(cd.getAllAnnotations(), "org.junit.runner.RunWith(" + runner + ".class)")) {
                         cd = getExtendsWithTemplate(ctx).apply(
                                 updateCursor(cd),
                                 runWith.getCoordinates().replace(),
@@ -115,8 +114,9 @@ public class RunnerToExtension extends Recipe {
             public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
                 J.MethodDeclaration md = super.visitMethodDeclaration(method, ctx);
 
+                AnnotationIndex annotations = AnnotationIndex.of(getCursor(), ctx);
                 for (String runner : runners) {
-                    for (J.Annotation runWith : FindAnnotations.find(method.withBody(null), "@org.junit.runner.RunWith(" + runner + ".class)")) {
+                    for (J.Annotation runWith : annotations.find(md.getAllAnnotations(), "org.junit.runner.RunWith(" + runner + ".class)")) {
                         md = getExtendsWithTemplate(ctx).apply(
                                 updateCursor(md),
                                 runWith.getCoordinates().replace(),
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.TypeTree;
+import org.openrewrite.marker.Markers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Makes fields static when migrating per-test resources to resources that live as long as the test class.
+ */
+public final class StaticModifier {
+    private StaticModifier() {
+    }
+
+    /**
+     * Add a {@code static} modifier right after the access modifier, or in front of the other modifiers or the type.
+     */
+    public static J.VariableDeclarations addTo(J.VariableDeclarations vd) {
+        J.Modifier staticModifier = new J.Modifier(UUID.randomUUID(), Space.format(" "), Markers.EMPTY, null, J.Modifier.Type.Static, new ArrayList<>());
+        List<J.Modifier> modifiers = new ArrayList<>(vd.getModifiers());
+        int insertAt = 0;
+        for (int i = 0; i < modifiers.size(); i++) {
+            J.Modifier.Type type = modifiers.get(i).getType();
+            if (type == J.Modifier.Type.Public || type == J.Modifier.Type.Protected || type == J.Modifier.Type.Private) {
+                insertAt = i + 1;
+            }
+        }
+        if (insertAt > 0) {
+            modifiers.add(insertAt, staticModifier);
+            return vd.withModifiers(modifiers);
+        }
+        if (!modifiers.isEmpty()) {
+            modifiers.add(0, staticModifier.withPrefix(modifiers.get(0).getPrefix()));
+            modifiers.set(1, modifiers.get(1).withPrefix(Space.format(" ")));
+            return vd.withModifiers(modifiers);
+        }
+        TypeTree typeExpression = vd.getTypeExpression();
+        if (typeExpression == null) {
+            return vd;
+        }
+        modifiers.add(staticModifier.withPrefix(typeExpression.getPrefix()));
+        return vd.withModifiers(modifiers).withTypeExpression(typeExpression.withPrefix(Space.format(" ")));
+    }
+}
@@ -15,22 +15,38 @@
  */
 package org.openrewrite.java.testing.junit5;
 
-import org.openrewrite.ExecutionContext;
-import org.openrewrite.Preconditions;
-import org.openrewrite.Recipe;
-import org.openrewrite.TreeVisitor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.openrewrite.*;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.*;
 import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.timeout.RecipeDeadline;
 import org.openrewrite.java.tree.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
 public class TemporaryFolderToTempDir extends Recipe {
+    private static final List<String> TEMPORARY_FOLDER_METHODS = Arrays.asList("newFile", "newFolder", "getRoot", "create");
+
+    @Option(displayName = "In-memory file system",
+            description = "Create temporary directories as a `Path` on an in-memory Jimfs file system, through a `TempDirFactory`, " +
+                          "rather than as a `File` on disk. Only applies to classes that use the temporary folder as a `Path` " +
+                          "throughout, calling `toPath()` on every file or folder they use. Requires JUnit Jupiter 5.10 and Jimfs.",
+            example = "true",
+            required = false)
+    @Nullable
+    private Boolean inMemoryFileSystem;
 
     @Override
     public String getDisplayName() {
@@ -46,9 +62,6 @@ public class TemporaryFolderToTempDir extends Recipe {
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         return Preconditions.check(new UsesType<>("org.junit.rules.TemporaryFolder", false), new JavaVisitor<ExecutionContext>() {
 
-            final AnnotationMatcher classRule = new AnnotationMatcher("@org.junit.ClassRule");
-            final AnnotationMatcher rule = new AnnotationMatcher("@org.junit.Rule");
-
             @Nullable
             private JavaParser.Builder<?, ?> javaParser;
 
@@ -63,6 +76,9 @@ public class TemporaryFolderToTempDir extends Recipe {
 
             @Override
             public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                if (Boolean.TRUE.equals(inMemoryFileSystem) && InMemoryTempDir.usesOnlyPaths(cu)) {
+                    return new InMemoryTempDir().visitNonNull(cu, ctx);
+                }
                 J.CompilationUnit c = (J.CompilationUnit) super.visitCompilationUnit(cu, ctx);
                 if (c != cu) {
                     c = (J.CompilationUnit) new ChangeType(
@@ -80,7 +96,7 @@ public class TemporaryFolderToTempDir extends Recipe {
             @Override
             public J visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
                 J.VariableDeclarations mv = (J.VariableDeclarations) super.visitVariableDeclarations(multiVariable, ctx);
-                if (!isRuleAnnotatedTemporaryFolder(mv)) {
+                if (!isRuleAnnotatedTemporaryFolder(mv, AnnotationIndex.of(getCursor(), ctx))) {
                     return mv;
                 }
                 String fieldVars = mv.getVariables().stream()
@@ -102,13 +118,9 @@ public class TemporaryFolderToTempDir extends Recipe {
                 return mv;
             }
 
-            private boolean isRuleAnnotatedTemporaryFolder(J.VariableDeclarations vd) {
-                return TypeUtils.isOfClassType(vd.getTypeAsFullyQualified(), "org.junit.rules.TemporaryFolder")
-                       && vd.getLeadingAnnotations().stream().anyMatch(anno -> classRule.matches(anno) || rule.matches(anno));
-            }
-
             @Override
             public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                RecipeDeadline.check(ctx);
                 J.MethodInvocation mi = (J.MethodInvocation) super.visitMethodInvocation(method, ctx);
                 updateCursor(mi);
                 if (mi.getSelect() != null && mi.getMethodType() != null
@@ -154,6 +166,228 @@ public class TemporaryFolderToTempDir extends Recipe {
         });
     }
 
+    private static boolean isRuleAnnotatedTemporaryFolder(J.VariableDeclarations vd, AnnotationIndex annotations) {
+        return TypeUtils.isOfClassType(vd.getTypeAsFullyQualified(), "org.junit.rules.TemporaryFolder")
+               && (annotations.isAnnotated(vd, "org.junit.ClassRule") || annotations.isAnnotated(vd, "org.junit.Rule"));
+    }
+
+    /**
+     * Translates temporary folders into {@code @TempDir} paths on a Jimfs file system, which a
+     * {@code TempDirFactory} nested in the test class creates.
+     */
+    static class InMemoryTempDir extends JavaVisitor<ExecutionContext> {
+        private static final String FACTORY = "InMemoryTempDirFactory";
+
+        @Nullable
+        private JavaParser.Builder<?, ?> javaParser;
+
+        private JavaParser.Builder<?, ?> javaParser() {
+            if (javaParser == null) {
+                javaParser = JavaParser.fromJavaVersion()
+                        .dependsOn(
+                                //language=java
+                                "package org.junit.jupiter.api.io;" +
+                                "import java.lang.annotation.*;" +
+                                "@Target({ElementType.FIELD, ElementType.PARAMETER}) @Retention(RetentionPolicy.RUNTIME)" +
+                                "public @interface TempDir { Class<? extends TempDirFactory> factory() default TempDirFactory.class; }",
+                                //language=java
+                                "package org.junit.jupiter.api.io;" +
+                                "import org.junit.jupiter.api.extension.*;" +
+                                "public interface TempDirFactory extends java.io.Closeable {" +
+                                "  java.nio.file.Path createTempDirectory(AnnotatedElementContext elementContext, ExtensionContext extensionContext) throws Exception;" +
+                                "  default void close() throws java.io.IOException {}" +
+                                "}",
+                                //language=java
+                                "package org.junit.jupiter.api.extension; public interface AnnotatedElementContext {}",
+                                //language=java
+                                "package org.junit.jupiter.api.extension; public interface ExtensionContext {}",
+                                //language=java
+                                "package com.google.common.jimfs;" +
+                                "public final class Configuration { public static native Configuration unix(); }",
+                                //language=java
+                                "package com.google.common.jimfs;" +
+                                "public final class Jimfs { public static native java.nio.file.FileSystem newFileSystem(Configuration configuration); }");
+            }
+            return javaParser;
+        }
+
+        /**
+         * Whether every use of a temporary folder in the source file works the same with a {@code Path}: the folder is
+         * only a field whose methods are called, and the {@code File} those methods return is discarded or immediately
+         * converted with {@code toPath()}.
+         */
+        static boolean usesOnlyPaths(J.CompilationUnit cu) {
+            return !new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean usesFile) {
+                    if (identifier.getFieldType() == null ||
+                        !TypeUtils.isOfClassType(identifier.getType(), "org.junit.rules.TemporaryFolder")) {
+                        return identifier;
+                    }
+                    Object parent = getCursor().getParentTreeCursor().getValue();
+                    if (parent instanceof J.VariableDeclarations.NamedVariable) {
+                        // only rule fields, not parameters or local variables
+                        Cursor declaration = getCursor().getParentTreeCursor().getParentTreeCursor();
+                        Cursor body = declaration.getParentTreeCursor();
+                        if (!(declaration.getValue() instanceof J.VariableDeclarations) || !(body.getValue() instanceof J.Block) ||
+                            !(body.getParentTreeCursor().getValue() instanceof J.ClassDeclaration) ||
+                            ((J.VariableDeclarations) declaration.getValue()).getLeadingAnnotations().stream()
+                                    .noneMatch(a -> "Rule".equals(a.getSimpleName()) || "ClassRule".equals(a.getSimpleName()))) {
+                            usesFile.set(true);
+                        }
+                        return identifier;
+                    }
+                    if (!(parent instanceof J.MethodInvocation) || ((J.MethodInvocation) parent).getSelect() != identifier ||
+                        !TEMPORARY_FOLDER_METHODS.contains(((J.MethodInvocation) parent).getSimpleName())) {
+                        usesFile.set(true);
+                        return identifier;
+                    }
+                    J.MethodInvocation call = (J.MethodInvocation) parent;
+                    Object callParent = getCursor().getParentTreeCursor().getParentTreeCursor().getValue();
+                    if (!(callParent instanceof J.Block) && !"create".equals(call.getSimpleName()) &&
+                        !(callParent instanceof J.MethodInvocation && ((J.MethodInvocation) callParent).getSelect() == call &&
+                          "toPath".equals(((J.MethodInvocation) callParent).getSimpleName()))) {
+                        usesFile.set(true);
+                    }
+                    return identifier;
+                }
+            }.reduce(cu, new AtomicBoolean()).get();
+        }
+
+        @Override
+        public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            J.CompilationUnit c = (J.CompilationUnit) super.visitCompilationUnit(cu, ctx);
+            if (c != cu) {
+                c = (J.CompilationUnit) new ChangeType(
+                        "org.junit.rules.TemporaryFolder", "java.nio.file.Path", true).getVisitor()
+                        .visit(c, ctx);
+                maybeAddImport("java.nio.file.Path");
+                maybeAddImport("org.junit.jupiter.api.io.TempDir");
+                maybeRemoveImport("org.junit.ClassRule");
+                maybeRemoveImport("org.junit.Rule");
+                maybeRemoveImport("org.junit.rules.TemporaryFolder");
+            }
+            return c;
+        }
+
+        @Override
+        public J visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            J.ClassDeclaration cd = classDecl;
+            boolean declaresTemporaryFolder = cd.getBody().getStatements().stream().anyMatch(statement ->
+                    statement instanceof J.VariableDeclarations &&
+                    TypeUtils.isOfClassType(((J.VariableDeclarations) statement).getTypeAsFullyQualified(), "org.junit.rules.TemporaryFolder"));
+            boolean declaresFactory = cd.getBody().getStatements().stream().anyMatch(statement ->
+                    statement instanceof J.ClassDeclaration && FACTORY.equals(((J.ClassDeclaration) statement).getSimpleName()));
+            if (declaresTemporaryFolder && !declaresFactory) {
+                // added first so that the @TempDir fields refer to an attributed factory class
+                cd = JavaTemplate.builder(
+                                "static class " + FACTORY + " implements TempDirFactory {\n" +
+                                "    private final FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix());\n" +
+                                "\n" +
+                                "    @Override\n" +
+                                "    public Path createTempDirectory(AnnotatedElementContext elementContext, ExtensionContext extensionContext) throws IOException {\n" +
+                                "        return Files.createTempDirectory(Files.createDirectories(fileSystem.getPath(\"/tmp\")), \"junit\");\n" +
+                                "    }\n" +
+                                "\n" +
+                                "    @Override\n" +
+                                "    public void close() throws IOException {\n" +
+                                "        fileSystem.close();\n" +
+                                "    }\n" +
+                                "}")
+                        .contextSensitive()
+                        .imports("com.google.common.jimfs.Configuration", "com.google.common.jimfs.Jimfs",
+                                "java.io.IOException", "java.nio.file.FileSystem", "java.nio.file.Files", "java.nio.file.Path",
+                                "org.junit.jupiter.api.extension.AnnotatedElementContext",
+                                "org.junit.jupiter.api.extension.ExtensionContext", "org.junit.jupiter.api.io.TempDirFactory")
+                        .javaParser(javaParser())
+                        .build()
+                        .apply(new Cursor(getCursor().getParentOrThrow(), cd), cd.getBody().getCoordinates().lastStatement());
+                maybeAddImport("com.google.common.jimfs.Configuration");
+                maybeAddImport("com.google.common.jimfs.Jimfs");
+                maybeAddImport("java.io.IOException");
+                maybeAddImport("java.nio.file.FileSystem");
+                maybeAddImport("java.nio.file.Files");
+                maybeAddImport("org.junit.jupiter.api.extension.AnnotatedElementContext");
+                maybeAddImport("org.junit.jupiter.api.extension.ExtensionContext");
+                maybeAddImport("org.junit.jupiter.api.io.TempDirFactory");
+            }
+            return super.visitClassDeclaration(cd, ctx);
+        }
+
+        @Override
+        public J visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+            J.VariableDeclarations mv = (J.VariableDeclarations) super.visitVariableDeclarations(multiVariable, ctx);
+            if (!isRuleAnnotatedTemporaryFolder(mv, AnnotationIndex.of(getCursor(), ctx))) {
+                return mv;
+            }
+            String fieldVars = mv.getVariables().stream()
+                    .map(fv -> fv.withInitializer(null))
+                    .map(it -> it.print(getCursor()))
+                    .collect(Collectors.joining(","));
+            String modifiers = mv.getModifiers().stream().map(it -> it.getType().name().toLowerCase()).collect(Collectors.joining(" "));
+            return JavaTemplate.builder("@TempDir(factory = " + FACTORY + ".class)\n#{} Path#{};")
+                    .contextSensitive()
+                    .imports("java.nio.file.Path", "org.junit.jupiter.api.io.TempDir")
+                    .javaParser(javaParser())
+                    .build()
+                    .apply(updateCursor(mv), mv.getCoordinates().replace(), modifiers, fieldVars);
+        }
+
+        @Override
+        public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+            RecipeDeadline.check(ctx);
+            if ("toPath".equals(method.getSimpleName()) && method.getSelect() instanceof J.MethodInvocation &&
+                isTemporaryFolderMethod((J.MethodInvocation) method.getSelect())) {
+                // the folder method already returns a Path
+                J converted = visit(method.getSelect(), ctx);
+                return converted == null ? null : converted.withPrefix(method.getPrefix());
+            }
+            J.MethodInvocation mi = (J.MethodInvocation) super.visitMethodInvocation(method, ctx);
+            if (!isTemporaryFolderMethod(mi) || mi.getSelect() == null) {
+                return mi;
+            }
+
+            Expression tempDir = mi.getSelect().withType(JavaType.ShallowClass.build("java.nio.file.Path"));
+            List<Expression> args = mi.getArguments().stream().filter(arg -> !(arg instanceof J.Empty)).collect(Collectors.toList());
+            String code;
+            switch (mi.getSimpleName()) {
+                case "getRoot":
+                    return tempDir.withPrefix(mi.getPrefix());
+                case "create":
+                    //noinspection ConstantConditions
+                    return null;
+                case "newFile":
+                    code = args.isEmpty() ?
+                            "Files.createTempFile(#{any(java.nio.file.Path)}, \"junit\", null)" :
+                            "Files.createFile(#{any(java.nio.file.Path)}.resolve(#{any(java.lang.String)}))";
+                    break;
+                default:
+                    StringBuilder resolved = new StringBuilder("#{any(java.nio.file.Path)}");
+                    for (int i = 0; i < args.size(); i++) {
+                        resolved.append(".resolve(#{any(java.lang.String)})");
+                    }
+                    code = args.isEmpty() ?
+                            "Files.createTempDirectory(#{any(java.nio.file.Path)}, \"junit\")" :
+                            "Files.createDirectories(" + resolved + ")";
+            }
+            List<Object> templateArgs = new ArrayList<>(args);
+            templateArgs.add(0, tempDir);
+            maybeAddImport("java.nio.file.Files");
+            return JavaTemplate.builder(code)
+                    .contextSensitive()
+                    .imports("java.nio.file.Files", "java.nio.file.Path")
+                    .javaParser(javaParser())
+                    .build()
+                    .apply(updateCursor(mi), mi.getCoordinates().replace(), templateArgs.toArray());
+        }
+
+        private static boolean isTemporaryFolderMethod(J.MethodInvocation mi) {
+            return mi.getMethodType() != null &&
+                   TypeUtils.isOfClassType(mi.getMethodType().getDeclaringType(), "org.junit.rules.TemporaryFolder") &&
+                   TEMPORARY_FOLDER_METHODS.contains(mi.getSimpleName());
+        }
+    }
+
     private static class AddNewFolderMethod extends JavaIsoVisitor<ExecutionContext> {
         private final J.MethodInvocation methodInvocation;
 
@@ -255,6 +489,7 @@ public class TemporaryFolderToTempDir extends Recipe {
 
             @Override
             public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                RecipeDeadline.check(ctx);
                 J.MethodInvocation mi = (J.MethodInvocation) super.visitMethodInvocation(method, ctx);
                 if (!mi.isScope(methodScope)) {
                     return mi;
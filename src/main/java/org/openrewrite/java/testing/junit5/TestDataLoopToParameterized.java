@@ -0,0 +1,330 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.*;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+
+import static java.util.Collections.singletonList;
+
+public class TestDataLoopToParameterized extends Recipe {
+    private static final AnnotationMatcher JUPITER_TEST = new AnnotationMatcher("@org.junit.jupiter.api.Test");
+    private static final String FACTORIES = "data-loop-factories";
+
+    private static final List<MethodMatcher> ASSERTIONS = Arrays.asList(
+            new MethodMatcher("org.junit.jupiter.api.Assertions *(..)"),
+            new MethodMatcher("org.junit.Assert *(..)"),
+            new MethodMatcher("org.assertj.core.api.Assertions *(..)"),
+            new MethodMatcher("org.hamcrest.MatcherAssert assertThat(..)"));
+    private static final MethodMatcher HAMCREST_MATCHER = new MethodMatcher("org.hamcrest..* *(..)");
+
+    @Override
+    public String getDisplayName() {
+        return "Test data loops to JUnit Jupiter parameterized tests";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Convert a `@Test` whose body is a single loop over a static array or collection constant, asserting on " +
+               "each element, into a `@ParameterizedTest` with a `@MethodSource`. Each element is then reported as its " +
+               "own test case, a failing element no longer hides the ones after it, and the cases can run in parallel.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("org.junit.jupiter.api.Test", false), new DataLoopVisitor());
+    }
+
+    private static class DataLoopVisitor extends JavaIsoVisitor<ExecutionContext> {
+        @Nullable
+        private JavaParser.Builder<?, ?> javaParser;
+
+        private JavaParser.Builder<?, ?> javaParser(ExecutionContext ctx) {
+            if (javaParser == null) {
+                javaParser = JavaParser.fromJavaVersion()
+                        .classpathFromResources(ctx, "junit-jupiter-api-5.9", "junit-jupiter-params-5.9");
+            }
+            return javaParser;
+        }
+
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            Map<String, String> factories = new LinkedHashMap<>();
+            getCursor().putMessage(FACTORIES, factories);
+            J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+            for (Map.Entry<String, String> factory : factories.entrySet()) {
+                cd = JavaTemplate.builder(factory.getValue())
+                        .contextSensitive()
+                        .javaParser(javaParser(ctx))
+                        .imports("java.util.Arrays", "java.util.stream.Stream", "org.junit.jupiter.params.provider.Arguments")
+                        .build()
+                        .apply(updateCursor(cd), cd.getBody().getCoordinates().lastStatement());
+
+                // place each factory right after the test it feeds
+                List<Statement> statements = new ArrayList<>(cd.getBody().getStatements());
+                Statement added = statements.remove(statements.size() - 1);
+                for (int i = 0; i < statements.size(); i++) {
+                    if (statements.get(i) instanceof J.MethodDeclaration &&
+                        ((J.MethodDeclaration) statements.get(i)).getSimpleName().equals(factory.getKey())) {
+                        statements.add(i + 1, added);
+                        break;
+                    }
+                }
+                cd = cd.withBody(cd.getBody().withStatements(statements));
+            }
+            if (!factories.isEmpty()) {
+                maybeAddImport("java.util.Arrays");
+                maybeAddImport("java.util.stream.Stream");
+                maybeAddImport("org.junit.jupiter.params.provider.Arguments");
+            }
+            return cd;
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
+            J.ClassDeclaration cd = getCursor().firstEnclosing(J.ClassDeclaration.class);
+            Map<String, String> factories = getCursor().getNearestMessage(FACTORIES);
+            if (cd == null || factories == null || !canHoldFactories(cd) || m.getBody() == null ||
+                !m.getParameters().stream().allMatch(J.Empty.class::isInstance) ||
+                m.getLeadingAnnotations().stream().noneMatch(JUPITER_TEST::matches) ||
+                m.getBody().getStatements().size() != 1 ||
+                !(m.getBody().getStatements().get(0) instanceof J.ForEachLoop)) {
+                return m;
+            }
+
+            J.ForEachLoop loop = (J.ForEachLoop) m.getBody().getStatements().get(0);
+            J.VariableDeclarations row = loop.getControl().getVariable();
+            String factoryName = m.getSimpleName() + "Cases";
+            String arguments = arguments(loop, cd);
+            if (arguments == null || row.getTypeExpression() == null || row.getVariables().size() != 1 ||
+                row.getTypeExpression() instanceof J.Identifier && "var".equals(((J.Identifier) row.getTypeExpression()).getSimpleName()) ||
+                !onlyAssertions(loop.getBody(), row.getVariables().get(0)) || declaresMethod(cd, factoryName)) {
+                return m;
+            }
+
+            List<Statement> statements = loop.getBody() instanceof J.Block ?
+                    ((J.Block) loop.getBody()).getStatements() :
+                    singletonList(loop.getBody());
+            m = m.withParameters(singletonList(row.withPrefix(Space.EMPTY)))
+                    .withBody(m.getBody().withStatements(statements));
+            if (m.getMethodType() != null) {
+                m = m.withMethodType(m.getMethodType()
+                        .withParameterNames(singletonList(row.getVariables().get(0).getSimpleName()))
+                        .withParameterTypes(singletonList(row.getType())));
+            }
+
+            m = m.withLeadingAnnotations(ListUtils.map(m.getLeadingAnnotations(), annotation -> {
+                if (JUPITER_TEST.matches(annotation)) {
+                    return JavaTemplate.builder("@ParameterizedTest")
+                            .javaParser(javaParser(ctx))
+                            .imports("org.junit.jupiter.params.ParameterizedTest")
+                            .build()
+                            .apply(new Cursor(getCursor(), annotation), annotation.getCoordinates().replace());
+                }
+                return annotation;
+            }));
+            m = JavaTemplate.builder("@MethodSource(\"" + factoryName + "\")")
+                    .javaParser(javaParser(ctx))
+                    .imports("org.junit.jupiter.params.provider.MethodSource")
+                    .build()
+                    .apply(updateCursor(m), m.getCoordinates().addAnnotation(
+                            Comparator.comparing((J.Annotation annotation) -> !"ParameterizedTest".equals(annotation.getSimpleName()))));
+            maybeRemoveImport("org.junit.jupiter.api.Test");
+            maybeAddImport("org.junit.jupiter.params.ParameterizedTest");
+            maybeAddImport("org.junit.jupiter.params.provider.MethodSource");
+
+            factories.put(m.getSimpleName(), "static Stream<Arguments> " + factoryName + "() {\n" +
+                                             "    return " + arguments + ";\n" +
+                                             "}");
+            return maybeAutoFormat(method, m, ctx, getCursor().getParentOrThrow());
+        }
+
+        /**
+         * The stream of {@code Arguments} over the constant the loop iterates, or {@code null} when it does not
+         * iterate a static final field of the class under test.
+         */
+        @Nullable
+        private static String arguments(J.ForEachLoop loop, J.ClassDeclaration cd) {
+            Expression iterable = loop.getControl().getIterable();
+            if (!(iterable instanceof J.Identifier)) {
+                return null;
+            }
+            JavaType.Variable field = ((J.Identifier) iterable).getFieldType();
+            if (field == null || !field.hasFlags(Flag.Static, Flag.Final) ||
+                !TypeUtils.isOfType(field.getOwner(), cd.getType())) {
+                return null;
+            }
+
+            String constant = ((J.Identifier) iterable).getSimpleName();
+            String row = loop.getControl().getVariable().getVariables().get(0).getSimpleName();
+            JavaType elementType;
+            String stream;
+            if (field.getType() instanceof JavaType.Array) {
+                elementType = ((JavaType.Array) field.getType()).getElemType();
+                stream = "Arrays.stream(" + constant + ")";
+            } else if (TypeUtils.isAssignableTo("java.util.Collection", field.getType())) {
+                elementType = null;
+                stream = constant + ".stream()";
+            } else {
+                return null;
+            }
+
+            if (elementType instanceof JavaType.Primitive) {
+                JavaType.Primitive primitive = (JavaType.Primitive) elementType;
+                return primitive == JavaType.Primitive.Int || primitive == JavaType.Primitive.Long ||
+                       primitive == JavaType.Primitive.Double ? stream + ".mapToObj(Arguments::of)" : null;
+            }
+            // an array element must not be spread over the varargs of Arguments.of()
+            return elementType instanceof JavaType.Array || loop.getControl().getVariable().getType() instanceof JavaType.Array ?
+                    stream + ".map(" + row + " -> Arguments.of((Object) " + row + "))" :
+                    stream + ".map(Arguments::of)";
+        }
+
+        /**
+         * Static factory methods are only allowed in top level and static nested classes before Java 16.
+         */
+        private boolean canHoldFactories(J.ClassDeclaration cd) {
+            return cd.hasModifier(J.Modifier.Type.Static) || cd.getKind() == J.ClassDeclaration.Kind.Type.Interface ||
+                   getCursor().dropParentUntil(J.ClassDeclaration.class::isInstance)
+                           .getParentTreeCursor().getValue() instanceof JavaSourceFile;
+        }
+
+        private static boolean declaresMethod(J.ClassDeclaration cd, String name) {
+            return cd.getBody().getStatements().stream()
+                    .anyMatch(s -> s instanceof J.MethodDeclaration && ((J.MethodDeclaration) s).getSimpleName().equals(name));
+        }
+
+        /**
+         * Whether the loop body only unpacks the element into locals and asserts on it with JUnit, AssertJ or Hamcrest,
+         * so running it once per element behaves the same as running it in a loop.
+         */
+        private static boolean onlyAssertions(Statement body, J.VariableDeclarations.NamedVariable element) {
+            List<Statement> statements = body instanceof J.Block ? ((J.Block) body).getStatements() : singletonList(body);
+            if (statements.isEmpty()) {
+                return false;
+            }
+            // the element and the locals unpacked from it, whose accessors may be called
+            Set<String> derived = new HashSet<>();
+            derived.add(element.getSimpleName());
+            for (Statement statement : statements) {
+                if (statement instanceof J.VariableDeclarations) {
+                    for (J.VariableDeclarations.NamedVariable local : ((J.VariableDeclarations) statement).getVariables()) {
+                        if (!isSideEffectFree(local.getInitializer(), derived)) {
+                            return false;
+                        }
+                        if (local.getInitializer() != null && isDerived(local.getInitializer(), derived)) {
+                            derived.add(local.getSimpleName());
+                        }
+                    }
+                    continue;
+                }
+                if (!(statement instanceof J.MethodInvocation)) {
+                    return false;
+                }
+                J.MethodInvocation assertion = (J.MethodInvocation) statement;
+                while (true) {
+                    if (!hasSideEffectFreeArguments(assertion, derived)) {
+                        return false;
+                    }
+                    if (!(assertion.getSelect() instanceof J.MethodInvocation)) {
+                        break;
+                    }
+                    assertion = (J.MethodInvocation) assertion.getSelect();
+                }
+                J.MethodInvocation root = assertion;
+                if (ASSERTIONS.stream().noneMatch(m -> m.matches(root))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Whether the expression only reads the element, like {@code row[0]}, {@code row.input()} or
+         * {@code (String) row.get("name")}, and changes nothing a later element would see.
+         */
+        private static boolean isSideEffectFree(@Nullable Expression e, Set<String> derived) {
+            if (e == null || e instanceof J.Literal || e instanceof J.Identifier) {
+                return true;
+            } else if (e instanceof J.FieldAccess) {
+                return isSideEffectFree(((J.FieldAccess) e).getTarget(), derived);
+            } else if (e instanceof J.ArrayAccess) {
+                return isSideEffectFree(((J.ArrayAccess) e).getIndexed(), derived) &&
+                       isSideEffectFree(((J.ArrayAccess) e).getDimension().getIndex(), derived);
+            } else if (e instanceof J.TypeCast) {
+                return isSideEffectFree(((J.TypeCast) e).getExpression(), derived);
+            } else if (e instanceof J.Parentheses) {
+                J tree = ((J.Parentheses<?>) e).getTree();
+                return tree instanceof Expression && isSideEffectFree((Expression) tree, derived);
+            } else if (e instanceof J.Binary) {
+                return isSideEffectFree(((J.Binary) e).getLeft(), derived) &&
+                       isSideEffectFree(((J.Binary) e).getRight(), derived);
+            } else if (e instanceof J.Unary) {
+                J.Unary.Type operator = ((J.Unary) e).getOperator();
+                return (operator == J.Unary.Type.Not || operator == J.Unary.Type.Negative ||
+                        operator == J.Unary.Type.Positive || operator == J.Unary.Type.Complement) &&
+                       isSideEffectFree(((J.Unary) e).getExpression(), derived);
+            } else if (e instanceof J.MethodInvocation) {
+                J.MethodInvocation mi = (J.MethodInvocation) e;
+                if (HAMCREST_MATCHER.matches(mi)) {
+                    return hasSideEffectFreeArguments(mi, derived);
+                }
+                // accessors of the element: record components and getters, which may take a key or an index
+                boolean accessor = mi.getArguments().stream().allMatch(J.Empty.class::isInstance) ||
+                                   mi.getSimpleName().startsWith("get") || mi.getSimpleName().startsWith("is");
+                return accessor && mi.getSelect() != null && isDerived(mi.getSelect(), derived) &&
+                       isSideEffectFree(mi.getSelect(), derived) && hasSideEffectFreeArguments(mi, derived);
+            }
+            return false;
+        }
+
+        private static boolean hasSideEffectFreeArguments(J.MethodInvocation method, Set<String> derived) {
+            return method.getArguments().stream().allMatch(a -> a instanceof J.Empty || isSideEffectFree(a, derived));
+        }
+
+        /**
+         * Whether the expression reads the element or a local unpacked from it, as opposed to a field or a constant.
+         */
+        private static boolean isDerived(Expression e, Set<String> derived) {
+            if (e instanceof J.Identifier) {
+                J.Identifier identifier = (J.Identifier) e;
+                return derived.contains(identifier.getSimpleName()) &&
+                       (identifier.getFieldType() == null || identifier.getFieldType().getOwner() instanceof JavaType.Method);
+            } else if (e instanceof J.FieldAccess) {
+                return isDerived(((J.FieldAccess) e).getTarget(), derived);
+            } else if (e instanceof J.ArrayAccess) {
+                return isDerived(((J.ArrayAccess) e).getIndexed(), derived);
+            } else if (e instanceof J.TypeCast) {
+                return isDerived(((J.TypeCast) e).getExpression(), derived);
+            } else if (e instanceof J.Parentheses) {
+                J tree = ((J.Parentheses<?>) e).getTree();
+                return tree instanceof Expression && isDerived((Expression) tree, derived);
+            } else if (e instanceof J.Binary) {
+                return isDerived(((J.Binary) e).getLeft(), derived) || isDerived(((J.Binary) e).getRight(), derived);
+            } else if (e instanceof J.MethodInvocation) {
+                return ((J.MethodInvocation) e).getSelect() != null && isDerived(((J.MethodInvocation) e).getSelect(), derived);
+            }
+            return false;
+        }
+    }
+}
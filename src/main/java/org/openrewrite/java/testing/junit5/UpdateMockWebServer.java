@@ -15,23 +15,26 @@
  */
 package org.openrewrite.java.testing.junit5;
 
-import org.openrewrite.ExecutionContext;
-import org.openrewrite.Preconditions;
-import org.openrewrite.Recipe;
-import org.openrewrite.TreeVisitor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.openrewrite.*;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.dependencies.UpgradeDependencyVersion;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -45,8 +48,15 @@ import static java.util.Objects.requireNonNull;
  * - If MockWebServer Rule exists remove the Rule annotation and update okhttp3 to version 4.x
  * - If AfterEach method exists insert a close statement for the MockWebServer and throws for IOException
  * - If AfterEach does not exist then insert new afterEachTest method closing MockWebServer
+ * <p>
+ * With {@code classScopedServer}, a MockWebServer that tests neither start, stop nor count requests on instead becomes
+ * a static field started in a BeforeAll method and shut down in an AfterAll method, with an AfterEach method that resets
+ * the dispatcher and drains recorded requests between tests.
  */
 @SuppressWarnings({"JavadocLinkAsPlainText"})
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
 public class UpdateMockWebServer extends Recipe {
     private static final AnnotationMatcher RULE_MATCHER = new AnnotationMatcher("@org.junit.Rule");
     private static final AnnotationMatcher AFTER_EACH_MATCHER = new AnnotationMatcher("@org.junit.jupiter.api.AfterEach");
@@ -55,6 +65,21 @@ public class UpdateMockWebServer extends Recipe {
     private static final String IO_EXCEPTION_FQN = "java.io.IOException";
     private static final String MOCK_WEBSERVER_VARIABLE = "mock-web-server-variable";
     private static final String AFTER_EACH_METHOD = "after-each-method";
+    private static final MethodMatcher NEW_MOCK_WEB_SERVER = new MethodMatcher(MOCK_WEB_SERVER_FQN + " <constructor>()");
+
+    /**
+     * Methods whose use means a test relies on having a server of its own.
+     */
+    private static final List<String> PER_TEST_SERVER_METHODS = Arrays.asList("start", "play", "shutdown", "close", "getRequestCount");
+
+    @Option(displayName = "Class scoped server",
+            description = "Share one `MockWebServer` between the tests of a class, started in `@BeforeAll` and shut down in `@AfterAll`, " +
+                          "with its dispatcher reset and its recorded requests drained after each test. " +
+                          "Only applies when no test starts or stops the server itself or relies on its request count.",
+            example = "true",
+            required = false)
+    @Nullable
+    private Boolean classScopedServer;
 
     @Override
     public String getDisplayName() {
@@ -91,7 +116,11 @@ public class UpdateMockWebServer extends Recipe {
                         J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
                         final J.Identifier mockWebServerVariable = getCursor().pollMessage(MOCK_WEBSERVER_VARIABLE);
                         final J.MethodDeclaration afterEachMethod = getCursor().pollMessage(AFTER_EACH_METHOD);
-                        if (mockWebServerVariable != null) {
+                        if (mockWebServerVariable != null && Boolean.TRUE.equals(classScopedServer) &&
+                            isClassScopable(cd, mockWebServerVariable.getSimpleName())) {
+                            cd = shareBetweenTests(cd, mockWebServerVariable, ctx);
+                            maybeRemoveImport("org.junit.Rule");
+                        } else if (mockWebServerVariable != null) {
                             if (afterEachMethod == null) {
                                 cd = JavaTemplate.builder("@AfterEach\nvoid afterEachTest() throws IOException {#{any(okhttp3.mockwebserver.MockWebServer)}.close();\n}")
                                         .contextSensitive()
@@ -149,6 +178,46 @@ public class UpdateMockWebServer extends Recipe {
                         return cd;
                     }
 
+                    private J.ClassDeclaration shareBetweenTests(J.ClassDeclaration classDecl, J.Identifier server, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = classDecl.withBody(classDecl.getBody().withStatements(ListUtils.map(classDecl.getBody().getStatements(), statement -> {
+                            if (statement instanceof J.VariableDeclarations &&
+                                ((J.VariableDeclarations) statement).getVariables().get(0).getSimpleName().equals(server.getSimpleName())) {
+                                return StaticModifier.addTo((J.VariableDeclarations) statement);
+                            }
+                            return statement;
+                        })));
+
+                        cd = JavaTemplate.builder("@BeforeAll\nstatic void startMockWebServer() throws IOException {\n#{any(okhttp3.mockwebserver.MockWebServer)}.start();\n}")
+                                .contextSensitive()
+                                .imports("org.junit.jupiter.api.BeforeAll", MOCK_WEB_SERVER_FQN, IO_EXCEPTION_FQN)
+                                .javaParser(javaParser(ctx))
+                                .build()
+                                .apply(updateCursor(cd), cd.getBody().getCoordinates().lastStatement(), server);
+                        cd = JavaTemplate.builder("@AfterEach\nvoid resetMockWebServer() throws InterruptedException {\n" +
+                                                  "#{any(okhttp3.mockwebserver.MockWebServer)}.setDispatcher(new QueueDispatcher());\n" +
+                                                  "while (#{any(okhttp3.mockwebserver.MockWebServer)}.takeRequest(0, TimeUnit.MILLISECONDS) != null) {\n}\n}")
+                                .contextSensitive()
+                                .imports(AFTER_EACH_FQN, MOCK_WEB_SERVER_FQN, "okhttp3.mockwebserver.QueueDispatcher",
+                                        "java.util.concurrent.TimeUnit")
+                                .javaParser(javaParser(ctx))
+                                .build()
+                                .apply(updateCursor(cd), cd.getBody().getCoordinates().lastStatement(), server, server);
+                        cd = JavaTemplate.builder("@AfterAll\nstatic void shutdownMockWebServer() throws IOException {\n#{any(okhttp3.mockwebserver.MockWebServer)}.shutdown();\n}")
+                                .contextSensitive()
+                                .imports("org.junit.jupiter.api.AfterAll", MOCK_WEB_SERVER_FQN, IO_EXCEPTION_FQN)
+                                .javaParser(javaParser(ctx))
+                                .build()
+                                .apply(updateCursor(cd), cd.getBody().getCoordinates().lastStatement(), server);
+
+                        maybeAddImport("org.junit.jupiter.api.BeforeAll");
+                        maybeAddImport(AFTER_EACH_FQN);
+                        maybeAddImport("org.junit.jupiter.api.AfterAll");
+                        maybeAddImport(IO_EXCEPTION_FQN);
+                        maybeAddImport("okhttp3.mockwebserver.QueueDispatcher");
+                        maybeAddImport("java.util.concurrent.TimeUnit");
+                        return cd;
+                    }
+
                     @Override
                     public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
                         J.VariableDeclarations variableDeclarations = super.visitVariableDeclarations(multiVariable, ctx);
@@ -185,6 +254,38 @@ public class UpdateMockWebServer extends Recipe {
                 });
     }
 
+    /**
+     * Whether the server can be shared by the tests of the class: the class may declare static fields, the server is
+     * created without configuration, and no test starts or stops it or counts the requests it received.
+     */
+    private static boolean isClassScopable(J.ClassDeclaration cd, String server) {
+        if (!(cd.getType() != null && cd.getType().getOwningClass() == null || cd.hasModifier(J.Modifier.Type.Static))) {
+            return false;
+        }
+        for (Statement statement : cd.getBody().getStatements()) {
+            if (statement instanceof J.VariableDeclarations) {
+                J.VariableDeclarations vd = (J.VariableDeclarations) statement;
+                if (vd.getVariables().get(0).getSimpleName().equals(server) &&
+                    (vd.getVariables().size() != 1 || !NEW_MOCK_WEB_SERVER.matches(vd.getVariables().get(0).getInitializer()))) {
+                    return false;
+                }
+            }
+        }
+        return !new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean perTest) {
+                Expression select = method.getSelect();
+                if ((select instanceof J.Identifier && server.equals(((J.Identifier) select).getSimpleName()) ||
+                     select instanceof J.FieldAccess && server.equals(((J.FieldAccess) select).getSimpleName())) &&
+                    TypeUtils.isOfClassType(select.getType(), MOCK_WEB_SERVER_FQN) &&
+                    PER_TEST_SERVER_METHODS.contains(method.getSimpleName())) {
+                    perTest.set(true);
+                }
+                return super.visitMethodInvocation(method, perTest);
+            }
+        }.reduce(cd, new AtomicBoolean()).get();
+    }
+
     @Override
     public List<Recipe> getRecipeList() {
         return singletonList(new UpgradeDependencyVersion("com.squareup.okhttp3", "mockwebserver", "4.X",
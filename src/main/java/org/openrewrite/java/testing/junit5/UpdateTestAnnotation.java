@@ -24,8 +24,10 @@ import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markup;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class UpdateTestAnnotation extends Recipe {
 
@@ -53,6 +55,28 @@ public class UpdateTestAnnotation extends Recipe {
         @Nullable
         private JavaParser.Builder<?, ?> javaParser;
 
+        @Nullable
+        private JavaTemplate fullyQualifiedTestTemplate;
+
+        @Nullable
+        private JavaTemplate executableTemplate;
+
+        @Nullable
+        private JavaTemplate assertDoesNotThrowTemplate;
+
+        @Nullable
+        private JavaTemplate assertThrowsTemplate;
+
+        @Nullable
+        private JavaTemplate timeoutTemplate;
+
+        /**
+         * Set when a reference to `org.junit.Test` other than a test annotation or an import is found,
+         * such as `Test.class` or a Javadoc `{@literal @}link` or `{@literal @}see`, which only a full
+         * {@link ChangeType} pass updates.
+         */
+        private boolean otherReferences;
+
         private JavaParser.Builder<?, ?> javaParser(ExecutionContext ctx) {
             if (javaParser == null) {
                 javaParser = JavaParser.fromJavaVersion()
@@ -61,17 +85,64 @@ public class UpdateTestAnnotation extends Recipe {
             return javaParser;
         }
 
+        private JavaTemplate fullyQualifiedTestTemplate(ExecutionContext ctx) {
+            if (fullyQualifiedTestTemplate == null) {
+                fullyQualifiedTestTemplate = JavaTemplate.builder("@org.junit.jupiter.api.Test")
+                        .javaParser(javaParser(ctx))
+                        .build();
+            }
+            return fullyQualifiedTestTemplate;
+        }
+
+        private JavaTemplate executableTemplate(ExecutionContext ctx) {
+            if (executableTemplate == null) {
+                executableTemplate = JavaTemplate.builder("org.junit.jupiter.api.function.Executable o = () -> #{};")
+                        .contextSensitive()
+                        .javaParser(javaParser(ctx))
+                        .build();
+            }
+            return executableTemplate;
+        }
+
+        private JavaTemplate assertDoesNotThrowTemplate(ExecutionContext ctx) {
+            if (assertDoesNotThrowTemplate == null) {
+                assertDoesNotThrowTemplate = JavaTemplate.builder("assertDoesNotThrow(#{any(org.junit.jupiter.api.function.Executable)});")
+                        .javaParser(javaParser(ctx))
+                        .staticImports("org.junit.jupiter.api.Assertions.assertDoesNotThrow")
+                        .build();
+            }
+            return assertDoesNotThrowTemplate;
+        }
+
+        private JavaTemplate assertThrowsTemplate(ExecutionContext ctx) {
+            if (assertThrowsTemplate == null) {
+                assertThrowsTemplate = JavaTemplate.builder("assertThrows(#{any(java.lang.Class)}, #{any(org.junit.jupiter.api.function.Executable)});")
+                        .javaParser(javaParser(ctx))
+                        .staticImports("org.junit.jupiter.api.Assertions.assertThrows")
+                        .build();
+            }
+            return assertThrowsTemplate;
+        }
+
+        private JavaTemplate timeoutTemplate(ExecutionContext ctx) {
+            if (timeoutTemplate == null) {
+                timeoutTemplate = JavaTemplate.builder("@Timeout(#{any(long)})")
+                        .javaParser(javaParser(ctx))
+                        .imports("org.junit.jupiter.api.Timeout")
+                        .build();
+            }
+            return timeoutTemplate;
+        }
 
         @Override
         public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            otherReferences = false;
             J.CompilationUnit c = super.visitCompilationUnit(cu, ctx);
-            Set<NameTree> nameTreeSet = c.findType("org.junit.Test");
-            if (!nameTreeSet.isEmpty()) {
+            if (otherReferences) {
                 // Update other references like `Test.class`.
                 c = (J.CompilationUnit) new ChangeType("org.junit.Test", "org.junit.jupiter.api.Test", true)
                         .getVisitor().visitNonNull(c, ctx);
             }
-
             maybeRemoveImport("org.junit.Test");
             doAfterVisit(new JavaIsoVisitor<ExecutionContext>() {
                 @Override
@@ -112,120 +183,170 @@ public class UpdateTestAnnotation extends Recipe {
         }
 
         @Override
-        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
-            ChangeTestAnnotation cta = new ChangeTestAnnotation();
-            J.MethodDeclaration m = (J.MethodDeclaration) cta.visitNonNull(method, ctx, getCursor().getParentOrThrow());
-            if (m != method) {
-                if (Boolean.FALSE.equals(TypeUtils.isOverride(m.getMethodType()))) {
-                    m = (J.MethodDeclaration) new ChangeMethodAccessLevelVisitor<ExecutionContext>(new MethodMatcher(m), null)
-                            .visitNonNull(m, ctx, getCursor().getParentOrThrow());
-                }
-                if (cta.expectedException != null) {
-                    m = JavaTemplate.builder("org.junit.jupiter.api.function.Executable o = () -> #{};")
-                            .contextSensitive()
-                            .javaParser(javaParser(ctx))
-                            .build()
-                            .apply(
-                                    updateCursor(m),
-                                    m.getCoordinates().replaceBody(),
-                                    m.getBody()
-                            );
-
-                    assert m.getBody() != null;
-                    J.Lambda lambda = (J.Lambda) ((J.VariableDeclarations) m.getBody().getStatements().get(0))
-                            .getVariables().get(0).getInitializer();
-
-                    assert lambda != null;
-
-                    if (cta.expectedException instanceof J.FieldAccess
-                        && TypeUtils.isAssignableTo("org.junit.Test$None", ((J.FieldAccess) cta.expectedException).getTarget().getType())) {
-                        m = JavaTemplate.builder("assertDoesNotThrow(#{any(org.junit.jupiter.api.function.Executable)});")
-                                .javaParser(javaParser(ctx))
-                                .staticImports("org.junit.jupiter.api.Assertions.assertDoesNotThrow")
-                                .build()
-                                .apply(updateCursor(m), m.getCoordinates().replaceBody(), lambda);
-                        maybeAddImport("org.junit.jupiter.api.Assertions", "assertDoesNotThrow");
-                    } else {
-                        m = JavaTemplate.builder("assertThrows(#{any(java.lang.Class)}, #{any(org.junit.jupiter.api.function.Executable)});")
-                                .javaParser(javaParser(ctx))
-                                .staticImports("org.junit.jupiter.api.Assertions.assertThrows")
-                                .build()
-                                .apply(updateCursor(m), m.getCoordinates().replaceBody(), cta.expectedException, lambda);
-                        maybeAddImport("org.junit.jupiter.api.Assertions", "assertThrows");
+        public J.Import visitImport(J.Import _import, ExecutionContext ctx) {
+            // imports are left to maybeRemoveImport and maybeAddImport
+            return _import;
+        }
+
+        @Override
+        public J.Identifier visitIdentifier(J.Identifier identifier, ExecutionContext ctx) {
+            // test annotations have already been retyped by the time their identifiers are visited
+            if (!otherReferences && TypeUtils.isOfClassType(identifier.getType(), "org.junit.Test")) {
+                otherReferences = true;
+            }
+            return super.visitIdentifier(identifier, ctx);
+        }
+
+        @Override
+        public Space visitSpace(Space space, Space.Location loc, ExecutionContext ctx) {
+            if (!otherReferences) {
+                for (Comment comment : space.getComments()) {
+                    if (comment instanceof Javadoc.DocComment && referencesJUnit4Test((Javadoc.DocComment) comment)) {
+                        // Javadoc references are not visited here, so leave them to ChangeType
+                        otherReferences = true;
+                        break;
                     }
                 }
-                if (cta.timeout != null) {
-                    m = JavaTemplate.builder("@Timeout(#{any(long)})")
-                            .javaParser(javaParser(ctx))
-                            .imports("org.junit.jupiter.api.Timeout")
-                            .build()
-                            .apply(
-                                    updateCursor(m),
-                                    m.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)),
-                                    cta.timeout
-                            );
-                    maybeAddImport("org.junit.jupiter.api.Timeout");
-                }
-                maybeAddImport("org.junit.jupiter.api.Test");
             }
+            return super.visitSpace(space, loc, ctx);
+        }
 
-            return super.visitMethodDeclaration(m, ctx);
+        /**
+         * Whether a `{@literal @}link` or `{@literal @}see` of this Javadoc comment refers to `org.junit.Test`.
+         */
+        private static boolean referencesJUnit4Test(Javadoc.DocComment docComment) {
+            JavaIsoVisitor<AtomicBoolean> typeReferences = new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean found) {
+                    if (TypeUtils.isOfClassType(identifier.getType(), "org.junit.Test")) {
+                        found.set(true);
+                    }
+                    return identifier;
+                }
+            };
+            AtomicBoolean found = new AtomicBoolean();
+            new JavadocVisitor<AtomicBoolean>(typeReferences) {
+                @Override
+                public Javadoc visitLink(Javadoc.Link link, AtomicBoolean found) {
+                    typeReferences.visit(link.getTree(), found);
+                    return link;
+                }
+
+                @Override
+                public Javadoc visitSee(Javadoc.See see, AtomicBoolean found) {
+                    typeReferences.visit(see.getTree(), found);
+                    return see;
+                }
+            }.visit(docComment, found);
+            return found.get();
         }
 
-        private static class ChangeTestAnnotation extends JavaIsoVisitor<ExecutionContext> {
-            @Nullable
-            Expression expectedException;
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            if (!AnnotationIndex.of(getCursor(), ctx).isAnnotated(method, "org.junit.Test")) {
+                return super.visitMethodDeclaration(method, ctx);
+            }
 
-            @Nullable
-            Expression timeout;
+            Expression expectedException = null;
+            Expression timeout = null;
+            List<J.Annotation> annotations = new ArrayList<>(method.getLeadingAnnotations());
+            for (int i = 0; i < annotations.size(); i++) {
+                J.Annotation a = annotations.get(i);
+                if (!JUNIT4_TEST.matches(a)) {
+                    continue;
+                }
+                if (a.getArguments() != null) {
+                    for (Expression arg : a.getArguments()) {
+                        if (!(arg instanceof J.Assignment)) {
+                            continue;
+                        }
+                        J.Assignment assign = (J.Assignment) arg;
+                        String assignParamName = ((J.Identifier) assign.getVariable()).getSimpleName();
+                        Expression e = assign.getAssignment();
+                        if ("expected".equals(assignParamName)) {
+                            expectedException = e;
+                        } else if ("timeout".equals(assignParamName)) {
+                            timeout = e;
+                        }
+                    }
+                }
+
+                if (a.getAnnotationType() instanceof J.FieldAccess) {
+                    a = fullyQualifiedTestTemplate(ctx).apply(new Cursor(getCursor(), a), a.getCoordinates().replace());
+                } else {
+                    a = a.withArguments(null)
+                            .withType(JavaType.ShallowClass.build("org.junit.jupiter.api.Test"));
+                }
+                annotations.set(i, a);
+                break;
+            }
 
-            boolean found;
+            J.MethodDeclaration m = method.withLeadingAnnotations(annotations);
+            if (Boolean.FALSE.equals(TypeUtils.isOverride(m.getMethodType()))) {
+                m = removeAccessModifier(m);
+            }
+            if (expectedException != null) {
+                m = executableTemplate(ctx).apply(updateCursor(m), m.getCoordinates().replaceBody(), m.getBody());
+
+                assert m.getBody() != null;
+                J.Lambda lambda = (J.Lambda) ((J.VariableDeclarations) m.getBody().getStatements().get(0))
+                        .getVariables().get(0).getInitializer();
 
-            @Nullable
-            private JavaParser.Builder<?, ?> javaParser;
+                assert lambda != null;
 
-            private JavaParser.Builder<?, ?> javaParser(ExecutionContext ctx) {
-                if (javaParser == null) {
-                    javaParser = JavaParser.fromJavaVersion()
-                            .classpathFromResources(ctx, "junit-jupiter-api-5.9", "apiguardian-api-1.1");
+                if (expectedException instanceof J.FieldAccess
+                    && TypeUtils.isAssignableTo("org.junit.Test$None", ((J.FieldAccess) expectedException).getTarget().getType())) {
+                    m = assertDoesNotThrowTemplate(ctx).apply(updateCursor(m), m.getCoordinates().replaceBody(), lambda);
+                    maybeAddImport("org.junit.jupiter.api.Assertions", "assertDoesNotThrow");
+                } else {
+                    m = assertThrowsTemplate(ctx).apply(updateCursor(m), m.getCoordinates().replaceBody(), expectedException, lambda);
+                    maybeAddImport("org.junit.jupiter.api.Assertions", "assertThrows");
                 }
-                return javaParser;
             }
+            if (timeout != null) {
+                m = timeoutTemplate(ctx).apply(
+                        updateCursor(m),
+                        m.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)),
+                        timeout
+                );
+                maybeAddImport("org.junit.jupiter.api.Timeout");
+            }
+            maybeAddImport("org.junit.jupiter.api.Test");
 
-            @Override
-            public J.Annotation visitAnnotation(J.Annotation a, ExecutionContext ctx) {
-                if (!found && JUNIT4_TEST.matches(a)) {
-                    // While unlikely, it's possible that a method has an inner class/lambda/etc. with methods that have test annotations
-                    // Avoid considering any but the first test annotation found
-                    found = true;
-                    if (a.getArguments() != null) {
-                        for (Expression arg : a.getArguments()) {
-                            if (!(arg instanceof J.Assignment)) {
-                                continue;
-                            }
-                            J.Assignment assign = (J.Assignment) arg;
-                            String assignParamName = ((J.Identifier) assign.getVariable()).getSimpleName();
-                            Expression e = assign.getAssignment();
-                            if ("expected".equals(assignParamName)) {
-                                expectedException = e;
-                            } else if ("timeout".equals(assignParamName)) {
-                                timeout = e;
-                            }
-                        }
-                    }
+            return super.visitMethodDeclaration(m, ctx);
+        }
 
-                    if (a.getAnnotationType() instanceof J.FieldAccess) {
-                        a = JavaTemplate.builder("@org.junit.jupiter.api.Test")
-                                .javaParser(javaParser(ctx))
-                                .build()
-                                .apply(getCursor(), a.getCoordinates().replace());
-                    } else {
-                        a = a.withArguments(null)
-                                .withType(JavaType.ShallowClass.build("org.junit.jupiter.api.Test"));
-                    }
+        /**
+         * Make a test method package-private, which is what {@link ChangeMethodAccessLevelVisitor} does
+         * without having to walk the method body looking for the declaration again.
+         */
+        private static J.MethodDeclaration removeAccessModifier(J.MethodDeclaration m) {
+            List<J.Modifier> modifiers = new ArrayList<>(m.getModifiers());
+            for (int i = 0; i < modifiers.size(); i++) {
+                J.Modifier modifier = modifiers.get(i);
+                J.Modifier.Type type = modifier.getType();
+                if (type != J.Modifier.Type.Public && type != J.Modifier.Type.Protected && type != J.Modifier.Type.Private) {
+                    continue;
+                }
+                modifiers.remove(i);
+                if (i > 0) {
+                    return m.withModifiers(modifiers);
+                }
+                if (!modifiers.isEmpty()) {
+                    modifiers.set(0, modifiers.get(0).withPrefix(modifier.getPrefix()));
+                    return m.withModifiers(modifiers);
+                }
+                m = m.withModifiers(modifiers);
+                J.TypeParameters typeParameters = m.getPadding().getTypeParameters();
+                if (typeParameters != null) {
+                    return m.getPadding().withTypeParameters(typeParameters.withPrefix(modifier.getPrefix()));
+                }
+                if (m.getReturnTypeExpression() != null) {
+                    return m.withReturnTypeExpression(m.getReturnTypeExpression().withPrefix(modifier.getPrefix()));
                 }
-                return a;
+                return m.withName(m.getName().withPrefix(modifier.getPrefix()));
             }
+            return m;
         }
     }
 }
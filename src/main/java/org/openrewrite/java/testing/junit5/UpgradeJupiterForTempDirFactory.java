@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.dependencies.UpgradeDependencyVersion;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.J;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class UpgradeJupiterForTempDirFactory extends ScanningRecipe<UpgradeJupiterForTempDirFactory.Accumulator> {
+    private static final String TEMP_DIR_FACTORY = "org.junit.jupiter.api.io.TempDirFactory";
+
+    @Override
+    public String getDisplayName() {
+        return "Upgrade JUnit Jupiter for `TempDirFactory`";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Upgrade JUnit Jupiter dependencies to 5.10, the first version with `TempDirFactory`, when a test uses " +
+               "it or uses a `TemporaryFolder` that `TemporaryFolderToTempDir` moves to an in-memory file system.";
+    }
+
+    public static class Accumulator {
+        @SuppressWarnings("unchecked")
+        final ScanningRecipe<Object> upgrade = (ScanningRecipe<Object>) (ScanningRecipe<?>) new UpgradeDependencyVersion(
+                "org.junit.jupiter", "*", "5.10.x", null, null, null);
+
+        @Nullable
+        Object upgradeAcc;
+
+        boolean usesTempDirFactory;
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        Accumulator acc = new Accumulator();
+        acc.upgradeAcc = acc.upgrade.getInitialValue(ctx);
+        return acc;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        TreeVisitor<?, ExecutionContext> upgradeScanner = acc.upgrade.getScanner(acc.upgradeAcc);
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof J.CompilationUnit && !acc.usesTempDirFactory) {
+                    acc.usesTempDirFactory = usesTempDirFactory((J.CompilationUnit) tree, ctx);
+                }
+                return upgradeScanner.visit(tree, ctx);
+            }
+        };
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        if (!acc.usesTempDirFactory) {
+            return TreeVisitor.noop();
+        }
+        return acc.upgrade.getVisitor(acc.upgradeAcc);
+    }
+
+    /**
+     * Scanning sees the sources before any recipe of this run changes them, so a temporary folder that is about to be
+     * replaced with a {@code TempDirFactory} counts as well.
+     */
+    private static boolean usesTempDirFactory(J.CompilationUnit cu, ExecutionContext ctx) {
+        return new UsesType<>(TEMP_DIR_FACTORY, false).visit(cu, ctx) != cu ||
+               new UsesType<>("org.junit.rules.TemporaryFolder", false).visit(cu, ctx) != cu &&
+               TemporaryFolderToTempDir.InMemoryTempDir.usesOnlyPaths(cu);
+    }
+}
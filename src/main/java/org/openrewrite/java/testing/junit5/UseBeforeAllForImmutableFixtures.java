@@ -0,0 +1,402 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class UseBeforeAllForImmutableFixtures extends Recipe {
+    private static final AnnotationMatcher BEFORE_EACH = new AnnotationMatcher("@org.junit.jupiter.api.BeforeEach");
+    private static final AnnotationMatcher AFTER_EACH = new AnnotationMatcher("@org.junit.jupiter.api.AfterEach");
+    private static final AnnotationMatcher NESTED = new AnnotationMatcher("@org.junit.jupiter.api.Nested");
+
+    /**
+     * Types whose instances are safe to share between tests, because they cannot change or, like object mappers and
+     * executors, are made to be shared and only change through the methods that {@link #MUTATOR_PREFIXES} name.
+     * Anything else, like a mock, a collection or a string builder, may be changed by a method it is passed to.
+     */
+    private static final List<String> SHAREABLE_TYPES = Arrays.asList(
+            "java.lang.String",
+            "java.lang.Boolean",
+            "java.lang.Byte",
+            "java.lang.Character",
+            "java.lang.Short",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double",
+            "java.math.BigDecimal",
+            "java.math.BigInteger",
+            "java.net.URI",
+            "java.nio.file.Path",
+            "java.io.File",
+            "java.time.Duration",
+            "java.time.Instant",
+            "java.time.LocalDate",
+            "java.time.LocalDateTime",
+            "java.time.LocalTime",
+            "java.time.ZonedDateTime",
+            "java.time.format.DateTimeFormatter",
+            "java.util.UUID",
+            "java.util.regex.Pattern",
+            "java.util.concurrent.ExecutorService",
+            "java.net.http.HttpClient",
+            "com.fasterxml.jackson.databind.ObjectMapper",
+            "com.fasterxml.jackson.databind.ObjectReader",
+            "com.fasterxml.jackson.databind.ObjectWriter",
+            "com.google.gson.Gson");
+
+    /**
+     * Method name prefixes that are taken to change the state of the object they are invoked on.
+     */
+    private static final List<String> MUTATOR_PREFIXES = Arrays.asList(
+            "add", "clear", "close", "configure", "delete", "disable", "enable", "insert", "offer", "poll", "pop", "push",
+            "put", "register", "remove", "reset", "set", "shutdown", "stub", "update");
+
+    @Override
+    public String getDisplayName() {
+        return "Initialize immutable fixtures once with `@BeforeAll`";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Move a `@BeforeEach` method that only initializes fields of immutable or shareable types, such as patterns, " +
+               "object mappers or executors, which no test reassigns or mutates to `@BeforeAll`, " +
+               "so that expensive fixtures like object mappers, parsers or servers are built once per class instead of once per test. " +
+               "Non-static fixtures are kept on a single test instance with `@TestInstance(Lifecycle.PER_CLASS)`, " +
+               "and `@AfterEach` methods that only release those fixtures become `@AfterAll`.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("org.junit.jupiter.api.BeforeEach", false), new JavaIsoVisitor<ExecutionContext>() {
+            @Nullable
+            private JavaParser.Builder<?, ?> javaParser;
+
+            private JavaParser.Builder<?, ?> javaParser(ExecutionContext ctx) {
+                if (javaParser == null) {
+                    javaParser = JavaParser.fromJavaVersion()
+                            .classpathFromResources(ctx, "junit-jupiter-api-5.9");
+                }
+                return javaParser;
+            }
+
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                Fixtures fixtures = Fixtures.find(cd);
+                if (fixtures == null) {
+                    return cd;
+                }
+
+                cd = cd.withBody(cd.getBody().withStatements(ListUtils.map(cd.getBody().getStatements(), statement -> {
+                    if (statement == fixtures.setUp) {
+                        return fixtures.moveToClassLifecycle(fixtures.setUp, BEFORE_EACH, "org.junit.jupiter.api.BeforeAll");
+                    } else if (fixtures.tearDowns.contains(statement)) {
+                        return fixtures.moveToClassLifecycle((J.MethodDeclaration) statement, AFTER_EACH, "org.junit.jupiter.api.AfterAll");
+                    }
+                    return statement;
+                })));
+                maybeAddImport("org.junit.jupiter.api.BeforeAll");
+                maybeRemoveImport("org.junit.jupiter.api.BeforeEach");
+                if (!fixtures.tearDowns.isEmpty()) {
+                    maybeAddImport("org.junit.jupiter.api.AfterAll");
+                    maybeRemoveImport("org.junit.jupiter.api.AfterEach");
+                }
+
+                if (!fixtures.staticLifecycle) {
+                    cd = JavaTemplate.builder("@TestInstance(TestInstance.Lifecycle.PER_CLASS)")
+                            .javaParser(javaParser(ctx))
+                            .imports("org.junit.jupiter.api.TestInstance")
+                            .build()
+                            .apply(updateCursor(cd), cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+                    maybeAddImport("org.junit.jupiter.api.TestInstance");
+                }
+                return cd;
+            }
+        });
+    }
+
+    private static class Fixtures {
+        private final J.MethodDeclaration setUp;
+        private final List<J.MethodDeclaration> tearDowns;
+
+        /**
+         * Whether the lifecycle methods can be made static, sparing the switch to a per-class test instance.
+         */
+        private final boolean staticLifecycle;
+
+        private Fixtures(J.MethodDeclaration setUp, List<J.MethodDeclaration> tearDowns, boolean staticLifecycle) {
+            this.setUp = setUp;
+            this.tearDowns = tearDowns;
+            this.staticLifecycle = staticLifecycle;
+        }
+
+        @Nullable
+        static Fixtures find(J.ClassDeclaration cd) {
+            JavaType.FullyQualified owner = cd.getType();
+            if (owner == null || cd.getKind() != J.ClassDeclaration.Kind.Type.Class || cd.getExtends() != null ||
+                J.Modifier.hasModifier(cd.getModifiers(), J.Modifier.Type.Abstract) ||
+                cd.getLeadingAnnotations().stream().anyMatch(a -> "TestInstance".equals(a.getSimpleName()))) {
+                return null;
+            }
+
+            Map<String, J.VariableDeclarations> declarations = new HashMap<>();
+            List<J.MethodDeclaration> setUps = new ArrayList<>();
+            List<J.MethodDeclaration> afterEach = new ArrayList<>();
+            List<J.MethodDeclaration> others = new ArrayList<>();
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (statement instanceof J.VariableDeclarations) {
+                    for (J.VariableDeclarations.NamedVariable variable : ((J.VariableDeclarations) statement).getVariables()) {
+                        declarations.put(variable.getSimpleName(), (J.VariableDeclarations) statement);
+                    }
+                } else if (statement instanceof J.MethodDeclaration) {
+                    J.MethodDeclaration method = (J.MethodDeclaration) statement;
+                    if (method.getLeadingAnnotations().stream().anyMatch(BEFORE_EACH::matches)) {
+                        setUps.add(method);
+                    } else if (method.getLeadingAnnotations().stream().anyMatch(AFTER_EACH::matches)) {
+                        afterEach.add(method);
+                    } else {
+                        others.add(method);
+                    }
+                } else if (statement instanceof J.ClassDeclaration &&
+                           ((J.ClassDeclaration) statement).getLeadingAnnotations().stream().anyMatch(NESTED::matches)) {
+                    // nested test classes share the enclosing instance
+                    return null;
+                }
+            }
+            if (setUps.size() != 1 || !isParameterless(setUps.get(0)) || setUps.get(0).getBody() == null ||
+                setUps.get(0).getBody().getStatements().isEmpty()) {
+                return null;
+            }
+
+            // the set-up method must do nothing but assign fields of this class from self-contained expressions
+            J.MethodDeclaration setUp = setUps.get(0);
+            Set<String> fields = new LinkedHashSet<>();
+            boolean staticLifecycle = true;
+            for (Statement statement : setUp.getBody().getStatements()) {
+                if (!(statement instanceof J.Assignment)) {
+                    return null;
+                }
+                J.Assignment assignment = (J.Assignment) statement;
+                String field = fieldName(assignment.getVariable(), owner);
+                J.VariableDeclarations declaration = field == null ? null : declarations.get(field);
+                if (declaration == null || declaration.hasModifier(J.Modifier.Type.Final) ||
+                    !isShareable(assignment.getAssignment().getType())) {
+                    return null;
+                }
+                for (String read : references(assignment.getAssignment(), owner)) {
+                    J.VariableDeclarations readDeclaration = declarations.get(read);
+                    if (!fields.contains(read) && (readDeclaration == null || !isConstant(readDeclaration))) {
+                        return null;
+                    }
+                }
+                staticLifecycle &= declaration.hasModifier(J.Modifier.Type.Static) &&
+                                   !usesInstance(assignment.getAssignment());
+                fields.add(field);
+            }
+
+            for (J.MethodDeclaration method : others) {
+                if (mutates(method, fields, owner)) {
+                    return null;
+                }
+            }
+
+            List<J.MethodDeclaration> tearDowns = new ArrayList<>();
+            for (J.MethodDeclaration method : afterEach) {
+                Set<String> references = references(method, owner);
+                if (Collections.disjoint(references, fields)) {
+                    continue;
+                }
+                if (!fields.containsAll(references) || !isParameterless(method)) {
+                    return null;
+                }
+                staticLifecycle &= !usesInstance(method);
+                tearDowns.add(method);
+            }
+
+            if (!staticLifecycle) {
+                // with one instance per class, every other instance field is shared between tests as well
+                for (Map.Entry<String, J.VariableDeclarations> declaration : declarations.entrySet()) {
+                    if (!fields.contains(declaration.getKey()) && !declaration.getValue().hasModifier(J.Modifier.Type.Static) &&
+                        !isConstant(declaration.getValue())) {
+                        return null;
+                    }
+                }
+            }
+            return new Fixtures(setUp, tearDowns, staticLifecycle);
+        }
+
+        J.MethodDeclaration moveToClassLifecycle(J.MethodDeclaration method, AnnotationMatcher from, String to) {
+            J.MethodDeclaration m = method.withLeadingAnnotations(ListUtils.map(method.getLeadingAnnotations(),
+                    a -> from.matches(a) ? retype(a, to) : a));
+            if (staticLifecycle && !m.hasModifier(J.Modifier.Type.Static) && m.getReturnTypeExpression() != null) {
+                J.Modifier staticModifier = new J.Modifier(UUID.randomUUID(), Space.format(" "), Markers.EMPTY, null, J.Modifier.Type.Static, new ArrayList<>());
+                if (m.getModifiers().isEmpty()) {
+                    // the modifier takes the place of the return type right after the annotations
+                    staticModifier = staticModifier.withPrefix(m.getReturnTypeExpression().getPrefix());
+                    m = m.withReturnTypeExpression(m.getReturnTypeExpression().withPrefix(Space.format(" ")));
+                }
+                m = m.withModifiers(ListUtils.concat(m.getModifiers(), staticModifier));
+            }
+            return m;
+        }
+
+        private static J.Annotation retype(J.Annotation annotation, String fullyQualifiedName) {
+            JavaType.ShallowClass type = JavaType.ShallowClass.build(fullyQualifiedName);
+            NameTree annotationType = annotation.getAnnotationType();
+            if (annotationType instanceof J.Identifier) {
+                return annotation.withAnnotationType(((J.Identifier) annotationType)
+                        .withSimpleName(type.getClassName())
+                        .withType(type));
+            }
+            J.FieldAccess fieldAccess = (J.FieldAccess) annotationType;
+            return annotation.withAnnotationType(fieldAccess
+                    .withName(fieldAccess.getName().withSimpleName(type.getClassName()).withType(type))
+                    .withType(type));
+        }
+
+        private static boolean isParameterless(J.MethodDeclaration method) {
+            return method.getParameters().stream().allMatch(J.Empty.class::isInstance);
+        }
+
+        private static boolean isConstant(J.VariableDeclarations declaration) {
+            return declaration.hasModifier(J.Modifier.Type.Final) &&
+                   (declaration.getType() instanceof JavaType.Primitive ||
+                    TypeUtils.isOfClassType(declaration.getType(), "java.lang.String"));
+        }
+
+        private static boolean isShareable(@Nullable JavaType type) {
+            if (type instanceof JavaType.Primitive) {
+                return true;
+            }
+            JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+            return fq != null && (fq.getKind() == JavaType.FullyQualified.Kind.Enum ||
+                                  SHAREABLE_TYPES.stream().anyMatch(shareable -> TypeUtils.isAssignableTo(shareable, fq)));
+        }
+
+        @Nullable
+        private static String fieldName(Expression expression, JavaType.FullyQualified owner) {
+            J.Identifier name = null;
+            if (expression instanceof J.Identifier) {
+                name = (J.Identifier) expression;
+            } else if (expression instanceof J.FieldAccess &&
+                       ((J.FieldAccess) expression).getTarget() instanceof J.Identifier &&
+                       "this".equals(((J.Identifier) ((J.FieldAccess) expression).getTarget()).getSimpleName())) {
+                name = ((J.FieldAccess) expression).getName();
+            }
+            return name != null && name.getFieldType() != null && TypeUtils.isOfType(name.getFieldType().getOwner(), owner) ?
+                    name.getSimpleName() : null;
+        }
+
+        /**
+         * The names of the fields of {@code owner} that {@code tree} refers to.
+         */
+        private static Set<String> references(J tree, JavaType.FullyQualified owner) {
+            return new JavaIsoVisitor<Set<String>>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, Set<String> references) {
+                    if (identifier.getFieldType() != null && TypeUtils.isOfType(identifier.getFieldType().getOwner(), owner)) {
+                        references.add(identifier.getSimpleName());
+                    }
+                    return super.visitIdentifier(identifier, references);
+                }
+            }.reduce(tree, new HashSet<>());
+        }
+
+        /**
+         * Whether {@code tree} needs an instance of the test class, which a static lifecycle method does not have.
+         */
+        private static boolean usesInstance(J tree) {
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean found) {
+                    if ("this".equals(identifier.getSimpleName()) || "super".equals(identifier.getSimpleName())) {
+                        found.set(true);
+                    }
+                    return super.visitIdentifier(identifier, found);
+                }
+
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                    if (method.getSelect() == null && (method.getMethodType() == null ||
+                                                       !method.getMethodType().hasFlags(Flag.Static))) {
+                        found.set(true);
+                    }
+                    return super.visitMethodInvocation(method, found);
+                }
+            }.reduce(tree, new AtomicBoolean()).get();
+        }
+
+        private static boolean mutates(J.MethodDeclaration method, Set<String> fields, JavaType.FullyQualified owner) {
+            return new JavaIsoVisitor<AtomicBoolean>() {
+                @Override
+                public J.Assignment visitAssignment(J.Assignment assignment, AtomicBoolean found) {
+                    check(assignment.getVariable(), found);
+                    return super.visitAssignment(assignment, found);
+                }
+
+                @Override
+                public J.AssignmentOperation visitAssignmentOperation(J.AssignmentOperation assignOp, AtomicBoolean found) {
+                    check(assignOp.getVariable(), found);
+                    return super.visitAssignmentOperation(assignOp, found);
+                }
+
+                @Override
+                public J.Unary visitUnary(J.Unary unary, AtomicBoolean found) {
+                    switch (unary.getOperator()) {
+                        case PreIncrement:
+                        case PreDecrement:
+                        case PostIncrement:
+                        case PostDecrement:
+                            check(unary.getExpression(), found);
+                    }
+                    return super.visitUnary(unary, found);
+                }
+
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                    if (method.getSelect() != null &&
+                        MUTATOR_PREFIXES.stream().anyMatch(prefix -> method.getSimpleName().startsWith(prefix))) {
+                        check(method.getSelect(), found);
+                    }
+                    return super.visitMethodInvocation(method, found);
+                }
+
+                private void check(Expression target, AtomicBoolean found) {
+                    String field = fieldName(target, owner);
+                    if (field != null && fields.contains(field)) {
+                        found.set(true);
+                    }
+                }
+            }.reduce(method, new AtomicBoolean()).get();
+        }
+    }
+}
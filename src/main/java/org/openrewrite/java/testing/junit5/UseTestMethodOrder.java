@@ -23,11 +23,10 @@ import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
 
-import java.util.Set;
+import java.util.List;
 
 public class UseTestMethodOrder extends Recipe {
 
@@ -59,9 +58,12 @@ public class UseTestMethodOrder extends Recipe {
             @Override
             public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
                 J.ClassDeclaration cd = classDecl;
+                AnnotationIndex index = AnnotationIndex.of(getCursor(), ctx);
+                if (!index.isAnnotated(cd, "org.junit.FixMethodOrder")) {
+                    return super.visitClassDeclaration(cd, ctx);
+                }
 
-                //noinspection DataFlowIssue
-                Set<J.Annotation> methodOrders = FindAnnotations.find(cd.withBody(null), "@org.junit.FixMethodOrder");
+                List<J.Annotation> methodOrders = index.find(cd.getLeadingAnnotations(), "org.junit.FixMethodOrder");
 
                 if (!methodOrders.isEmpty()) {
                     maybeAddImport("org.junit.jupiter.api.TestMethodOrder");
@@ -73,7 +75,7 @@ public class UseTestMethodOrder extends Recipe {
                             .imports("org.junit.jupiter.api.TestMethodOrder",
                                     "org.junit.jupiter.api.MethodOrderer.*")
                             .build()
-                            .apply(getCursor(), methodOrders.iterator().next().getCoordinates().replace());
+                            .apply(getCursor(), methodOrders.get(0).getCoordinates().replace());
                     maybeAddImport("org.junit.jupiter.api.MethodOrderer.MethodName");
                 }
 
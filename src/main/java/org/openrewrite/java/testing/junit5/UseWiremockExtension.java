@@ -15,10 +15,12 @@
  */
 package org.openrewrite.java.testing.junit5;
 
-import org.openrewrite.ExecutionContext;
-import org.openrewrite.Preconditions;
-import org.openrewrite.Recipe;
-import org.openrewrite.TreeVisitor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.*;
 import org.openrewrite.java.dependencies.UpgradeDependencyVersion;
 import org.openrewrite.java.search.UsesType;
@@ -26,13 +28,37 @@ import org.openrewrite.java.tree.*;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
 public class UseWiremockExtension extends Recipe {
 
     private static final MethodMatcher newWiremockRule = new MethodMatcher("com.github.tomakehurst.wiremock.junit.WireMockRule <constructor>(..)");
+    private static final AnnotationMatcher RULE = new AnnotationMatcher("@org.junit.Rule");
+    private static final AnnotationMatcher CLASS_RULE = new AnnotationMatcher("@org.junit.ClassRule");
+
+    @Option(displayName = "Static server",
+            description = "Register `@ClassRule` and self-contained `@Rule` WireMock rules as a static extension, which starts " +
+                          "one server per test class rather than one per test.",
+            example = "true",
+            required = false)
+    @Nullable
+    private Boolean staticServer;
+
+    @Option(displayName = "Dynamic port",
+            description = "Together with a static server, replace fixed ports that the test class does not otherwise mention " +
+                          "with a dynamic port, and configure the static DSL to use the extension. Only the test class is " +
+                          "checked, so only enable this where nothing else, such as application properties or other classes, " +
+                          "refers to the port, and tests read it through the extension.",
+            example = "true",
+            required = false)
+    @Nullable
+    private Boolean dynamicPort;
 
     @Override
     public String getDisplayName() {
@@ -57,6 +83,28 @@ public class UseWiremockExtension extends Recipe {
                 return tree;
             }
 
+            @Override
+            public J visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                boolean makeStatic = Boolean.TRUE.equals(staticServer) && isStaticCandidate(getCursor());
+                J.VariableDeclarations vd = (J.VariableDeclarations) super.visitVariableDeclarations(multiVariable, ctx);
+                if (!makeStatic) {
+                    return vd;
+                }
+
+                vd = vd.withLeadingAnnotations(ListUtils.map(vd.getLeadingAnnotations(), a -> {
+                    if (CLASS_RULE.matches(a) && a.getAnnotationType() instanceof J.Identifier) {
+                        JavaType.ShallowClass registerExtension = JavaType.ShallowClass.build("org.junit.jupiter.api.extension.RegisterExtension");
+                        return a.withAnnotationType(((J.Identifier) a.getAnnotationType())
+                                .withSimpleName(registerExtension.getClassName())
+                                .withType(registerExtension));
+                    }
+                    return a;
+                }));
+                maybeRemoveImport("org.junit.ClassRule");
+                maybeAddImport("org.junit.jupiter.api.extension.RegisterExtension");
+                return vd.hasModifier(J.Modifier.Type.Static) ? vd : StaticModifier.addTo(vd);
+            }
+
             @SuppressWarnings("ConcatenationWithEmptyString")
             @Override
             public J visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
@@ -79,6 +127,7 @@ public class UseWiremockExtension extends Recipe {
                                     "  public static class Builder {" +
                                     "    public native Builder options(Options options);" +
                                     "    public native Builder failOnUnmatchedRequests(boolean failOnUnmatched);" +
+                                    "    public native Builder configureStaticDsl(boolean configureStaticDsl);" +
                                     "    public native WireMockExtension build();" +
                                     "  }" +
                                     "}",
@@ -97,6 +146,21 @@ public class UseWiremockExtension extends Recipe {
                                     "package com.github.tomakehurst.wiremock.core;" +
                                     "public interface Options {}");
 
+                    Integer fixedPort = fixedPort(n);
+                    if (Boolean.TRUE.equals(staticServer) && Boolean.TRUE.equals(dynamicPort) && fixedPort != null &&
+                        isStaticCandidate(getCursor().getParentTreeCursor().getParentTreeCursor()) &&
+                        !mentionsPort(getCursor().firstEnclosingOrThrow(JavaSourceFile.class), fixedPort)) {
+                        maybeAddImport("com.github.tomakehurst.wiremock.core.WireMockConfiguration");
+                        return JavaTemplate.builder("WireMockExtension.newInstance()" +
+                                                    ".options(WireMockConfiguration.options().dynamicPort())" +
+                                                    ".configureStaticDsl(true).build()")
+                                .imports("com.github.tomakehurst.wiremock.core.WireMockConfiguration")
+                                .imports("com.github.tomakehurst.wiremock.junit5.WireMockExtension")
+                                .javaParser(wiremockParser)
+                                .build()
+                                .apply(updateCursor(n), n.getCoordinates().replace());
+                    }
+
                     if (arg instanceof J.Empty) {
                         String newWiremockExtension = "WireMockExtension.newInstance().build()";
                         return JavaTemplate.builder(newWiremockExtension)
@@ -162,6 +226,82 @@ public class UseWiremockExtension extends Recipe {
         });
     }
 
+    /**
+     * Whether the cursor points at a WireMock rule field that can become static: a field of a class that may declare
+     * static fields, annotated as a rule and initialized without referring to the test instance.
+     */
+    private static boolean isStaticCandidate(Cursor cursor) {
+        if (!(cursor.getValue() instanceof J.VariableDeclarations)) {
+            return false;
+        }
+        J.VariableDeclarations vd = cursor.getValue();
+        Cursor classCursor = cursor.getParentTreeCursor().getParentTreeCursor();
+        if (!(classCursor.getValue() instanceof J.ClassDeclaration) ||
+            !(classCursor.getParentTreeCursor().getValue() instanceof JavaSourceFile ||
+              ((J.ClassDeclaration) classCursor.getValue()).hasModifier(J.Modifier.Type.Static)) ||
+            vd.getVariables().size() != 1 ||
+            vd.getLeadingAnnotations().stream().noneMatch(a -> RULE.matches(a) || CLASS_RULE.matches(a))) {
+            return false;
+        }
+        Expression initializer = vd.getVariables().get(0).getInitializer();
+        return newWiremockRule.matches(initializer) && !new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean usesInstance) {
+                JavaType.Variable fieldType = identifier.getFieldType();
+                if ("this".equals(identifier.getSimpleName()) ||
+                    fieldType != null && fieldType.getOwner() instanceof JavaType.FullyQualified && !fieldType.hasFlags(Flag.Static)) {
+                    usesInstance.set(true);
+                }
+                return super.visitIdentifier(identifier, usesInstance);
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean usesInstance) {
+                if (method.getSelect() == null && (method.getMethodType() == null || !method.getMethodType().hasFlags(Flag.Static))) {
+                    usesInstance.set(true);
+                }
+                return super.visitMethodInvocation(method, usesInstance);
+            }
+        }.reduce(initializer, new AtomicBoolean()).get();
+    }
+
+    /**
+     * The port a rule listens on when it is given no configuration or just a port literal.
+     */
+    @Nullable
+    private static Integer fixedPort(J.NewClass newRule) {
+        List<Expression> args = newRule.getArguments();
+        if (args.size() == 1 && args.get(0) instanceof J.Empty) {
+            return 8080;
+        }
+        if (args.size() == 1 && args.get(0) instanceof J.Literal && ((J.Literal) args.get(0)).getValue() instanceof Integer) {
+            return (Integer) ((J.Literal) args.get(0)).getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Whether the port appears anywhere in the test class but in a rule constructor, such as in a URL, which a dynamic
+     * port would break. Other source files are not checked, which is why a dynamic port is opt-in.
+     */
+    private static boolean mentionsPort(JavaSourceFile sourceFile, int port) {
+        return new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.NewClass visitNewClass(J.NewClass newClass, AtomicBoolean mentioned) {
+                return newWiremockRule.matches(newClass) ? newClass : super.visitNewClass(newClass, mentioned);
+            }
+
+            @Override
+            public J.Literal visitLiteral(J.Literal literal, AtomicBoolean mentioned) {
+                Object value = literal.getValue();
+                if (Integer.valueOf(port).equals(value) || value instanceof String && ((String) value).contains(":" + port)) {
+                    mentioned.set(true);
+                }
+                return literal;
+            }
+        }.reduce(sourceFile, new AtomicBoolean()).get();
+    }
+
     @Override
     public List<Recipe> getRecipeList() {
         return singletonList(new UpgradeDependencyVersion("com.github.tomakehurst", "wiremock*",
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.*;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.PropertiesFiles;
+import org.openrewrite.java.testing.junit5.StaticModifier;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.openrewrite.Tree.randomId;
+
+public class BeforeEachMocksToStaticMocks extends ScanningRecipe<BeforeEachMocksToStaticMocks.Accumulator> {
+    private static final MethodMatcher MOCK = new MethodMatcher("org.mockito.Mockito mock(java.lang.Class)");
+    private static final AnnotationMatcher BEFORE_EACH = new AnnotationMatcher("@org.junit.jupiter.api.BeforeEach");
+    private static final AnnotationMatcher EXECUTION = new AnnotationMatcher("@org.junit.jupiter.api.parallel.Execution");
+    private static final String MOCKS = "before-each-mocks";
+    private static final String PARALLEL_MODE_DEFAULT = "junit.jupiter.execution.parallel.mode.default";
+
+    @Override
+    public String getDisplayName() {
+        return "Create Mockito mocks once per test class";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Mocks created with `mock(Type.class)` in a `@BeforeEach` method and held in private fields are created " +
+               "again for every test, which is expensive with the inline mock maker. Create them once in `static final` " +
+               "fields instead, and `reset` them before each test so that stubbings and recorded invocations do not leak " +
+               "between tests. " +
+               "Classes that configure their own `@Execution` mode are left alone, as their tests may run concurrently, " +
+               "and so is everything when `junit-platform.properties` runs test methods concurrently by default.";
+    }
+
+    public static class Accumulator {
+        final AtomicBoolean concurrentByDefault = new AtomicBoolean();
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && PropertiesFiles.hasFileName((SourceFile) tree, "junit-platform.properties") &&
+                    "concurrent".equals(PropertiesFiles.get((SourceFile) tree, PARALLEL_MODE_DEFAULT))) {
+                    acc.concurrentByDefault.set(true);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        // tests running concurrently would share the mocks and reset them under each other's feet
+        return Preconditions.check(!acc.concurrentByDefault.get(), Preconditions.check(Preconditions.and(
+                new UsesType<>("org.junit.jupiter.api.BeforeEach", false),
+                new UsesMethod<>(MOCK)), new StaticMocksVisitor()));
+    }
+
+    private static class StaticMocksVisitor extends JavaIsoVisitor<ExecutionContext> {
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            getCursor().putMessage(MOCKS, canHoldStaticFields(classDecl) ? mocks(classDecl) : Collections.emptyMap());
+            return super.visitClassDeclaration(classDecl, ctx);
+        }
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+            J.VariableDeclarations vd = super.visitVariableDeclarations(multiVariable, ctx);
+            Map<String, J.MethodInvocation> mocks = getCursor().getNearestMessage(MOCKS);
+            if (mocks == null || vd.getVariables().size() != 1 || !isField() ||
+                !mocks.containsKey(vd.getVariables().get(0).getSimpleName())) {
+                return vd;
+            }
+
+            J.VariableDeclarations.NamedVariable variable = vd.getVariables().get(0);
+            J.MethodInvocation mock = mocks.get(variable.getSimpleName());
+            vd = vd.withVariables(singletonList(variable.getPadding().withInitializer(
+                    JLeftPadded.<Expression>build(mock.withPrefix(Space.format(" "))).withBefore(Space.format(" ")))));
+            vd = StaticModifier.addTo(vd);
+            List<J.Modifier> modifiers = new ArrayList<>(vd.getModifiers());
+            for (int i = 0; i < modifiers.size(); i++) {
+                if (modifiers.get(i).getType() == J.Modifier.Type.Static) {
+                    modifiers.add(i + 1, new J.Modifier(randomId(), Space.format(" "), Markers.EMPTY, null, J.Modifier.Type.Final, emptyList()));
+                    break;
+                }
+            }
+            return vd.withModifiers(modifiers);
+        }
+
+        @Override
+        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
+            Map<String, J.MethodInvocation> mocks = getCursor().getNearestMessage(MOCKS);
+            if (mocks == null || mocks.isEmpty() || m.getBody() == null ||
+                m.getLeadingAnnotations().stream().noneMatch(BEFORE_EACH::matches)) {
+                return m;
+            }
+
+            J.ClassDeclaration cd = getCursor().firstEnclosingOrThrow(J.ClassDeclaration.class);
+            List<String> reset = new ArrayList<>();
+            m = m.withBody(m.getBody().withStatements(ListUtils.map(m.getBody().getStatements(), statement -> {
+                String field = statement instanceof J.Assignment ? assignedField((J.Assignment) statement, cd.getType()) : null;
+                if (field != null && mocks.containsKey(field)) {
+                    reset.add(field);
+                    return null;
+                }
+                return statement;
+            })));
+            if (reset.isEmpty()) {
+                return m;
+            }
+
+            J.Block body = m.getBody();
+            m = JavaTemplate.builder("reset(" + String.join(", ", reset) + ");")
+                    .contextSensitive()
+                    .javaParser(JavaParser.fromJavaVersion().classpathFromResources(ctx, "mockito-core-3.12"))
+                    .staticImports("org.mockito.Mockito.reset")
+                    .build()
+                    .apply(updateCursor(m), body.getStatements().isEmpty() ?
+                            body.getCoordinates().lastStatement() :
+                            body.getStatements().get(0).getCoordinates().before());
+            maybeAddImport("org.mockito.Mockito", "reset");
+            return m;
+        }
+
+        private boolean isField() {
+            Cursor parent = getCursor().getParentTreeCursor();
+            return parent.getValue() instanceof J.Block && parent.getParentTreeCursor().getValue() instanceof J.ClassDeclaration;
+        }
+
+        /**
+         * Static fields are only allowed in top level and static nested classes before Java 16.
+         */
+        private boolean canHoldStaticFields(J.ClassDeclaration cd) {
+            return cd.getLeadingAnnotations().stream().noneMatch(EXECUTION::matches) &&
+                   (cd.hasModifier(J.Modifier.Type.Static) || getCursor().getParentTreeCursor().getValue() instanceof JavaSourceFile);
+        }
+
+        /**
+         * The private fields assigned a plain {@code mock(Type.class)} in a {@code @BeforeEach} method, and nowhere
+         * else, keyed by field name. Other classes could assign a field that is not private.
+         */
+        private static Map<String, J.MethodInvocation> mocks(J.ClassDeclaration cd) {
+            Set<String> fields = new HashSet<>();
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (statement instanceof J.VariableDeclarations) {
+                    J.VariableDeclarations vd = (J.VariableDeclarations) statement;
+                    if (vd.getVariables().size() == 1 && vd.getVariables().get(0).getInitializer() == null &&
+                        vd.hasModifier(J.Modifier.Type.Private) && !vd.hasModifier(J.Modifier.Type.Static) && !vd.hasModifier(J.Modifier.Type.Final) &&
+                        vd.getLeadingAnnotations().isEmpty()) {
+                        fields.add(vd.getVariables().get(0).getSimpleName());
+                    }
+                }
+            }
+
+            Map<String, J.MethodInvocation> mocks = new LinkedHashMap<>();
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (!(statement instanceof J.MethodDeclaration)) {
+                    continue;
+                }
+                J.MethodDeclaration method = (J.MethodDeclaration) statement;
+                if (method.getBody() == null || method.hasModifier(J.Modifier.Type.Static) ||
+                    method.getLeadingAnnotations().stream().noneMatch(BEFORE_EACH::matches)) {
+                    continue;
+                }
+                for (Statement setUp : method.getBody().getStatements()) {
+                    if (!(setUp instanceof J.Assignment) || !MOCK.matches(((J.Assignment) setUp).getAssignment())) {
+                        continue;
+                    }
+                    J.MethodInvocation mock = (J.MethodInvocation) ((J.Assignment) setUp).getAssignment();
+                    String field = assignedField((J.Assignment) setUp, cd.getType());
+                    if (field != null && fields.contains(field) && mock.getArguments().get(0) instanceof J.FieldAccess &&
+                        "class".equals(((J.FieldAccess) mock.getArguments().get(0)).getSimpleName())) {
+                        mocks.put(field, mock);
+                    }
+                }
+            }
+
+            mocks.keySet().removeIf(field -> assignments(cd, field) != 1);
+            return mocks;
+        }
+
+        private static int assignments(J.ClassDeclaration cd, String field) {
+            return new JavaIsoVisitor<AtomicInteger>() {
+                @Override
+                public J.Assignment visitAssignment(J.Assignment assignment, AtomicInteger count) {
+                    if (field.equals(assignedField(assignment, cd.getType()))) {
+                        count.incrementAndGet();
+                    }
+                    return super.visitAssignment(assignment, count);
+                }
+            }.reduce(cd.getBody(), new AtomicInteger()).get();
+        }
+
+        /**
+         * The name of the field of {@code owner} that the assignment assigns, which excludes local variables and fields
+         * of other classes by the same name.
+         */
+        @Nullable
+        private static String assignedField(J.Assignment assignment, @Nullable JavaType.FullyQualified owner) {
+            Expression variable = assignment.getVariable();
+            if (variable instanceof J.FieldAccess && ((J.FieldAccess) variable).getTarget() instanceof J.Identifier &&
+                "this".equals(((J.Identifier) ((J.FieldAccess) variable).getTarget()).getSimpleName())) {
+                variable = ((J.FieldAccess) variable).getName();
+            }
+            if (owner != null && variable instanceof J.Identifier && ((J.Identifier) variable).getFieldType() != null &&
+                TypeUtils.isOfType(((J.Identifier) variable).getFieldType().getOwner(), owner)) {
+                return ((J.Identifier) variable).getSimpleName();
+            }
+            return null;
+        }
+    }
+}
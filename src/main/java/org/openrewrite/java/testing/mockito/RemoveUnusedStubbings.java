@@ -0,0 +1,207 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RemoveUnusedStubbings extends Recipe {
+    private static final MethodMatcher MOCK = new MethodMatcher("org.mockito.Mockito mock(..)");
+    private static final MethodMatcher WHEN = new MethodMatcher("org.mockito.Mockito when(..)");
+    private static final MethodMatcher LENIENT_WHEN = new MethodMatcher("org.mockito.stubbing.LenientStubber when(..)", true);
+    private static final MethodMatcher STUBBER_WHEN = new MethodMatcher("org.mockito.stubbing.Stubber when(..)", true);
+    private static final List<MethodMatcher> STUBBINGS = Arrays.asList(
+            WHEN, LENIENT_WHEN, STUBBER_WHEN,
+            new MethodMatcher("org.mockito.BDDMockito given(..)"),
+            new MethodMatcher("org.mockito.BDDMockito will*(..)"));
+    private static final AnnotationMatcher MOCKITO_SETTINGS = new AnnotationMatcher("@org.mockito.junit.jupiter.MockitoSettings");
+
+    @Override
+    public String getDisplayName() {
+        return "Remove unused Mockito stubbings";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Remove stubbings of mocks created locally in a method and never handed to any other code, as nothing " +
+               "can call them, along with the then unused mocks. A class that is left without any stubbing no " +
+               "longer needs `@MockitoSettings(strictness = Strictness.LENIENT)`, so it falls back to strict stubs.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesMethod<>(MOCK), new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                // inherited set-up methods may stub as well, which hasStubbings cannot see
+                if (cd.getExtends() != null ||
+                    cd.getLeadingAnnotations().stream().noneMatch(RemoveUnusedStubbings::isLenientSettings) || hasStubbings(cd)) {
+                    return cd;
+                }
+                maybeRemoveImport("org.mockito.junit.jupiter.MockitoSettings");
+                maybeRemoveImport("org.mockito.quality.Strictness");
+                return maybeAutoFormat(cd, cd.withLeadingAnnotations(ListUtils.map(cd.getLeadingAnnotations(),
+                        annotation -> isLenientSettings(annotation) ? null : annotation)), ctx, getCursor().getParentOrThrow());
+            }
+
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+                J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
+                if (m.getBody() == null) {
+                    return m;
+                }
+
+                Map<String, Integer> stubbings = new HashMap<>();
+                for (Statement statement : m.getBody().getStatements()) {
+                    String mock = stubbedMock(statement);
+                    if (mock != null) {
+                        stubbings.merge(mock, 1, Integer::sum);
+                    }
+                }
+                Set<String> unreachable = new HashSet<>();
+                for (Statement statement : m.getBody().getStatements()) {
+                    String mock = localMock(statement);
+                    if (mock != null && stubbings.containsKey(mock) && references(m.getBody(), mock) == stubbings.get(mock)) {
+                        unreachable.add(mock);
+                    }
+                }
+                if (unreachable.isEmpty()) {
+                    return m;
+                }
+
+                for (String member : Arrays.asList("mock", "when", "lenient", "doReturn", "doThrow", "doAnswer", "doNothing")) {
+                    maybeRemoveImport("org.mockito.Mockito." + member);
+                }
+                return m.withBody(m.getBody().withStatements(ListUtils.map(m.getBody().getStatements(), statement -> {
+                    if (unreachable.contains(localMock(statement))) {
+                        JavaType.FullyQualified type = TypeUtils.asFullyQualified(((J.VariableDeclarations) statement).getType());
+                        if (type != null) {
+                            maybeRemoveImport(type);
+                        }
+                        return null;
+                    }
+                    return unreachable.contains(stubbedMock(statement)) ? null : statement;
+                })));
+            }
+        });
+    }
+
+    /**
+     * The name of the local variable a statement like {@code Type mock = mock(Type.class)} declares.
+     */
+    @Nullable
+    private static String localMock(Statement statement) {
+        if (statement instanceof J.VariableDeclarations && ((J.VariableDeclarations) statement).getVariables().size() == 1) {
+            J.VariableDeclarations.NamedVariable variable = ((J.VariableDeclarations) statement).getVariables().get(0);
+            if (MOCK.matches(variable.getInitializer())) {
+                return variable.getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The name of the local mock a statement like {@code when(mock.call()).thenReturn(value)} or
+     * {@code doReturn(value).when(mock).call()} stubs.
+     */
+    @Nullable
+    private static String stubbedMock(Statement statement) {
+        Expression call = statement instanceof J.MethodInvocation ? (Expression) statement : null;
+        while (call instanceof J.MethodInvocation) {
+            J.MethodInvocation invocation = (J.MethodInvocation) call;
+            if ((WHEN.matches(invocation) || LENIENT_WHEN.matches(invocation)) &&
+                invocation.getArguments().get(0) instanceof J.MethodInvocation) {
+                return localName(((J.MethodInvocation) invocation.getArguments().get(0)).getSelect());
+            }
+            if (STUBBER_WHEN.matches(invocation)) {
+                return localName(invocation.getArguments().get(0));
+            }
+            call = invocation.getSelect();
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String localName(@Nullable Expression expression) {
+        return expression instanceof J.Identifier && isLocal((J.Identifier) expression) ?
+                ((J.Identifier) expression).getSimpleName() : null;
+    }
+
+    /**
+     * Local variables have a field type as well, owned by the method declaring them.
+     */
+    private static boolean isLocal(J.Identifier identifier) {
+        return identifier.getFieldType() != null && identifier.getFieldType().getOwner() instanceof JavaType.Method;
+    }
+
+    /**
+     * How often a local variable is read, which for a mock that is only stubbed is once per stubbing.
+     */
+    private static int references(J.Block body, String local) {
+        return new JavaIsoVisitor<AtomicInteger>() {
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, AtomicInteger count) {
+                Object parent = getCursor().getParentTreeCursor().getValue();
+                if (identifier.getSimpleName().equals(local) && isLocal(identifier) &&
+                    !(parent instanceof J.VariableDeclarations.NamedVariable && ((J.VariableDeclarations.NamedVariable) parent).getName() == identifier) &&
+                    !(parent instanceof J.MethodInvocation && ((J.MethodInvocation) parent).getName() == identifier) &&
+                    !(parent instanceof J.FieldAccess && ((J.FieldAccess) parent).getName() == identifier)) {
+                    count.incrementAndGet();
+                }
+                return identifier;
+            }
+        }.reduce(body, new AtomicInteger()).get();
+    }
+
+    /**
+     * Whether this is {@code @MockitoSettings(strictness = Strictness.LENIENT)} without any other setting.
+     */
+    private static boolean isLenientSettings(J.Annotation annotation) {
+        if (!MOCKITO_SETTINGS.matches(annotation) || annotation.getArguments() == null ||
+            annotation.getArguments().size() != 1 || !(annotation.getArguments().get(0) instanceof J.Assignment)) {
+            return false;
+        }
+        J.Assignment strictness = (J.Assignment) annotation.getArguments().get(0);
+        Expression value = strictness.getAssignment();
+        return strictness.getVariable() instanceof J.Identifier &&
+               "strictness".equals(((J.Identifier) strictness.getVariable()).getSimpleName()) &&
+               (value instanceof J.FieldAccess && "LENIENT".equals(((J.FieldAccess) value).getSimpleName()) ||
+                value instanceof J.Identifier && "LENIENT".equals(((J.Identifier) value).getSimpleName()));
+    }
+
+    private static boolean hasStubbings(J.ClassDeclaration cd) {
+        return new JavaIsoVisitor<AtomicBoolean>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, AtomicBoolean found) {
+                if (STUBBINGS.stream().anyMatch(matcher -> matcher.matches(method))) {
+                    found.set(true);
+                }
+                return super.visitMethodInvocation(method, found);
+            }
+        }.reduce(cd, new AtomicBoolean()).get();
+    }
+}
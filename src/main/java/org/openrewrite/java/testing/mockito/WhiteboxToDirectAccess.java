@@ -0,0 +1,337 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.marker.JavaVersion;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+
+/**
+ * PowerMock's {@code Whitebox} reads and writes fields and calls methods reflectively by name. Where the member is
+ * visible from the test, the call becomes plain field access or a plain method call. A field the test cannot see
+ * is accessed through a {@code VarHandle} that the test class looks up once, in a static field, when the test is
+ * compiled for Java 9 or later. The value read is cast to the type the generic {@code Whitebox} call was inferred to
+ * return, where that differs from the type of the member.
+ * <p>
+ * Final fields are only written by {@code Whitebox}, and private methods are only called through it, as neither a
+ * {@code VarHandle} nor plain code can do that.
+ */
+public class WhiteboxToDirectAccess extends Recipe {
+    private static final MethodMatcher GET_INTERNAL_STATE = new MethodMatcher("org.powermock.reflect.Whitebox getInternalState(Object, String)");
+    private static final MethodMatcher SET_INTERNAL_STATE = new MethodMatcher("org.powermock.reflect.Whitebox setInternalState(Object, String, Object)");
+    private static final MethodMatcher INVOKE_METHOD = new MethodMatcher("org.powermock.reflect.Whitebox invokeMethod(Object, String, ..)");
+    private static final String VAR_HANDLE_FACTORY = "varHandle";
+
+    @Override
+    public String getDisplayName() {
+        return "Replace PowerMock `Whitebox` with direct access";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace `Whitebox.getInternalState`, `setInternalState` and `invokeMethod` with plain field access and " +
+               "method calls where the member is visible from the test, and with a `VarHandle` obtained through " +
+               "`MethodHandles.privateLookupIn` for fields that are not, in sources compiled for Java 9 or later.";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>("org.powermock.reflect.Whitebox", false), new JavaVisitor<ExecutionContext>() {
+            @Override
+            public J visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = classDecl;
+                if (getCursor().getParentTreeCursor().getValue() instanceof JavaSourceFile) {
+                    cd = addVarHandles(cd, ctx);
+                }
+                return super.visitClassDeclaration(cd, ctx);
+            }
+
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J j = super.visitMethodInvocation(method, ctx);
+                if (!(j instanceof J.MethodInvocation)) {
+                    return j;
+                }
+                J.MethodInvocation mi = (J.MethodInvocation) j;
+                String packageName = packageName(getCursor());
+                Expression target = mi.getArguments().get(0);
+
+                JavaType.Variable field = GET_INTERNAL_STATE.matches(mi) || SET_INTERNAL_STATE.matches(mi) ? field(mi) : null;
+                String fieldCast = field == null ? null : inferredCast(mi, field.getType());
+                if (field != null && fieldCast != null && isVisible(field.getFlags(), field.getOwner(), packageName)) {
+                    maybeRemoveImport("org.powermock.reflect.Whitebox");
+                    String read = "#{any()}." + field.getName();
+                    return GET_INTERNAL_STATE.matches(mi) ?
+                            template(fieldCast.isEmpty() ? read : cast(fieldCast, read)).apply(getCursor(), mi.getCoordinates().replace(), target) :
+                            template("#{any()}." + field.getName() + " = #{any()}")
+                                    .apply(getCursor(), mi.getCoordinates().replace(), target, mi.getArguments().get(2));
+                }
+                if (field != null && fieldCast != null && varHandle(field) != null && supportsVarHandles(getCursor())) {
+                    maybeRemoveImport("org.powermock.reflect.Whitebox");
+                    String read = varHandle(field) + ".get(#{any()})";
+                    return GET_INTERNAL_STATE.matches(mi) ?
+                            template(fieldCast.isEmpty() ? cast(typeName(field.getType()), read) :
+                                    cast(fieldCast, "(" + typeName(field.getType()) + ") " + read))
+                                    .apply(getCursor(), mi.getCoordinates().replace(), target) :
+                            template(varHandle(field) + ".set(#{any()}, #{any()})")
+                                    .apply(getCursor(), mi.getCoordinates().replace(), target, mi.getArguments().get(2));
+                }
+
+                JavaType.Method invoked = INVOKE_METHOD.matches(mi) ? method(mi) : null;
+                String returnCast = invoked == null ? null : inferredCast(mi, invoked.getReturnType());
+                if (invoked != null && returnCast != null && isVisible(invoked.getFlags(), invoked.getDeclaringType(), packageName)) {
+                    maybeRemoveImport("org.powermock.reflect.Whitebox");
+                    List<Expression> arguments = mi.getArguments().subList(2, mi.getArguments().size());
+                    StringJoiner parameters = new StringJoiner(", ", "(", ")");
+                    arguments.forEach(argument -> parameters.add("#{any()}"));
+                    List<Object> templateArguments = new ArrayList<>();
+                    templateArguments.add(target);
+                    templateArguments.addAll(arguments);
+                    String call = "#{any()}." + invoked.getName() + parameters;
+                    return template(returnCast.isEmpty() ? call : cast(returnCast, call))
+                            .apply(getCursor(), mi.getCoordinates().replace(), templateArguments.toArray());
+                }
+                return mi;
+            }
+
+            /**
+             * {@code getInternalState} and {@code invokeMethod} return whatever type the call site infers. The type to
+             * cast the member to where that differs from the type of the member, an empty string where no cast is
+             * needed, or {@code null} where the inferred type cannot be written in a cast.
+             */
+            @Nullable
+            private String inferredCast(J.MethodInvocation mi, @Nullable JavaType memberType) {
+                if (SET_INTERNAL_STATE.matches(mi) || getCursor().getParentTreeCursor().getValue() instanceof J.Block ||
+                    TypeUtils.isOfType(mi.getType(), memberType) || isBoxOf(mi.getType(), memberType)) {
+                    return "";
+                }
+                return memberType == JavaType.Primitive.Void ? null : typeName(mi.getType());
+            }
+
+            /**
+             * Cast code that replaces the call, keeping the cast around all of it where the call is the target of a
+             * member or array access.
+             */
+            private String cast(@Nullable String type, String code) {
+                Object parent = getCursor().getParentTreeCursor().getValue();
+                Object call = getCursor().getValue();
+                boolean target = parent instanceof J.MethodInvocation && ((J.MethodInvocation) parent).getSelect() == call ||
+                                 parent instanceof J.FieldAccess && ((J.FieldAccess) parent).getTarget() == call ||
+                                 parent instanceof J.ArrayAccess && ((J.ArrayAccess) parent).getIndexed() == call;
+                return target ? "((" + type + ") " + code + ")" : "(" + type + ") " + code;
+            }
+
+            /**
+             * Declare a {@code VarHandle} for every field the class reads or writes through {@code Whitebox} but
+             * cannot see, together with the factory that looks them up.
+             */
+            private J.ClassDeclaration addVarHandles(J.ClassDeclaration cd, ExecutionContext ctx) {
+                if (!supportsVarHandles(getCursor())) {
+                    return cd;
+                }
+                String packageName = packageName(getCursor());
+                Map<String, JavaType.Variable> fields = new LinkedHashMap<>();
+                new JavaIsoVisitor<Map<String, JavaType.Variable>>() {
+                    @Override
+                    public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Map<String, JavaType.Variable> acc) {
+                        JavaType.Variable field = GET_INTERNAL_STATE.matches(method) || SET_INTERNAL_STATE.matches(method) ? field(method) : null;
+                        String handle = field == null ? null : varHandle(field);
+                        if (handle != null && !isVisible(field.getFlags(), field.getOwner(), packageName)) {
+                            acc.put(handle, field);
+                        }
+                        return super.visitMethodInvocation(method, acc);
+                    }
+                }.visit(cd, fields);
+                if (fields.isEmpty()) {
+                    return cd;
+                }
+
+                List<Map.Entry<String, JavaType.Variable>> handles = new ArrayList<>(fields.entrySet());
+                Collections.reverse(handles);
+                for (Map.Entry<String, JavaType.Variable> handle : handles) {
+                    JavaType.FullyQualified owner = (JavaType.FullyQualified) handle.getValue().getOwner();
+                    cd = template("private static final VarHandle " + handle.getKey() + " = " + VAR_HANDLE_FACTORY + "(" +
+                                  owner.getClassName() + ".class, \"" + handle.getValue().getName() + "\", " +
+                                  typeName(handle.getValue().getType()) + ".class);")
+                            .apply(updateCursor(cd), cd.getBody().getCoordinates().firstStatement());
+                    maybeAddImport(owner.getFullyQualifiedName());
+                    JavaType.FullyQualified fieldType = TypeUtils.asFullyQualified(elementType(handle.getValue().getType()));
+                    if (fieldType != null) {
+                        maybeAddImport(fieldType.getFullyQualifiedName());
+                    }
+                }
+                boolean declaresFactory = cd.getBody().getStatements().stream().anyMatch(statement ->
+                        statement instanceof J.MethodDeclaration &&
+                        VAR_HANDLE_FACTORY.equals(((J.MethodDeclaration) statement).getSimpleName()));
+                if (!declaresFactory) {
+                    cd = template("private static VarHandle " + VAR_HANDLE_FACTORY + "(Class<?> type, String name, Class<?> fieldType) {\n" +
+                                  "    try {\n" +
+                                  "        return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).findVarHandle(type, name, fieldType);\n" +
+                                  "    } catch (ReflectiveOperationException e) {\n" +
+                                  "        throw new ExceptionInInitializerError(e);\n" +
+                                  "    }\n" +
+                                  "}")
+                            .apply(updateCursor(cd), cd.getBody().getCoordinates().lastStatement());
+                }
+                maybeAddImport("java.lang.invoke.MethodHandles");
+                maybeAddImport("java.lang.invoke.VarHandle");
+                return cd;
+            }
+        });
+    }
+
+    private static JavaTemplate template(String code) {
+        return JavaTemplate.builder(code)
+                .contextSensitive()
+                .imports("java.lang.invoke.MethodHandles", "java.lang.invoke.VarHandle")
+                .build();
+    }
+
+    /**
+     * {@code MethodHandles.privateLookupIn} was added in Java 9.
+     */
+    private static boolean supportsVarHandles(Cursor cursor) {
+        J.CompilationUnit cu = cursor.firstEnclosing(J.CompilationUnit.class);
+        return cu != null && cu.getMarkers().findFirst(JavaVersion.class)
+                .map(version -> version.getMajorVersion() >= 9)
+                .orElse(false);
+    }
+
+    private static String packageName(Cursor cursor) {
+        J.CompilationUnit cu = cursor.firstEnclosing(J.CompilationUnit.class);
+        return cu == null || cu.getPackageDeclaration() == null ? "" :
+                cu.getPackageDeclaration().getExpression().printTrimmed(cursor);
+    }
+
+    /**
+     * The instance field that {@code Whitebox} reads or writes, when it names one declared by the type of the target
+     * or a supertype, and when plain code could write it too.
+     */
+    @Nullable
+    private static JavaType.Variable field(J.MethodInvocation mi) {
+        if (!(mi.getArguments().get(1) instanceof J.Literal) ||
+            !(((J.Literal) mi.getArguments().get(1)).getValue() instanceof String)) {
+            return null;
+        }
+        String name = (String) ((J.Literal) mi.getArguments().get(1)).getValue();
+        for (JavaType.FullyQualified type = TypeUtils.asFullyQualified(mi.getArguments().get(0).getType());
+             type != null; type = type.getSupertype()) {
+            for (JavaType.Variable member : type.getMembers()) {
+                if (member.getName().equals(name)) {
+                    return member.hasFlags(Flag.Static) || SET_INTERNAL_STATE.matches(mi) && member.hasFlags(Flag.Final) ?
+                            null : member;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The only method of that name and arity that {@code Whitebox} can invoke on the type of the target.
+     */
+    @Nullable
+    private static JavaType.Method method(J.MethodInvocation mi) {
+        if (!(mi.getArguments().get(1) instanceof J.Literal) ||
+            !(((J.Literal) mi.getArguments().get(1)).getValue() instanceof String)) {
+            return null;
+        }
+        String name = (String) ((J.Literal) mi.getArguments().get(1)).getValue();
+        int arity = mi.getArguments().size() - 2;
+        if (arity == 1 && mi.getArguments().get(2) instanceof J.Empty) {
+            arity = 0;
+        }
+        JavaType.Method found = null;
+        for (JavaType.FullyQualified type = TypeUtils.asFullyQualified(mi.getArguments().get(0).getType());
+             type != null; type = type.getSupertype()) {
+            for (JavaType.Method candidate : type.getMethods()) {
+                if (candidate.getName().equals(name)) {
+                    if (found != null || candidate.getParameterTypes().size() != arity || candidate.hasFlags(Flag.Varargs)) {
+                        return null;
+                    }
+                    found = candidate;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean isVisible(Set<Flag> flags, @Nullable JavaType owner, String packageName) {
+        if (flags.contains(Flag.Private)) {
+            return false;
+        }
+        JavaType.FullyQualified declaringType = TypeUtils.asFullyQualified(owner);
+        if (declaringType == null || !declaringType.hasFlags(Flag.Public) && !declaringType.getPackageName().equals(packageName)) {
+            return false;
+        }
+        return flags.contains(Flag.Public) || declaringType.getPackageName().equals(packageName);
+    }
+
+    /**
+     * The name of the static field holding the {@code VarHandle} of a field, or {@code null} when the test could not
+     * name the class declaring the field or the type of the field.
+     */
+    @Nullable
+    private static String varHandle(JavaType.Variable field) {
+        JavaType.FullyQualified owner = TypeUtils.asFullyQualified(field.getOwner());
+        if (owner == null || owner.getOwningClass() != null || typeName(field.getType()) == null) {
+            return null;
+        }
+        return toUpperSnakeCase(owner.getClassName()) + "_" + toUpperSnakeCase(field.getName());
+    }
+
+    /**
+     * The erased name of a type as written in a class literal.
+     */
+    @Nullable
+    private static String typeName(@Nullable JavaType type) {
+        if (type instanceof JavaType.Primitive) {
+            return ((JavaType.Primitive) type).getKeyword();
+        }
+        if (type instanceof JavaType.Array) {
+            String element = typeName(((JavaType.Array) type).getElemType());
+            return element == null ? null : element + "[]";
+        }
+        JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+        return fullyQualified == null || fullyQualified.getOwningClass() != null ? null : fullyQualified.getClassName();
+    }
+
+    private static boolean isBoxOf(@Nullable JavaType type, @Nullable JavaType primitive) {
+        if (!(primitive instanceof JavaType.Primitive) || TypeUtils.asFullyQualified(type) == null) {
+            return false;
+        }
+        String keyword = ((JavaType.Primitive) primitive).getKeyword();
+        String box = primitive == JavaType.Primitive.Int ? "Integer" : primitive == JavaType.Primitive.Char ? "Character" :
+                Character.toUpperCase(keyword.charAt(0)) + keyword.substring(1);
+        return TypeUtils.isOfClassType(type, "java.lang." + box);
+    }
+
+    @Nullable
+    private static JavaType elementType(@Nullable JavaType type) {
+        return type instanceof JavaType.Array ? elementType(((JavaType.Array) type).getElemType()) : type;
+    }
+
+    private static String toUpperSnakeCase(String camelCase) {
+        return camelCase.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+}
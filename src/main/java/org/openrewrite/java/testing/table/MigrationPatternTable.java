@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.table;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The constructs of one test framework that {@link MigrationPatternsVisitor} counts.
+ */
+public interface MigrationPatternTable {
+
+    /**
+     * The name of the recipe that would migrate the patterns.
+     */
+    String getMigration();
+
+    boolean isFrameworkType(@Nullable JavaType.FullyQualified type);
+
+    /**
+     * The pattern of a class extending {@code supertype}, or {@code null} if it is not one.
+     */
+    @Nullable
+    default String extendsPattern(JavaType.FullyQualified supertype) {
+        return isFrameworkType(supertype) ? "extends " + supertype.getClassName() : null;
+    }
+
+    /**
+     * The patterns of an annotation: the framework annotation itself, and the framework runner of a
+     * {@code @RunWith}.
+     */
+    default List<String> annotationPatterns(J.Annotation annotation, JavaType.FullyQualified type) {
+        List<String> patterns = new ArrayList<>();
+        if (isFrameworkType(type)) {
+            patterns.add("@" + type.getClassName());
+        }
+        if ("org.junit.runner.RunWith".equals(type.getFullyQualifiedName()) && annotation.getArguments() != null) {
+            for (Expression arg : annotation.getArguments()) {
+                if (arg instanceof J.FieldAccess) {
+                    JavaType.FullyQualified runner = TypeUtils.asFullyQualified(((J.FieldAccess) arg).getTarget().getType());
+                    if (runner != null && isFrameworkRunner(runner)) {
+                        patterns.add("@RunWith(" + runner.getClassName() + ")");
+                    }
+                }
+            }
+        }
+        return patterns;
+    }
+
+    default boolean isFrameworkRunner(JavaType.FullyQualified runner) {
+        return isFrameworkType(runner);
+    }
+
+    /**
+     * The patterns of a field declaration beyond its annotations, such as a rule of a given type.
+     */
+    default List<String> fieldPatterns(J.VariableDeclarations field) {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Whether anonymous subclasses of framework types, such as JMockit's {@code new Expectations() {{ }}},
+     * are patterns of their own.
+     */
+    default boolean countsAnonymousSubclasses() {
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.table;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+
+import java.util.Map;
+
+@JsonIgnoreType
+public class MigrationPatterns extends DataTable<MigrationPatterns.Row> {
+
+    public MigrationPatterns(Recipe recipe) {
+        super(recipe, "Migration patterns",
+                "Occurrences of the constructs a test framework migration recipe rewrites, per source file.");
+    }
+
+    public void insertRows(ExecutionContext ctx, SourceFile sourceFile, String migration, Map<String, Integer> occurrences) {
+        for (Map.Entry<String, Integer> pattern : occurrences.entrySet()) {
+            insertRow(ctx, new Row(sourceFile.getSourcePath().toString(), migration, pattern.getKey(), pattern.getValue()));
+        }
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source path",
+                description = "The path of the source file the pattern was found in.")
+        String sourcePath;
+
+        @Column(displayName = "Migration",
+                description = "The name of the recipe that would migrate the pattern.")
+        String migration;
+
+        @Column(displayName = "Pattern",
+                description = "The construct found, such as an annotation, a runner, a rule type or a method.")
+        String pattern;
+
+        @Column(displayName = "Occurrences",
+                description = "How many times the pattern occurs in the source file.")
+        int occurrences;
+    }
+}
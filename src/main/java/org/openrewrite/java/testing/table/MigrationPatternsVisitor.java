@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.table;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the constructs in a {@link MigrationPatternTable} per compilation unit, and records them in
+ * {@link MigrationPatterns}. Class, method and field declarations are visited for their annotations and
+ * supertypes. Method bodies are only entered when the compilation unit's types in use show that they
+ * contain framework calls or anonymous framework subclasses.
+ */
+public class MigrationPatternsVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private final MigrationPatterns patterns;
+    private final MigrationPatternTable table;
+
+    private final Map<String, Integer> occurrences = new TreeMap<>();
+    private boolean walkBodies;
+
+    public MigrationPatternsVisitor(MigrationPatterns patterns, MigrationPatternTable table) {
+        this.patterns = patterns;
+        this.table = table;
+    }
+
+    @Override
+    public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+        occurrences.clear();
+        walkBodies = cu.getTypesInUse().getUsedMethods().stream()
+                             .anyMatch(method -> table.isFrameworkType(method.getDeclaringType())) ||
+                     table.countsAnonymousSubclasses() && cu.getTypesInUse().getTypesInUse().stream()
+                             .anyMatch(type -> table.isFrameworkType(TypeUtils.asFullyQualified(type)));
+        J.CompilationUnit c = super.visitCompilationUnit(cu, ctx);
+        patterns.insertRows(ctx, c, table.getMigration(), occurrences);
+        return c;
+    }
+
+    @Override
+    public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+        Object parent = getCursor().getParentTreeCursor().getValue();
+        if (!walkBodies && !(parent instanceof J.ClassDeclaration) && !(parent instanceof J.NewClass)) {
+            return block;
+        }
+        return super.visitBlock(block, ctx);
+    }
+
+    @Override
+    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+        JavaType.FullyQualified supertype = classDecl.getExtends() == null ? null :
+                TypeUtils.asFullyQualified(classDecl.getExtends().getType());
+        if (supertype != null) {
+            String pattern = table.extendsPattern(supertype);
+            if (pattern != null) {
+                count(pattern);
+            }
+        }
+        return super.visitClassDeclaration(classDecl, ctx);
+    }
+
+    @Override
+    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+        table.fieldPatterns(multiVariable).forEach(this::count);
+        return super.visitVariableDeclarations(multiVariable, ctx);
+    }
+
+    @Override
+    public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
+        JavaType.FullyQualified type = TypeUtils.asFullyQualified(annotation.getType());
+        if (type != null) {
+            table.annotationPatterns(annotation, type).forEach(this::count);
+        }
+        return annotation;
+    }
+
+    @Override
+    public J.NewClass visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+        if (table.countsAnonymousSubclasses() && newClass.getBody() != null && newClass.getClazz() != null) {
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(newClass.getClazz().getType());
+            if (table.isFrameworkType(type)) {
+                count("new " + type.getClassName());
+            }
+        }
+        return super.visitNewClass(newClass, ctx);
+    }
+
+    @Override
+    public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+        JavaType.Method methodType = method.getMethodType();
+        if (methodType != null && table.isFrameworkType(methodType.getDeclaringType())) {
+            count(methodType.getDeclaringType().getClassName() + "." + methodType.getName());
+        }
+        return super.visitMethodInvocation(method, ctx);
+    }
+
+    private void count(String pattern) {
+        occurrences.merge(pattern, 1, Integer::sum);
+    }
+}
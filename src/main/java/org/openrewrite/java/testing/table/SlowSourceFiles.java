@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.table;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+@JsonIgnoreType
+public class SlowSourceFiles extends DataTable<SlowSourceFiles.Row> {
+
+    public SlowSourceFiles(Recipe recipe) {
+        super(recipe, "Slow source files",
+                "Source files a recipe was abandoned on because it exceeded its time budget for a single file.");
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Source path",
+                description = "The path of the source file that was left unchanged.")
+        String sourcePath;
+
+        @Column(displayName = "Recipe",
+                description = "The name of the recipe that exceeded its time budget.")
+        String recipe;
+
+        @Column(displayName = "Elapsed time (ms)",
+                description = "How long the recipe had been running on the source file when it was abandoned.")
+        long elapsedMillis;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.testcontainers;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.PropertiesFiles;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.Space;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddContainerReuse extends ScanningRecipe<AddContainerReuse.Accumulator> {
+    private static final Path PROPERTIES_PATH = Paths.get(".testcontainers.properties");
+    private static final String REUSE = "REUSE";
+    private static final String REUSE_ENABLE = "testcontainers.reuse.enable";
+
+    /**
+     * Configuration that a reused container would keep from an earlier test run instead of applying it again.
+     */
+    private static final Set<String> PER_RUN_STATE = new HashSet<>(Arrays.asList(
+            "withInitScript",
+            "withCopyFileToContainer",
+            "withCopyToContainer",
+            "withClasspathResourceMapping",
+            "withFileSystemBind",
+            "withTmpFs",
+            "withReuse"));
+
+    @Option(displayName = "Container classes",
+            description = "The fully qualified names of the container classes to reuse.",
+            example = "org.testcontainers.containers.PostgreSQLContainer")
+    List<String> containerClasses;
+
+    @JsonCreator
+    public AddContainerReuse(@JsonProperty("containerClasses") List<String> containerClasses) {
+        this.containerClasses = containerClasses;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Reuse containers between test runs";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Add `.withReuse(true)` to the construction of the given container classes, unless they are configured " +
+               "with state such as init scripts or copied files that a reused container would not pick up again. " +
+               "Also adds `testcontainers.reuse.enable=true` to a `.testcontainers.properties` file in the project root, " +
+               "to be copied to or linked from the home directory of developers who want to opt in to reuse. An " +
+               "explicit `testcontainers.reuse.enable=false` is kept.";
+    }
+
+    public static class Accumulator {
+        final AtomicBoolean reusesContainers = new AtomicBoolean();
+        final AtomicBoolean propertiesExist = new AtomicBoolean();
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        List<MethodMatcher> constructors = constructors();
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && PROPERTIES_PATH.equals(((SourceFile) tree).getSourcePath())) {
+                    acc.propertiesExist.set(true);
+                } else if (tree instanceof JavaSourceFile && !acc.reusesContainers.get()) {
+                    new JavaIsoVisitor<ExecutionContext>() {
+                        @Override
+                        public J.NewClass visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+                            if (isReusable(newClass, getCursor(), constructors)) {
+                                acc.reusesContainers.set(true);
+                            }
+                            return super.visitNewClass(newClass, ctx);
+                        }
+                    }.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        if (!acc.reusesContainers.get() || acc.propertiesExist.get()) {
+            return Collections.emptyList();
+        }
+        return PropertiesFiles.create(PROPERTIES_PATH, REUSE_ENABLE, "true", ctx);
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        List<MethodMatcher> constructors = constructors();
+        TreeVisitor<?, ExecutionContext> javaVisitor = Preconditions.check(new UsesType<>("org.testcontainers..*", false), new JavaVisitor<ExecutionContext>() {
+            @Nullable
+            private JavaTemplate withReuseTemplate;
+
+            private JavaTemplate getWithReuseTemplate(ExecutionContext ctx) {
+                if (withReuseTemplate == null) {
+                    withReuseTemplate = JavaTemplate.builder("#{any(org.testcontainers.containers.GenericContainer)}.withReuse(true)")
+                            .javaParser(JavaParser.fromJavaVersion().classpath("testcontainers"))
+                            .build();
+                }
+                return withReuseTemplate;
+            }
+
+            @Override
+            public J visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+                J nc = super.visitNewClass(newClass, ctx);
+                if (!(nc instanceof J.NewClass) || !isReusable(newClass, getCursor(), constructors)) {
+                    return nc;
+                }
+                // the outermost call of a chain like `new C(..).withX(..)` is where `.withReuse(true)` goes
+                Cursor chain = getCursor();
+                while (chain.getParentTreeCursor().getValue() instanceof J.MethodInvocation &&
+                       ((J.MethodInvocation) chain.getParentTreeCursor().getValue()).getSelect() == chain.getValue()) {
+                    chain = chain.getParentTreeCursor();
+                }
+                if (chain == getCursor()) {
+                    return withReuse((J.NewClass) nc, ctx);
+                }
+                chain.putMessage(REUSE, true);
+                return nc;
+            }
+
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J mi = super.visitMethodInvocation(method, ctx);
+                return mi instanceof J.MethodInvocation && getCursor().getMessage(REUSE, false) ?
+                        withReuse((J.MethodInvocation) mi, ctx) : mi;
+            }
+
+            private J.MethodInvocation withReuse(Expression container, ExecutionContext ctx) {
+                return getWithReuseTemplate(ctx).<J.MethodInvocation>apply(getCursor(), container.getCoordinates().replace(),
+                        container.withPrefix(Space.EMPTY)).withPrefix(container.getPrefix());
+            }
+        });
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile && PROPERTIES_PATH.equals(((SourceFile) tree).getSourcePath())) {
+                    return acc.reusesContainers.get() ? PropertiesFiles.addIfAbsent((SourceFile) tree, REUSE_ENABLE, "true", ctx) : tree;
+                }
+                return tree instanceof JavaSourceFile ? javaVisitor.visit(tree, ctx) : tree;
+            }
+        };
+    }
+
+    private List<MethodMatcher> constructors() {
+        return containerClasses.stream()
+                .map(containerClass -> new MethodMatcher(containerClass + " <constructor>(..)"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether the container constructed here is one of the configured classes and is not configured with
+     * state that does not survive reuse.
+     */
+    private static boolean isReusable(J.NewClass newClass, Cursor cursor, List<MethodMatcher> constructors) {
+        if (constructors.stream().noneMatch(m -> m.matches(newClass))) {
+            return false;
+        }
+        for (Cursor c = cursor; c.getParentTreeCursor().getValue() instanceof J.MethodInvocation; c = c.getParentTreeCursor()) {
+            J.MethodInvocation mi = c.getParentTreeCursor().getValue();
+            if (mi.getSelect() != c.getValue()) {
+                break;
+            }
+            if (PER_RUN_STATE.contains(mi.getSimpleName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
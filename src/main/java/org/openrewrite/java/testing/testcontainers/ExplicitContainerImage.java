@@ -27,6 +27,7 @@ import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.TypeUtils;
 import org.openrewrite.marker.Markers;
 
 import java.util.Arrays;
@@ -34,6 +35,8 @@ import java.util.UUID;
 
 @RequiredArgsConstructor
 public class ExplicitContainerImage extends Recipe {
+    private static final String GENERIC_CONTAINER = "org.testcontainers.containers.GenericContainer";
+
     @Option(displayName = "Container class",
             description = "The fully qualified name of the container class to use.",
             example = "org.testcontainers.containers.NginxContainer")
@@ -87,4 +90,20 @@ public class ExplicitContainerImage extends Recipe {
             }
         });
     }
+
+    /**
+     * Whether a container is constructed with an image, by name, as a {@code DockerImageName} or as an image built
+     * on the fly, rather than with the default image of its class.
+     */
+    static boolean hasExplicitImage(J.NewClass newClass) {
+        JavaType.Method constructor = newClass.getConstructorType();
+        if (constructor == null || constructor.getParameterTypes().isEmpty() ||
+            !TypeUtils.isAssignableTo(GENERIC_CONTAINER, constructor.getDeclaringType())) {
+            return false;
+        }
+        JavaType image = constructor.getParameterTypes().get(0);
+        return TypeUtils.isOfClassType(image, "java.lang.String") ||
+               TypeUtils.isOfClassType(image, "org.testcontainers.utility.DockerImageName") ||
+               TypeUtils.isAssignableTo("java.util.concurrent.Future", image);
+    }
 }
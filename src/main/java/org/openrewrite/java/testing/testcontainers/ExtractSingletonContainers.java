@@ -0,0 +1,468 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.testcontainers;
+
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.marker.JavaProject;
+import org.openrewrite.java.marker.JavaSourceSet;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Containers started once per test class through {@code @Container}, {@code @ClassRule} or {@code @Rule} fields
+ * are, when several test classes configure them identically, moved to a holder class that starts each of them
+ * once per JVM (the singleton container pattern). The fields in the test classes are kept, so no other code in
+ * them changes, but are initialized from the holder and no longer managed by a rule or extension.
+ * <p>
+ * Containers are only shared within a source set of a module, and only when they are constructed with an explicit
+ * image, as {@link ExplicitContainerImage} makes sure of: the default image of a container class changes with the
+ * Testcontainers version, which may differ between the test classes' and the holder's classpath.
+ */
+public class ExtractSingletonContainers extends ScanningRecipe<ExtractSingletonContainers.Accumulator> {
+    private static final String HOLDER_CLASS_NAME = "SharedContainers";
+
+    private static final List<AnnotationMatcher> LIFECYCLE_ANNOTATIONS = Arrays.asList(
+            new AnnotationMatcher("@org.testcontainers.junit.jupiter.Container"),
+            new AnnotationMatcher("@org.junit.ClassRule"),
+            new AnnotationMatcher("@org.junit.Rule"));
+
+    @Override
+    public String getDisplayName() {
+        return "Share identically configured containers across test classes";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Move containers that several test classes declare with the same configuration through `@Container`, " +
+               "`@ClassRule` or `@Rule` to a `" + HOLDER_CLASS_NAME + "` class that starts each of them once per JVM, " +
+               "instead of once per test class. Containers are not stopped explicitly, Testcontainers removes them " +
+               "when the JVM exits.";
+    }
+
+    public static class Accumulator {
+        final Set<Path> sourcePaths = new HashSet<>();
+
+        /**
+         * The containers by source set and configuration, see {@link #key(J.VariableDeclarations, J.ClassDeclaration, Cursor)}.
+         */
+        final Map<String, SharedContainer> containers = new LinkedHashMap<>();
+
+        @Nullable
+        private Map<Path, List<SharedContainer>> holders;
+
+        /**
+         * The containers that are configured identically in more than one test class, by the path of the holder
+         * class they are moved to.
+         */
+        Map<Path, List<SharedContainer>> holders() {
+            if (holders == null) {
+                holders = new LinkedHashMap<>();
+                for (SharedContainer container : containers.values()) {
+                    if (container.classes.size() < 2) {
+                        continue;
+                    }
+                    TestClass first = container.first();
+                    Path holderPath = first.sourcePath.resolveSibling(HOLDER_CLASS_NAME + ".java");
+                    if (sourcePaths.contains(holderPath)) {
+                        continue;
+                    }
+                    List<SharedContainer> shared = holders.computeIfAbsent(holderPath, p -> new ArrayList<>());
+                    container.holder = first.packageName == null ? HOLDER_CLASS_NAME :
+                            first.packageName + "." + HOLDER_CLASS_NAME;
+                    container.constant = uniqueConstantName(container.fieldName, shared);
+                    shared.add(container);
+                }
+            }
+            return holders;
+        }
+
+        private static String uniqueConstantName(String fieldName, List<SharedContainer> shared) {
+            String base = fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+            String name = base;
+            for (int i = 2; true; i++) {
+                String candidate = name;
+                if (shared.stream().noneMatch(c -> candidate.equals(c.constant))) {
+                    return name;
+                }
+                name = base + "_" + i;
+            }
+        }
+    }
+
+    static class SharedContainer {
+        final String type;
+        final String initializer;
+        final String fieldName;
+
+        /**
+         * The imports the type and initializer need, with static imports prefixed by {@code static}.
+         */
+        final Set<String> imports;
+
+        /**
+         * The test classes declaring this container, by their fully qualified name.
+         */
+        final SortedMap<String, TestClass> classes = new TreeMap<>();
+
+        @Nullable
+        String holder;
+
+        @Nullable
+        String constant;
+
+        SharedContainer(String type, String initializer, String fieldName, Set<String> imports) {
+            this.type = type;
+            this.initializer = initializer;
+            this.fieldName = fieldName;
+            this.imports = imports;
+        }
+
+        TestClass first() {
+            return classes.values().iterator().next();
+        }
+    }
+
+    /**
+     * What the holder class takes over from a test class declaring one of its containers.
+     */
+    static class TestClass {
+        final Path sourcePath;
+
+        @Nullable
+        final String packageName;
+
+        final Markers markers;
+
+        TestClass(J.CompilationUnit cu) {
+            this.sourcePath = cu.getSourcePath();
+            this.packageName = cu.getPackageDeclaration() == null ? null :
+                    cu.getPackageDeclaration().getExpression().printTrimmed();
+            this.markers = cu.getMarkers();
+        }
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                acc.sourcePaths.add(cu.getSourcePath());
+                return new UsesType<>("org.testcontainers..*", false).visit(cu, ctx) == cu ? cu : super.visitCompilationUnit(cu, ctx);
+            }
+
+            @Override
+            public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J.ClassDeclaration classDecl = declaringClass(getCursor());
+                String key = classDecl == null ? null : key(multiVariable, classDecl, getCursor());
+                if (key != null && classDecl.getType() != null) {
+                    J.VariableDeclarations.NamedVariable variable = multiVariable.getVariables().get(0);
+                    assert multiVariable.getTypeExpression() != null && variable.getInitializer() != null;
+                    acc.containers.computeIfAbsent(key, k -> new SharedContainer(
+                                    multiVariable.getTypeExpression().printTrimmed(getCursor()),
+                                    variable.getInitializer().printTrimmed(getCursor()),
+                                    variable.getSimpleName(),
+                                    imports(multiVariable)))
+                            .classes.computeIfAbsent(classDecl.getType().getFullyQualifiedName(),
+                                    n -> new TestClass(getCursor().firstEnclosingOrThrow(J.CompilationUnit.class)));
+                }
+                return multiVariable;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        List<SourceFile> generated = new ArrayList<>();
+        for (Map.Entry<Path, List<SharedContainer>> holder : acc.holders().entrySet()) {
+            TestClass first = holder.getValue().get(0).first();
+            JavaParser.fromJavaVersion()
+                    .classpath(JavaParser.runtimeClasspath())
+                    .build()
+                    .parse(ctx, holderSource(first, holder.getValue()))
+                    .map(sourceFile -> (SourceFile) sourceFile.withSourcePath(holder.getKey()).withMarkers(first.markers))
+                    .forEach(generated::add);
+        }
+        return generated;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return Preconditions.check(!acc.holders().isEmpty(), new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J.VariableDeclarations vd = super.visitVariableDeclarations(multiVariable, ctx);
+                J.ClassDeclaration classDecl = declaringClass(getCursor());
+                String key = classDecl == null ? null : key(vd, classDecl, getCursor());
+                SharedContainer container = key == null ? null : acc.containers.get(key);
+                if (container == null || container.holder == null || container.constant == null) {
+                    return vd;
+                }
+
+                vd = vd.withLeadingAnnotations(ListUtils.map(vd.getLeadingAnnotations(), a -> {
+                    for (AnnotationMatcher lifecycle : LIFECYCLE_ANNOTATIONS) {
+                        if (lifecycle.matches(a)) {
+                            maybeRemoveImport(TypeUtils.asFullyQualified(a.getType()));
+                            return null;
+                        }
+                    }
+                    return a;
+                }));
+                if (vd.getLeadingAnnotations().isEmpty() && !multiVariable.getLeadingAnnotations().isEmpty()) {
+                    Space prefix = multiVariable.getLeadingAnnotations().get(0).getPrefix();
+                    vd = vd.getModifiers().isEmpty() ?
+                            vd.withTypeExpression(vd.getTypeExpression() == null ? null : vd.getTypeExpression().withPrefix(prefix)) :
+                            vd.withModifiers(ListUtils.mapFirst(vd.getModifiers(), m -> m.withPrefix(prefix)));
+                }
+
+                for (String anImport : container.imports) {
+                    maybeRemoveImport(anImport.startsWith("static ") ? anImport.substring("static ".length()) : anImport);
+                }
+
+                JavaType.FullyQualified holderType = JavaType.ShallowClass.build(container.holder);
+                String holderName = holderType.getPackageName().equals(classDecl.getType() == null ? "" : classDecl.getType().getPackageName()) ?
+                        holderType.getClassName() : holderType.getFullyQualifiedName();
+                Expression holderTypeTree = TypeTree.build(holderName);
+                J.VariableDeclarations.NamedVariable variable = vd.getVariables().get(0);
+                J.FieldAccess shared = new J.FieldAccess(randomId(),
+                        variable.getInitializer() == null ? Space.SINGLE_SPACE : variable.getInitializer().getPrefix(),
+                        Markers.EMPTY,
+                        holderTypeTree.withType(holderType),
+                        JLeftPadded.build(new J.Identifier(randomId(), Space.EMPTY, Markers.EMPTY, emptyList(),
+                                container.constant, vd.getType(), null)),
+                        vd.getType());
+                return vd.withVariables(Collections.singletonList(variable.withInitializer(shared)));
+            }
+        });
+    }
+
+    private static @Nullable J.ClassDeclaration declaringClass(Cursor cursor) {
+        Object parent = cursor.getParentTreeCursor().getParentTreeCursor().getValue();
+        return parent instanceof J.ClassDeclaration ? (J.ClassDeclaration) parent : null;
+    }
+
+    /**
+     * A key that is the same for two container fields exactly when they are declared in the same source set of the
+     * same module and configure the container identically, or {@code null} if the field is not a container that can
+     * be shared.
+     */
+    private static @Nullable String key(J.VariableDeclarations vd, J.ClassDeclaration classDecl, Cursor cursor) {
+        if (vd.getVariables().size() != 1 || vd.getTypeExpression() == null ||
+            vd.getLeadingAnnotations().stream().noneMatch(a -> LIFECYCLE_ANNOTATIONS.stream().anyMatch(m -> m.matches(a)))) {
+            return null;
+        }
+        Expression initializer = vd.getVariables().get(0).getInitializer();
+        if (initializer == null || classDecl.getType() == null || !constructsWithExplicitImage(initializer) ||
+            !isSelfContained(initializer, classDecl.getType())) {
+            return null;
+        }
+        Markers markers = cursor.firstEnclosingOrThrow(J.CompilationUnit.class).getMarkers();
+        return markers.findFirst(JavaProject.class).map(JavaProject::getProjectName).orElse("") + ":" +
+               markers.findFirst(JavaSourceSet.class).map(JavaSourceSet::getName).orElse("") + " " +
+               TypeUtils.toString(vd.getType()) + " = " + configuration(initializer);
+    }
+
+    /**
+     * Whether the initializer constructs a container with an image, possibly configuring it further like
+     * {@code new NginxContainer<>("nginx:1.9.4").withExposedPorts(80)}.
+     */
+    private static boolean constructsWithExplicitImage(Expression initializer) {
+        Expression constructed = initializer;
+        while (constructed instanceof J.MethodInvocation && ((J.MethodInvocation) constructed).getSelect() != null) {
+            constructed = ((J.MethodInvocation) constructed).getSelect();
+        }
+        return constructed instanceof J.NewClass && ExplicitContainerImage.hasExplicitImage((J.NewClass) constructed);
+    }
+
+    /**
+     * The initializer by the types, methods and values it refers to, regardless of formatting and of how it names them.
+     */
+    private static String configuration(Expression initializer) {
+        StringBuilder configuration = new StringBuilder();
+        new JavaIsoVisitor<StringBuilder>() {
+            @Override
+            public J preVisit(J tree, StringBuilder c) {
+                c.append('(').append(tree.getClass().getSimpleName());
+                return tree;
+            }
+
+            @Override
+            public J postVisit(J tree, StringBuilder c) {
+                c.append(')');
+                return tree;
+            }
+
+            @Override
+            public J.NewClass visitNewClass(J.NewClass newClass, StringBuilder c) {
+                c.append(' ').append(TypeUtils.toString(newClass.getConstructorType() == null ?
+                        newClass.getType() : newClass.getConstructorType()));
+                return super.visitNewClass(newClass, c);
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, StringBuilder c) {
+                c.append(' ').append(method.getMethodType() == null ? method.getSimpleName() :
+                        TypeUtils.toString(method.getMethodType()));
+                if (method.getMethodType() != null && method.getMethodType().hasFlags(Flag.Static)) {
+                    // whether a static method is qualified or statically imported does not change what it does
+                    for (Expression argument : method.getArguments()) {
+                        visit(argument, c);
+                    }
+                    return method;
+                }
+                return super.visitMethodInvocation(method, c);
+            }
+
+            @Override
+            public J.Literal visitLiteral(J.Literal literal, StringBuilder c) {
+                c.append(' ').append(TypeUtils.toString(literal.getType())).append(' ').append(literal.getValue());
+                return literal;
+            }
+
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, StringBuilder c) {
+                c.append(' ').append(identifier.getFieldType() == null ?
+                        TypeUtils.toString(identifier.getType()) :
+                        TypeUtils.toString(identifier.getFieldType().getOwner()) + "#" + identifier.getSimpleName());
+                return identifier;
+            }
+        }.visit(initializer, configuration);
+        return configuration.toString();
+    }
+
+    /**
+     * Whether the initializer can be moved to another class because it does not refer to members of its own.
+     */
+    private static boolean isSelfContained(Expression initializer, JavaType.FullyQualified declaringType) {
+        return new JavaIsoVisitor<Set<Boolean>>() {
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, Set<Boolean> refersToMembers) {
+                if ("this".equals(identifier.getSimpleName()) || identifier.getFieldType() != null &&
+                                                                  TypeUtils.isOfType(identifier.getFieldType().getOwner(), declaringType)) {
+                    refersToMembers.add(true);
+                }
+                return identifier;
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Set<Boolean> refersToMembers) {
+                if (method.getMethodType() != null && TypeUtils.isOfType(method.getMethodType().getDeclaringType(), declaringType)) {
+                    refersToMembers.add(true);
+                }
+                return super.visitMethodInvocation(method, refersToMembers);
+            }
+        }.reduce(initializer, new HashSet<>()).isEmpty();
+    }
+
+    /**
+     * The types a container field refers to by simple name and the static members it refers to without qualification,
+     * which its holder class has to import.
+     */
+    private static Set<String> imports(J.VariableDeclarations vd) {
+        Set<String> imports = new TreeSet<>();
+        JavaIsoVisitor<Set<String>> collector = new JavaIsoVisitor<Set<String>>() {
+            @Override
+            public J.FieldAccess visitFieldAccess(J.FieldAccess fieldAccess, Set<String> imports) {
+                // the name is qualified by the target, so only the target may need an import
+                visit(fieldAccess.getTarget(), imports);
+                return fieldAccess;
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Set<String> imports) {
+                JavaType.Method methodType = method.getMethodType();
+                if (method.getSelect() == null && methodType != null && methodType.hasFlags(Flag.Static)) {
+                    imports.add("static " + methodType.getDeclaringType().getFullyQualifiedName().replace('$', '.') +
+                                "." + methodType.getName());
+                }
+                return super.visitMethodInvocation(method, imports);
+            }
+
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, Set<String> imports) {
+                JavaType.Variable field = identifier.getFieldType();
+                if (field != null) {
+                    JavaType.FullyQualified owner = TypeUtils.asFullyQualified(field.getOwner());
+                    if (owner != null && field.hasFlags(Flag.Static)) {
+                        imports.add("static " + owner.getFullyQualifiedName().replace('$', '.') + "." + field.getName());
+                    }
+                    return identifier;
+                }
+                JavaType.FullyQualified type = TypeUtils.asFullyQualified(identifier.getType());
+                if (type != null && identifier.getSimpleName().equals(type.getClassName()) &&
+                    !"java.lang".equals(type.getPackageName())) {
+                    imports.add(type.getFullyQualifiedName().replace('$', '.'));
+                }
+                return identifier;
+            }
+        };
+        collector.visit(vd.getTypeExpression(), imports);
+        collector.visit(vd.getVariables().get(0).getInitializer(), imports);
+        return imports;
+    }
+
+    /**
+     * The source of the holder class, declaring its containers as the first test class declaring them did.
+     */
+    private static String holderSource(TestClass first, List<SharedContainer> containers) {
+        StringBuilder source = new StringBuilder();
+        if (first.packageName != null) {
+            source.append("package ").append(first.packageName).append(";\n\n");
+        }
+        Set<String> imports = new TreeSet<>();
+        Set<String> staticImports = new TreeSet<>();
+        for (SharedContainer container : containers) {
+            for (String anImport : container.imports) {
+                (anImport.startsWith("static ") ? staticImports : imports).add(anImport);
+            }
+        }
+        for (Set<String> group : Arrays.asList(imports, staticImports)) {
+            for (String anImport : group) {
+                source.append("import ").append(anImport).append(";\n");
+            }
+            if (!group.isEmpty()) {
+                source.append('\n');
+            }
+        }
+        source.append("public final class ").append(HOLDER_CLASS_NAME).append(" {\n");
+        for (SharedContainer container : containers) {
+            source.append("    public static final ").append(container.type).append(' ').append(container.constant)
+                    .append(" = ").append(container.initializer).append(";\n");
+        }
+        source.append("\n    static {\n");
+        for (SharedContainer container : containers) {
+            source.append("        ").append(container.constant).append(".start();\n");
+        }
+        source.append("    }\n\n    private ").append(HOLDER_CLASS_NAME).append("() {\n    }\n}\n");
+        return source.toString();
+    }
+}
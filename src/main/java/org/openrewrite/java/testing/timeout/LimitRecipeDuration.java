@@ -0,0 +1,210 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.timeout;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Value;
+import lombok.experimental.NonFinal;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.testing.internal.RecipeDecorators;
+import org.openrewrite.java.testing.table.SlowSourceFiles;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs another recipe with a time budget per source file, so that one unusually large source file cannot stall a
+ * whole run.
+ * <p>
+ * Every recipe in the delegate's recipe tree is timed separately on each source file. When a recipe exceeds the
+ * budget the whole delegate abandons that source file: the recipes after it skip the file, the changes of the
+ * recipes before it are discarded too, so that the file is left exactly as it was before the run rather than half
+ * migrated, and a row is added to the {@link SlowSourceFiles} data table. Recipes that call
+ * {@link RecipeDeadline#check(ExecutionContext)} are abandoned as soon as the budget is spent; all others are only
+ * judged once they finish.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class LimitRecipeDuration extends Recipe {
+    private static final String ORIGINALS = "org.openrewrite.java.testing.timeout.originals";
+    private static final String ABANDONED = "org.openrewrite.java.testing.timeout.abandoned";
+
+    @Option(displayName = "Recipe",
+            description = "The fully qualified name of the recipe to run.",
+            example = "org.openrewrite.java.testing.junit5.JUnit4to5Migration")
+    String recipe;
+
+    @Option(displayName = "Maximum duration per file",
+            description = "The time in milliseconds each recipe may spend on a single source file.",
+            example = "10000")
+    Long maxDurationMillis;
+
+    transient SlowSourceFiles slowSourceFiles = new SlowSourceFiles(this);
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    @Nullable
+    transient Recipe delegate;
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    @Nullable
+    transient List<Recipe> recipeList;
+
+    @JsonCreator
+    public LimitRecipeDuration(@JsonProperty("recipe") String recipe, @JsonProperty("maxDurationMillis") Long maxDurationMillis) {
+        this.recipe = recipe;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Limit recipe duration per source file";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Run a recipe, leaving unchanged any source file it spends more than the given time on and reporting " +
+               "those source files in a data table.";
+    }
+
+    @Override
+    public List<Recipe> getRecipeList() {
+        if (recipeList == null) {
+            recipeList = Arrays.asList(
+                    RecipeDecorators.decorate(delegate(), (recipe, visitor) -> new TimedVisitor(recipe.getName(), visitor)),
+                    new RestoreAbandoned());
+        }
+        return recipeList;
+    }
+
+    /**
+     * Runs before the delegate recipe and remembers each source file as it was before the run, until
+     * {@link RestoreAbandoned} has visited it.
+     */
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile) {
+                    ctx.computeMessageIfAbsent(ORIGINALS, k -> new ConcurrentHashMap<UUID, SourceFile>())
+                            .putIfAbsent(tree.getId(), (SourceFile) tree);
+                }
+                return tree;
+            }
+        };
+    }
+
+    private static boolean isAbandoned(@Nullable Tree tree, ExecutionContext ctx) {
+        return tree instanceof SourceFile &&
+               ctx.<Set<UUID>>getMessage(ABANDONED, Collections.emptySet()).contains(tree.getId());
+    }
+
+    /**
+     * Runs after the delegate recipe and puts back the source files it abandoned as they were before the run.
+     */
+    private static class RestoreAbandoned extends Recipe {
+        @Override
+        public String getDisplayName() {
+            return "Restore abandoned source files";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Discard every change of the delegate recipe to a source file that one of its recipes spent too long on.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (!(tree instanceof SourceFile)) {
+                        return tree;
+                    }
+                    SourceFile original = ctx.<Map<UUID, SourceFile>>getMessage(ORIGINALS, Collections.emptyMap()).remove(tree.getId());
+                    return original != null && isAbandoned(tree, ctx) ? original : tree;
+                }
+            };
+        }
+    }
+
+    private Recipe delegate() {
+        if (delegate == null) {
+            delegate = RecipeDecorators.resolve(recipe);
+        }
+        return delegate;
+    }
+
+    private class TimedVisitor extends RecipeDecorators.AroundVisitor {
+        private final String recipeName;
+
+        TimedVisitor(String recipeName, TreeVisitor<?, ExecutionContext> delegate) {
+            super(delegate);
+            this.recipeName = recipeName;
+        }
+
+        @Override
+        protected @Nullable Tree around(@Nullable Tree tree, ExecutionContext ctx, Supplier<Tree> visit) {
+            if (isAbandoned(tree, ctx)) {
+                return tree;
+            }
+            return tree instanceof SourceFile ? timed((SourceFile) tree, ctx, visit) : visit.get();
+        }
+
+        private @Nullable Tree timed(SourceFile before, ExecutionContext ctx, Supplier<Tree> visit) {
+            long start = System.nanoTime();
+            Long enclosingDeadline = ctx.getMessage(RecipeDeadline.DEADLINE);
+            ctx.putMessage(RecipeDeadline.DEADLINE, start + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis));
+            try {
+                Tree after = visit.get();
+                return isOverBudget(start) ? abandon(before, start, ctx) : after;
+            } catch (RuntimeException e) {
+                if (RecipeDeadline.isExceeded(e)) {
+                    return abandon(before, start, ctx);
+                }
+                throw e;
+            } finally {
+                if (enclosingDeadline == null) {
+                    ctx.pollMessage(RecipeDeadline.DEADLINE);
+                } else {
+                    ctx.putMessage(RecipeDeadline.DEADLINE, enclosingDeadline);
+                }
+            }
+        }
+
+        private boolean isOverBudget(long start) {
+            return System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        }
+
+        private SourceFile abandon(SourceFile before, long start, ExecutionContext ctx) {
+            slowSourceFiles.insertRow(ctx, new SlowSourceFiles.Row(
+                    before.getSourcePath().toString(),
+                    recipeName,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            ctx.computeMessageIfAbsent(ABANDONED, k -> ConcurrentHashMap.<UUID>newKeySet()).add(before.getId());
+            return before;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.timeout;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.lang.Nullable;
+
+/**
+ * The point in time by which the recipe currently visiting a source file must be done with it, when that recipe
+ * runs under {@link LimitRecipeDuration}. Recipes that can spend a long time on a single large source file call
+ * {@link #check(ExecutionContext)} from the visit methods they repeat per declaration or invocation, so that they
+ * are abandoned as soon as the budget is spent rather than only once they finish.
+ */
+public final class RecipeDeadline {
+    static final String DEADLINE = "org.openrewrite.java.testing.timeout.deadline";
+
+    private RecipeDeadline() {
+    }
+
+    /**
+     * @throws Exceeded when a deadline is set for the current source file and it has passed.
+     */
+    public static void check(ExecutionContext ctx) {
+        Long deadline = ctx.getMessage(DEADLINE);
+        if (deadline != null && System.nanoTime() - deadline > 0) {
+            throw new Exceeded();
+        }
+    }
+
+    static boolean isExceeded(@Nullable Throwable t) {
+        for (; t != null; t = t.getCause()) {
+            if (t instanceof Exceeded) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Exceeded extends RuntimeException {
+        Exceeded() {
+            super("Time budget for the source file exceeded", null, false, false);
+        }
+    }
+}
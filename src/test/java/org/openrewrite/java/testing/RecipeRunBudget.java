@@ -0,0 +1,257 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openrewrite.*;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.testing.internal.RecipeDecorators;
+import org.openrewrite.test.RecipeSpec;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails a test when a recipe run performs more work than budgeted, so that a change which silently
+ * multiplies the number of tree passes or template applications is caught in CI. Budgets only catch
+ * that when they sit close to what a run takes, so set them at most half again above the counts the
+ * failure message reports.
+ * <pre>{@code
+ * rewriteRun(
+ *   spec -> RecipeRunBudget.budget()
+ *     .maxVisitorPasses(120)
+ *     .maxTemplateApplications(4)
+ *     .applyTo(spec, recipe),
+ *   java(before, after)
+ * );
+ * }</pre>
+ * Visitor passes are counted by decorating every recipe in the recipe tree: each invocation of a
+ * recipe's visitor on a source file it accepts is one pass, summed over all cycles. Template
+ * applications are read from the {@code rewrite.template.*} timers that {@code JavaTemplate} records
+ * in the global Micrometer registry. The budget's registry is only attached while one of its recipes
+ * visits or generates source files, and only records made on that thread are counted, so other tests
+ * running in parallel do not affect the count and a failing run leaves nothing registered behind.
+ * Passes of visitors scheduled with {@code doAfterVisit} happen inside the scheduling visitor's own
+ * pass and are not observable from outside of it, so they are not counted at all; a change that
+ * schedules more of them only shows in the template applications they make.
+ */
+public class RecipeRunBudget {
+    private static final Class<?> NOOP_VISITOR = TreeVisitor.noop().getClass();
+
+    private int maxVisitorPasses = Integer.MAX_VALUE;
+    private int maxTemplateApplications = Integer.MAX_VALUE;
+
+    private final Map<String, Integer> visitorPasses = new TreeMap<>();
+    private final AtomicLong templateApplications = new AtomicLong();
+
+    /**
+     * Whether the current thread is running one of the budgeted recipes.
+     */
+    private final ThreadLocal<Boolean> inRun = ThreadLocal.withInitial(() -> false);
+    private final AtomicInteger activeRuns = new AtomicInteger();
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry() {
+        @Override
+        protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig, PauseDetector pauseDetector) {
+            Timer timer = super.newTimer(id, distributionStatisticConfig, pauseDetector);
+            return id.getName().startsWith("rewrite.template") ? new RunScopedTimer(timer) : timer;
+        }
+    };
+
+    public static RecipeRunBudget budget() {
+        return new RecipeRunBudget();
+    }
+
+    public RecipeRunBudget maxVisitorPasses(int maxVisitorPasses) {
+        this.maxVisitorPasses = maxVisitorPasses;
+        return this;
+    }
+
+    public RecipeRunBudget maxTemplateApplications(int maxTemplateApplications) {
+        this.maxTemplateApplications = maxTemplateApplications;
+        return this;
+    }
+
+    /**
+     * Run {@code recipe} in this spec and assert the budget once the run completes.
+     */
+    public void applyTo(RecipeSpec spec, Recipe recipe) {
+        spec.recipe(new CompositeRecipe(singletonList(track(recipe))))
+          .afterRecipe(run -> {
+              assertThat(getVisitorPasses())
+                .as("visitor passes exceed budget, by recipe: %s", visitorPasses)
+                .isLessThanOrEqualTo(maxVisitorPasses);
+              assertThat(getTemplateApplications())
+                .as("template applications exceed budget of %d", maxTemplateApplications)
+                .isLessThanOrEqualTo(maxTemplateApplications);
+          });
+    }
+
+    public int getVisitorPasses() {
+        synchronized (visitorPasses) {
+            return visitorPasses.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    public long getTemplateApplications() {
+        return templateApplications.get();
+    }
+
+    /**
+     * Run part of a budgeted recipe with the template timers attached, detaching them again
+     * however the recipe completes.
+     */
+    private <T> T inRun(Supplier<T> work) {
+        boolean nested = inRun.get();
+        if (!nested && activeRuns.getAndIncrement() == 0) {
+            Metrics.globalRegistry.add(meters);
+        }
+        inRun.set(true);
+        try {
+            return work.get();
+        } finally {
+            inRun.set(nested);
+            if (!nested && activeRuns.decrementAndGet() == 0) {
+                Metrics.globalRegistry.remove(meters);
+            }
+        }
+    }
+
+    private Recipe track(Recipe recipe) {
+        return RecipeDecorators.decorate(recipe, new RecipeDecorators.Decoration() {
+            @Override
+            public TreeVisitor<?, ExecutionContext> visitor(Recipe decorated, TreeVisitor<?, ExecutionContext> visitor) {
+                return NOOP_VISITOR.isInstance(visitor) ? visitor : new CountingVisitor(decorated.getName(), visitor);
+            }
+
+            @Override
+            public Collection<? extends SourceFile> generate(Recipe decorated, Supplier<Collection<? extends SourceFile>> generate) {
+                return inRun(generate);
+            }
+        });
+    }
+
+    private class CountingVisitor extends RecipeDecorators.AroundVisitor {
+        private final String recipeName;
+
+        CountingVisitor(String recipeName, TreeVisitor<?, ExecutionContext> delegate) {
+            super(delegate);
+            this.recipeName = recipeName;
+        }
+
+        @Override
+        protected @Nullable Tree around(@Nullable Tree tree, ExecutionContext ctx, Supplier<Tree> visit) {
+            countPass(tree, ctx);
+            return inRun(visit);
+        }
+
+        private void countPass(@Nullable Tree tree, ExecutionContext ctx) {
+            if (tree instanceof SourceFile && delegate.isAcceptable((SourceFile) tree, ctx)) {
+                synchronized (visitorPasses) {
+                    visitorPasses.merge(recipeName, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts template applications recorded by the thread of a budgeted run, whatever else
+     * records to the same timer concurrently.
+     */
+    private class RunScopedTimer implements Timer {
+        private final Timer delegate;
+
+        RunScopedTimer(Timer delegate) {
+            this.delegate = delegate;
+        }
+
+        private void countApplication() {
+            if (inRun.get()) {
+                templateApplications.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void record(long amount, TimeUnit unit) {
+            countApplication();
+            delegate.record(amount, unit);
+        }
+
+        @Override
+        public <T> T record(Supplier<T> f) {
+            countApplication();
+            return delegate.record(f);
+        }
+
+        @Override
+        public <T> T recordCallable(Callable<T> f) throws Exception {
+            countApplication();
+            return delegate.recordCallable(f);
+        }
+
+        @Override
+        public void record(Runnable f) {
+            countApplication();
+            delegate.record(f);
+        }
+
+        @Override
+        public long count() {
+            return delegate.count();
+        }
+
+        @Override
+        public double totalTime(TimeUnit unit) {
+            return delegate.totalTime(unit);
+        }
+
+        @Override
+        public double max(TimeUnit unit) {
+            return delegate.max(unit);
+        }
+
+        @Override
+        public TimeUnit baseTimeUnit() {
+            return delegate.baseTimeUnit();
+        }
+
+        @Override
+        public HistogramSnapshot takeSnapshot() {
+            return delegate.takeSnapshot();
+        }
+
+        @Override
+        public Id getId() {
+            return delegate.getId();
+        }
+    }
+}
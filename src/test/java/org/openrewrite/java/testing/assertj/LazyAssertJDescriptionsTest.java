@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.assertj;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class LazyAssertJDescriptionsTest implements RewriteTest {
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .recipe(new LazyAssertJDescriptions())
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "assertj-core-3.24"));
+    }
+
+    @DocumentExample
+    @Test
+    void formatArgumentsAreFormattedOnFailure() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void total(String order, int total) {
+                      assertThat(total).as(String.format("total of %s", order)).isEqualTo(3);
+                  }
+              }
+              """,
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void total(String order, int total) {
+                      assertThat(total).as("total of %s", order).isEqualTo(3);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void formatWithoutArgumentsKeepsItsEscapes() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void discount(int discount) {
+                      assertThat(discount).as(String.format("at most 100%%")).isLessThan(100);
+                  }
+              }
+              """,
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void discount(int discount) {
+                      assertThat(discount).as(() -> String.format("at most 100%%")).isLessThan(100);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void concatenationBecomesSupplier() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void total(String order, int total) {
+                      assertThat(total).describedAs("total of " + order).isEqualTo(3);
+                  }
+              }
+              """,
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void total(String order, int total) {
+                      assertThat(total).describedAs(() -> "total of " + order).isEqualTo(3);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void constantDescriptionIsUnchanged() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class OrderTest {
+                  void total(String order, int total) {
+                      assertThat(total).as("total").isEqualTo(3);
+                      assertThat(total).as("total of %s", order).isEqualTo(3);
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.benchmarks;
+
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates a deterministic corpus of JUnit 4 test classes containing the shapes targeted by
+ * {@code JUnit4to5Migration}, {@code ReplacePowerMockito}, {@code JMockitToMockito} and {@code MigrateHamcrestToAssertJ}.
+ * <p>
+ * Every source is derived only from the seed and its index, so corpora of any size can be streamed to disk
+ * (or into a parser) without holding previously generated sources in memory, and the same seed always
+ * reproduces the same corpus.
+ */
+public class TestCorpusGenerator {
+
+    public enum Shape {
+        TEMPORARY_FOLDER,
+        EXPECTED_EXCEPTION,
+        PARAMETERIZED,
+        PREPARE_FOR_TEST,
+        JMOCKIT_EXPECTATIONS,
+        HAMCREST
+    }
+
+    /**
+     * The parser classpath entries (see {@link JavaParser.Builder#classpathFromResources(ExecutionContext, String...)})
+     * required to compile every generated shape.
+     */
+    public static final String[] CLASSPATH = {
+            "junit-4.13",
+            "hamcrest-2.2",
+            "mockito-core-3.12",
+            "powermock-api-mockito-1.6",
+            "powermock-core-1.6",
+            "jmockit-1.49"
+    };
+
+    private static final int FILES_PER_PACKAGE = 1000;
+
+    private final long seed;
+    private final String basePackage;
+    private final int maxTestMethods;
+    private final Map<Shape, Integer> weights;
+    private final int totalWeight;
+
+    private TestCorpusGenerator(long seed, String basePackage, int maxTestMethods, Map<Shape, Integer> weights) {
+        this.seed = seed;
+        this.basePackage = basePackage;
+        this.maxTestMethods = maxTestMethods;
+        this.weights = weights;
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one shape must have a positive weight");
+        }
+    }
+
+    /**
+     * @param seed The seed from which every generated source is derived.
+     * @return A generator producing every shape with equal weight.
+     */
+    public static TestCorpusGenerator withSeed(long seed) {
+        Map<Shape, Integer> weights = new EnumMap<>(Shape.class);
+        for (Shape shape : Shape.values()) {
+            weights.put(shape, 1);
+        }
+        return new TestCorpusGenerator(seed, "org.openrewrite.benchmarks.corpus", 5, weights);
+    }
+
+    /**
+     * @param shape  The shape to adjust.
+     * @param weight The relative frequency of the shape in the corpus. Zero excludes the shape entirely.
+     * @return A copy of this generator with the adjusted weight.
+     */
+    public TestCorpusGenerator weight(Shape shape, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative");
+        }
+        Map<Shape, Integer> newWeights = new EnumMap<>(weights);
+        newWeights.put(shape, weight);
+        return new TestCorpusGenerator(seed, basePackage, maxTestMethods, newWeights);
+    }
+
+    /**
+     * @param shape The only shape to generate.
+     * @return A copy of this generator that produces only the given shape.
+     */
+    public TestCorpusGenerator only(Shape shape) {
+        Map<Shape, Integer> newWeights = new EnumMap<>(Shape.class);
+        for (Shape s : Shape.values()) {
+            newWeights.put(s, s == shape ? 1 : 0);
+        }
+        return new TestCorpusGenerator(seed, basePackage, maxTestMethods, newWeights);
+    }
+
+    public TestCorpusGenerator maxTestMethods(int maxTestMethods) {
+        if (maxTestMethods < 1) {
+            throw new IllegalArgumentException("At least one test method is required");
+        }
+        return new TestCorpusGenerator(seed, basePackage, maxTestMethods, weights);
+    }
+
+    public TestCorpusGenerator basePackage(String basePackage) {
+        return new TestCorpusGenerator(seed, basePackage, maxTestMethods, weights);
+    }
+
+    /**
+     * @return The classes referenced by the generated tests, which must be part of any corpus.
+     */
+    public GeneratedSource supportSource() {
+        String source = "package " + basePackage + ";\n" +
+                        "\n" +
+                        "public class Collaborator {\n" +
+                        "    public String name() {\n" +
+                        "        return \"collaborator\";\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    public int add(int left, int right) {\n" +
+                        "        return left + right;\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    public void validate(int value) {\n" +
+                        "        if (value < 0) {\n" +
+                        "            throw new IllegalArgumentException(\"invalid \" + value);\n" +
+                        "        }\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    public static String staticValue() {\n" +
+                        "        return \"static\";\n" +
+                        "    }\n" +
+                        "}\n";
+        return new GeneratedSource(packagePath(basePackage).resolve("Collaborator.java"), null, source);
+    }
+
+    /**
+     * Lazily generates test classes; nothing is retained once a source has been consumed.
+     *
+     * @param count The number of test classes to generate.
+     * @return The generated test classes, excluding the {@link #supportSource() support source}.
+     */
+    public Stream<GeneratedSource> generate(int count) {
+        return IntStream.range(0, count).mapToObj(this::source);
+    }
+
+    /**
+     * @param index The position of the test class in the corpus.
+     * @return The same source for the same seed, weights and index, regardless of what else has been generated.
+     */
+    public GeneratedSource source(int index) {
+        Random random = new Random(mix(seed, index));
+        Shape shape = pickShape(random);
+        String packageName = basePackage + ".p" + (index / FILES_PER_PACKAGE);
+        String className = "Generated" + camelCase(shape) + "Test" + index;
+        int testMethods = 1 + random.nextInt(maxTestMethods);
+
+        SourceWriter w = new SourceWriter(packageName, basePackage + ".Collaborator");
+        switch (shape) {
+            case TEMPORARY_FOLDER:
+                temporaryFolder(w, className, testMethods, random);
+                break;
+            case EXPECTED_EXCEPTION:
+                expectedException(w, className, testMethods, random);
+                break;
+            case PARAMETERIZED:
+                parameterized(w, className, testMethods, random);
+                break;
+            case PREPARE_FOR_TEST:
+                prepareForTest(w, className, testMethods, random);
+                break;
+            case JMOCKIT_EXPECTATIONS:
+                jmockitExpectations(w, className, testMethods, random);
+                break;
+            case HAMCREST:
+            default:
+                hamcrest(w, className, testMethods, random);
+                break;
+        }
+        return new GeneratedSource(packagePath(packageName).resolve(className + ".java"), shape, w.toString());
+    }
+
+    /**
+     * Write the support source and {@code count} test classes beneath {@code sourceRoot}, one file at a time.
+     */
+    public void writeTo(Path sourceRoot, int count) {
+        write(sourceRoot, supportSource());
+        generate(count).forEach(source -> write(sourceRoot, source));
+    }
+
+    /**
+     * Usage: {@code TestCorpusGenerator <sourceRoot> <count> [seed]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: TestCorpusGenerator <sourceRoot> <count> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        withSeed(seed).writeTo(Paths.get(args[0]), Integer.parseInt(args[1]));
+    }
+
+    private static void write(Path sourceRoot, GeneratedSource source) {
+        try {
+            Path path = sourceRoot.resolve(source.getPath());
+            Files.createDirectories(path.getParent());
+            Files.write(path, source.getSource().getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Shape pickShape(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<Shape, Integer> weight : weights.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private static void temporaryFolder(SourceWriter w, String className, int testMethods, Random random) {
+        w.imports("java.io.File", "java.io.IOException", "org.junit.Rule", "org.junit.Test", "org.junit.rules.TemporaryFolder");
+        w.staticImports("org.junit.Assert.assertTrue");
+        w.line("public class " + className + " {");
+        w.line("    @Rule");
+        w.line("    public TemporaryFolder tempFolder = new TemporaryFolder();");
+        for (int i = 0; i < testMethods; i++) {
+            w.line("");
+            w.line("    @Test");
+            w.line("    public void test" + i + "() throws IOException {");
+            if (random.nextBoolean()) {
+                w.line("        File folder = tempFolder.newFolder(\"folder" + i + "\");");
+                w.line("        assertTrue(folder.isDirectory());");
+            }
+            w.line("        File file = tempFolder.newFile(\"file" + i + ".txt\");");
+            w.line("        assertTrue(file.exists());");
+            w.line("    }");
+        }
+        w.line("}");
+    }
+
+    private static void expectedException(SourceWriter w, String className, int testMethods, Random random) {
+        w.imports("org.junit.Rule", "org.junit.Test", "org.junit.rules.ExpectedException", w.collaborator);
+        w.line("public class " + className + " {");
+        w.line("    @Rule");
+        w.line("    public ExpectedException thrown = ExpectedException.none();");
+        for (int i = 0; i < testMethods; i++) {
+            int value = -1 - random.nextInt(100);
+            w.line("");
+            w.line("    @Test");
+            w.line("    public void test" + i + "() {");
+            w.line("        thrown.expect(IllegalArgumentException.class);");
+            if (random.nextBoolean()) {
+                w.line("        thrown.expectMessage(\"invalid " + value + "\");");
+            }
+            w.line("        new Collaborator().validate(" + value + ");");
+            w.line("    }");
+        }
+        w.line("}");
+    }
+
+    private static void parameterized(SourceWriter w, String className, int testMethods, Random random) {
+        w.imports("java.util.Arrays", "java.util.Collection", "org.junit.Test", "org.junit.runner.RunWith",
+                "org.junit.runners.Parameterized", "org.junit.runners.Parameterized.Parameters", w.collaborator);
+        w.staticImports("org.junit.Assert.assertEquals");
+        w.line("@RunWith(Parameterized.class)");
+        w.line("public class " + className + " {");
+        w.line("    @Parameters(name = \"{index}: {0} + {1} = {2}\")");
+        w.line("    public static Collection<Object[]> data() {");
+        w.line("        return Arrays.asList(new Object[][]{");
+        int rows = 2 + random.nextInt(8);
+        for (int row = 0; row < rows; row++) {
+            int left = random.nextInt(1000);
+            int right = random.nextInt(1000);
+            w.line("                {" + left + ", " + right + ", " + (left + right) + "}" + (row < rows - 1 ? "," : ""));
+        }
+        w.line("        });");
+        w.line("    }");
+        w.line("");
+        w.line("    private final int left;");
+        w.line("    private final int right;");
+        w.line("    private final int expected;");
+        w.line("");
+        w.line("    public " + className + "(int left, int right, int expected) {");
+        w.line("        this.left = left;");
+        w.line("        this.right = right;");
+        w.line("        this.expected = expected;");
+        w.line("    }");
+        for (int i = 0; i < testMethods; i++) {
+            w.line("");
+            w.line("    @Test");
+            w.line("    public void test" + i + "() {");
+            w.line("        assertEquals(expected, new Collaborator().add(left, right));");
+            w.line("    }");
+        }
+        w.line("}");
+    }
+
+    private static void prepareForTest(SourceWriter w, String className, int testMethods, Random random) {
+        w.imports("org.junit.Test", "org.powermock.api.mockito.PowerMockito",
+                "org.powermock.core.classloader.annotations.PrepareForTest", w.collaborator);
+        w.staticImports("org.junit.Assert.assertEquals");
+        w.line("@PrepareForTest({Collaborator.class})");
+        w.line("public class " + className + " {");
+        for (int i = 0; i < testMethods; i++) {
+            String value = "value" + random.nextInt(1000);
+            w.line("");
+            w.line("    @Test");
+            w.line("    public void test" + i + "() {");
+            w.line("        PowerMockito.mockStatic(Collaborator.class);");
+            w.line("        PowerMockito.when(Collaborator.staticValue()).thenReturn(\"" + value + "\");");
+            w.line("        assertEquals(\"" + value + "\", Collaborator.staticValue());");
+            w.line("    }");
+        }
+        w.line("}");
+    }
+
+    private static void jmockitExpectations(SourceWriter w, String className, int testMethods, Random random) {
+        w.imports("mockit.Expectations", "mockit.Mocked", "org.junit.Test", w.collaborator);
+        w.staticImports("org.junit.Assert.assertEquals");
+        w.line("public class " + className + " {");
+        w.line("    @Mocked");
+        w.line("    Collaborator collaborator;");
+        for (int i = 0; i < testMethods; i++) {
+            String name = "name" + random.nextInt(1000);
+            int sum = random.nextInt(1000);
+            w.line("");
+            w.line("    @Test");
+            w.line("    public void test" + i + "() {");
+            w.line("        new Expectations() {{");
+            w.line("            collaborator.name();");
+            w.line("            result = \"" + name + "\";");
+            // vary the size of the expectations block, which dominates the cost of rewriting it
+            int additional = random.nextInt(4);
+            for (int e = 0; e < additional; e++) {
+                w.line("            collaborator.add(anyInt, anyInt);");
+                w.line("            result = " + sum + ";");
+            }
+            w.line("        }};");
+            w.line("        assertEquals(\"" + name + "\", collaborator.name());");
+            if (additional > 0) {
+                w.line("        assertEquals(" + sum + ", collaborator.add(1, 2));");
+            }
+            w.line("    }");
+        }
+        w.line("}");
+    }
+
+    private static void hamcrest(SourceWriter w, String className, int testMethods, Random random) {
+        w.imports("java.util.Arrays", "java.util.List", "org.junit.Test");
+        w.staticImports("org.hamcrest.MatcherAssert.assertThat", "org.hamcrest.Matchers.*");
+        w.line("public class " + className + " {");
+        for (int i = 0; i < testMethods; i++) {
+            int n = random.nextInt(1000);
+            w.line("");
+            w.line("    @Test");
+            w.line("    public void test" + i + "() {");
+            w.line("        String name = \"name" + n + "\";");
+            w.line("        List<Integer> numbers = Arrays.asList(" + n + ", " + (n + 1) + ", " + (n + 2) + ");");
+            int assertions = 1 + random.nextInt(6);
+            for (int a = 0; a < assertions; a++) {
+                switch (random.nextInt(8)) {
+                    case 0:
+                        w.line("        assertThat(name, is(equalTo(\"name" + n + "\")));");
+                        break;
+                    case 1:
+                        w.line("        assertThat(name, startsWith(\"name\"));");
+                        break;
+                    case 2:
+                        w.line("        assertThat(name.length(), greaterThan(3));");
+                        break;
+                    case 3:
+                        w.line("        assertThat(numbers, hasSize(3));");
+                        break;
+                    case 4:
+                        w.line("        assertThat(\"reason " + a + "\", name, not(nullValue()));");
+                        break;
+                    case 5:
+                        w.line("        assertThat(numbers.get(0), lessThanOrEqualTo(" + n + "));");
+                        break;
+                    case 6:
+                        w.line("        assertThat(name, anyOf(containsString(\"" + n + "\"), endsWith(\"x\")));");
+                        break;
+                    default:
+                        w.line("        assertThat(name.isEmpty(), is(false));");
+                        break;
+                }
+            }
+            w.line("    }");
+        }
+        w.line("}");
+    }
+
+    private static String camelCase(Shape shape) {
+        StringBuilder name = new StringBuilder();
+        for (String part : shape.name().split("_")) {
+            name.append(part.charAt(0)).append(part.substring(1).toLowerCase());
+        }
+        return name.toString();
+    }
+
+    private static Path packagePath(String packageName) {
+        return Paths.get(packageName.replace('.', '/'));
+    }
+
+    /**
+     * SplitMix64 finalizer, so that adjacent indices yield unrelated random sequences.
+     */
+    private static long mix(long seed, int index) {
+        long z = seed + 0x9E3779B97F4A7C15L * (index + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Value
+    public static class GeneratedSource {
+        /**
+         * Relative to the source root.
+         */
+        Path path;
+
+        /**
+         * Null for the support source.
+         */
+        @Nullable
+        Shape shape;
+
+        String source;
+    }
+
+    private static class SourceWriter {
+        private final StringBuilder header = new StringBuilder();
+        private final StringBuilder body = new StringBuilder();
+        private final String collaborator;
+
+        SourceWriter(String packageName, String collaborator) {
+            this.collaborator = collaborator;
+            header.append("package ").append(packageName).append(";\n\n");
+        }
+
+        void imports(String... imports) {
+            for (String anImport : imports) {
+                header.append("import ").append(anImport).append(";\n");
+            }
+            header.append("\n");
+        }
+
+        void staticImports(String... imports) {
+            for (String anImport : imports) {
+                header.append("import static ").append(anImport).append(";\n");
+            }
+            header.append("\n");
+        }
+
+        void line(String line) {
+            body.append(line).append("\n");
+        }
+
+        @Override
+        public String toString() {
+            return header.toString() + body;
+        }
+    }
+}
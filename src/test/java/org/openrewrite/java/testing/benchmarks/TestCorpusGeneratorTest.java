@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.search.FindMissingTypes;
+import org.openrewrite.java.testing.benchmarks.TestCorpusGenerator.GeneratedSource;
+import org.openrewrite.java.testing.benchmarks.TestCorpusGenerator.Shape;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestCorpusGeneratorTest {
+
+    @Test
+    void sameSeedProducesSameCorpus() {
+        assertThat(TestCorpusGenerator.withSeed(7).generate(50))
+          .containsExactlyElementsOf(TestCorpusGenerator.withSeed(7).generate(50).collect(toList()));
+    }
+
+    @Test
+    void differentSeedsProduceDifferentCorpora() {
+        assertThat(TestCorpusGenerator.withSeed(7).generate(50).collect(toList()))
+          .isNotEqualTo(TestCorpusGenerator.withSeed(8).generate(50).collect(toList()));
+    }
+
+    @Test
+    void sourceDoesNotDependOnWhatWasGeneratedBefore() {
+        TestCorpusGenerator generator = TestCorpusGenerator.withSeed(7);
+        assertThat(generator.source(4_321))
+          .isEqualTo(generator.generate(4_322).skip(4_321).findFirst().orElseThrow(IllegalStateException::new));
+    }
+
+    @Test
+    void weightsControlTheShapeMix() {
+        assertThat(TestCorpusGenerator.withSeed(7).only(Shape.HAMCREST).generate(100))
+          .allSatisfy(source -> assertThat(source.getShape()).isEqualTo(Shape.HAMCREST));
+        assertThat(TestCorpusGenerator.withSeed(7).weight(Shape.JMOCKIT_EXPECTATIONS, 0).generate(500))
+          .noneSatisfy(source -> assertThat(source.getShape()).isEqualTo(Shape.JMOCKIT_EXPECTATIONS));
+    }
+
+    @Test
+    void generatedSourcesCompile() {
+        TestCorpusGenerator generator = TestCorpusGenerator.withSeed(42);
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        String[] sources = Stream.concat(Stream.of(generator.supportSource()), generator.generate(120))
+          .map(GeneratedSource::getSource)
+          .toArray(String[]::new);
+
+        List<SourceFile> parsed = JavaParser.fromJavaVersion()
+          .classpathFromResources(ctx, TestCorpusGenerator.CLASSPATH)
+          .build()
+          .parse(ctx, sources)
+          .collect(toList());
+
+        assertThat(parsed).hasSize(sources.length).allSatisfy(sourceFile -> {
+            assertThat(sourceFile).isInstanceOf(J.CompilationUnit.class);
+            assertThat(FindMissingTypes.findMissingTypes((J) sourceFile)).isEmpty();
+        });
+    }
+}
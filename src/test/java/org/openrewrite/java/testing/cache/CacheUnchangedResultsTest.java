@@ -0,0 +1,232 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+class CacheUnchangedResultsTest implements RewriteTest {
+    private static final String UPDATE_TEST_ANNOTATION = "org.openrewrite.java.testing.junit5.UpdateTestAnnotation";
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-4.13", "junit-jupiter-api-5.9"))
+          .recipe(new CacheUnchangedResults(UPDATE_TEST_ANNOTATION, cacheDirectory.toString()));
+    }
+
+    @Test
+    void recordsOnlyUnchangedSourceFiles() {
+        rewriteRun(
+          spec -> spec
+            .cycles(1)
+            .expectedCyclesThatMakeChanges(1)
+            .afterRecipe(run -> assertThat(entries()).hasSize(1)),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class AlreadyMigratedTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+
+              public class MigratedTest {
+                  @Test
+                  public void test() {
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              public class MigratedTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void skipsSourceFilesWithAnEntry() {
+        CacheUnchangedResults recipe = new CacheUnchangedResults(UPDATE_TEST_ANNOTATION, cacheDirectory.toString());
+        rewriteRun(
+          spec -> spec
+            .recipe(recipe)
+            .beforeRecipe(sourceFiles -> {
+                for (SourceFile sourceFile : sourceFiles) {
+                    Path entry = recipe.entry(recipe.cacheKey(sourceFile));
+                    Files.createDirectories(entry.getParent());
+                    Files.write(entry, new byte[0]);
+                }
+            }),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+
+              public class NotYetMigratedTest {
+                  @Test
+                  public void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void doesNotCacheRecipesWithDataTables() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new CacheUnchangedResults("org.openrewrite.java.testing.junit5.FindJUnit4MigrationPatterns", cacheDirectory.toString()))
+            .afterRecipe(run -> assertThat(entries()).isEmpty()),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+
+              public class NotYetMigratedTest {
+                  @Test
+                  public void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void doesNotCacheRecipesThatChangeFilesBasedOnOthers() {
+        String enableParallelExecution = "org.openrewrite.java.testing.junit5.EnableParallelExecution";
+        rewriteRun(
+          spec -> spec
+            .recipe(new CacheUnchangedResults(enableParallelExecution, cacheDirectory.toString()))
+            .afterRecipe(run -> assertThat(entries()).isEmpty()),
+          properties(
+            """
+              junit.jupiter.execution.parallel.mode.default=same_thread
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          ),
+          //language=java
+          java(
+            """
+              class NotATest {
+              }
+              """
+          )
+        );
+        rewriteRun(
+          spec -> spec.recipe(new CacheUnchangedResults(enableParallelExecution, cacheDirectory.toString())),
+          properties(
+            """
+              junit.jupiter.execution.parallel.mode.default=same_thread
+              """,
+            """
+              junit.jupiter.execution.parallel.mode.default=same_thread
+              junit.jupiter.execution.parallel.enabled=true
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          ),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class ParallelTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              @Execution(ExecutionMode.CONCURRENT)
+              class ParallelTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keyChangesWithContent() {
+        CacheUnchangedResults recipe = new CacheUnchangedResults(UPDATE_TEST_ANNOTATION, cacheDirectory.toString());
+        assertThat(recipe.cacheKey(parse("class A {}")))
+          .isEqualTo(recipe.cacheKey(parse("class A {}")))
+          .isNotEqualTo(recipe.cacheKey(parse("class A { }")));
+    }
+
+    @Test
+    void keyChangesWithRecipeConfiguration() {
+        SourceFile sourceFile = parse("class A {}");
+        assertThat(new CacheUnchangedResults(UPDATE_TEST_ANNOTATION, cacheDirectory.toString()).cacheKey(sourceFile))
+          .isEqualTo(new CacheUnchangedResults(UPDATE_TEST_ANNOTATION, "elsewhere").cacheKey(sourceFile))
+          .isNotEqualTo(new CacheUnchangedResults("org.openrewrite.java.testing.junit5.CategoryToTag", cacheDirectory.toString())
+            .cacheKey(sourceFile));
+    }
+
+    private static SourceFile parse(String source) {
+        return JavaParser.fromJavaVersion().build()
+          .parse(new InMemoryExecutionContext(), source)
+          .findFirst()
+          .orElseThrow(IllegalStateException::new);
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class AssertionMessageSupplierTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9"))
+          .recipe(new AssertionMessageSupplier());
+    }
+
+    @DocumentExample
+    @Test
+    void concatenatedMessage() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  void total(String order, int expected, int actual) {
+                      assertEquals(expected, actual, "mismatch for " + order);
+                  }
+              }
+              """,
+            """
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  void total(String order, int expected, int actual) {
+                      assertEquals(expected, actual, () -> "mismatch for " + order);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void formattedMessage() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Assertions;
+
+              class OrderTest {
+                  void shipped(Object order, boolean shipped) {
+                      Assertions.assertTrue(shipped, String.format("%s not shipped", order));
+                      Assertions.assertNotNull(order, order.toString());
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Assertions;
+
+              class OrderTest {
+                  void shipped(Object order, boolean shipped) {
+                      Assertions.assertTrue(shipped, () -> String.format("%s not shipped", order));
+                      Assertions.assertNotNull(order, () -> order.toString());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void constantMessagesAreUnchanged() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  void total(String message, int expected, int actual) {
+                      assertEquals(expected, actual, "totals differ");
+                      assertEquals(expected, actual, "totals " + "differ");
+                      assertEquals(expected, actual, message);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void loopVariableCannotBeCaptured() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  void totals(int[] expected, int[] actual) {
+                      for (int i = 0; i < expected.length; i++) {
+                          assertEquals(expected[i], actual[i], "mismatch at " + i);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+}
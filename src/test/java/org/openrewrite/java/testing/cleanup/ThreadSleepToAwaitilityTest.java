@@ -0,0 +1,323 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class ThreadSleepToAwaitilityTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9"))
+          .recipe(new ThreadSleepToAwaitility());
+    }
+
+    @DocumentExample
+    @Test
+    void sleepThenAssert() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.atomic.AtomicInteger;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  AtomicInteger processed = new AtomicInteger();
+
+                  @Test
+                  void processesOrder() throws InterruptedException {
+                      Thread.sleep(5000);
+                      assertEquals(1, processed.get());
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+              import java.util.concurrent.atomic.AtomicInteger;
+
+              import static org.awaitility.Awaitility.await;
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  AtomicInteger processed = new AtomicInteger();
+
+                  @Test
+                  void processesOrder() throws InterruptedException {
+                      await().atMost(Duration.ofMillis(5000)).untilAsserted(() -> assertEquals(1, processed.get()));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void sleepThenSeveralAssertions() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.atomic.AtomicInteger;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.junit.jupiter.api.Assertions.assertTrue;
+
+              class OrderTest {
+                  AtomicInteger processed = new AtomicInteger();
+
+                  @Test
+                  void processesOrder() throws InterruptedException {
+                      Thread.sleep(1000);
+                      assertEquals(1, processed.get());
+                      assertTrue(processed.get() > 0);
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+              import java.util.concurrent.atomic.AtomicInteger;
+
+              import static org.awaitility.Awaitility.await;
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.junit.jupiter.api.Assertions.assertTrue;
+
+              class OrderTest {
+                  AtomicInteger processed = new AtomicInteger();
+
+                  @Test
+                  void processesOrder() throws InterruptedException {
+                      await().atMost(Duration.ofMillis(1000)).untilAsserted(() -> {
+                          assertEquals(1, processed.get());
+                          assertTrue(processed.get() > 0);
+                      });
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void sleepPollingLoop() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.atomic.AtomicBoolean;
+
+              class OrderTest {
+                  AtomicBoolean shipped = new AtomicBoolean();
+
+                  @Test
+                  void shipsOrder() throws InterruptedException {
+                      while (!shipped.get()) {
+                          Thread.sleep(100);
+                      }
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+              import java.util.concurrent.atomic.AtomicBoolean;
+
+              import static org.awaitility.Awaitility.await;
+
+              class OrderTest {
+                  AtomicBoolean shipped = new AtomicBoolean();
+
+                  @Test
+                  void shipsOrder() throws InterruptedException {
+                      await().forever().pollInterval(Duration.ofMillis(100)).until(() -> shipped.get());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepsSleepBeforeAssertionOnReassignedLocal() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderTest {
+                  @Test
+                  void processesOrder() throws InterruptedException {
+                      int expected = 0;
+                      expected++;
+                      Thread.sleep(1000);
+                      assertEquals(1, expected);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepsSleepBeforeAbsenceCheck() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.atomic.AtomicBoolean;
+
+              import static org.junit.jupiter.api.Assertions.assertFalse;
+
+              class OrderTest {
+                  private final AtomicBoolean cancelled = new AtomicBoolean();
+
+                  @Test
+                  void doesNotCancelOrder() throws InterruptedException {
+                      Thread.sleep(1000);
+                      assertFalse(cancelled.get());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepsSleepBeforeVerifyingNoInteractions() {
+        //language=java
+        rewriteRun(
+          spec -> spec.parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "mockito-core-3.12")),
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.never;
+              import static org.mockito.Mockito.verify;
+
+              class OrderTest {
+                  private final Runnable notifier = mock(Runnable.class);
+
+                  @Test
+                  void doesNotNotify() throws InterruptedException {
+                      Thread.sleep(1000);
+                      verify(notifier, never()).run();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepsSleepBeforeMethodsNamedLikeAssertions() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class OrderTest {
+                  @Test
+                  void processesOrder() throws InterruptedException {
+                      Thread.sleep(1000);
+                      assertProcessed();
+                  }
+
+                  private void assertProcessed() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepsSleepOutsideOfTests() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderFixture {
+                  void waitForOrder(int processed) throws InterruptedException {
+                      Thread.sleep(1000);
+                      assertEquals(1, processed);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void keepsSleepInMethodsWithOtherAnnotationsNamedTest() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              package com.example;
+
+              public @interface SlowTest {
+              }
+              """
+          ),
+          java(
+            """
+              package com.example;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class OrderFixture {
+                  @SlowTest
+                  void waitForOrder(int processed) throws InterruptedException {
+                      Thread.sleep(1000);
+                      assertEquals(1, processed);
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.hamcrest;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FindHamcrestMigrationPatternsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "hamcrest-2.2"))
+          .recipe(new FindHamcrestMigrationPatterns());
+    }
+
+    @Test
+    void countsWithoutChangingSource() {
+        rewriteRun(
+          spec -> spec.dataTable(MigrationPatterns.Row.class, rows -> assertThat(rows).containsExactlyInAnyOrder(
+            row("MatcherAssert.assertThat", 2),
+            row("Matchers.equalTo", 1),
+            row("Matchers.hasSize", 1)
+          )),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.List;
+
+              import static org.hamcrest.MatcherAssert.assertThat;
+              import static org.hamcrest.Matchers.equalTo;
+              import static org.hamcrest.Matchers.hasSize;
+
+              class MyTest {
+                  @Test
+                  void test(List<String> list) {
+                      assertThat("a", equalTo("a"));
+                      assertThat(list, hasSize(2));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    private static MigrationPatterns.Row row(String pattern, int occurrences) {
+        return new MigrationPatterns.Row("MyTest.java", "org.openrewrite.java.testing.hamcrest.MigrateHamcrestToAssertJ", pattern, occurrences);
+    }
+}
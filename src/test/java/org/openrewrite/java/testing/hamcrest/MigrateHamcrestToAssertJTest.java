@@ -26,6 +26,7 @@ import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Issue;
 import org.openrewrite.config.Environment;
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.RecipeRunBudget;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -108,6 +109,51 @@ public class BiscuitTest {
             """));
     }
 
+    @Test
+    void staysWithinWorkBudget() {
+        //language=java
+        rewriteRun(
+          spec -> RecipeRunBudget.budget()
+            .maxVisitorPasses(200)
+            .maxTemplateApplications(5)
+            .applyTo(spec, Environment.builder()
+              .scanRuntimeClasspath("org.openrewrite.java.testing.hamcrest")
+              .build()
+              .activateRecipes("org.openrewrite.java.testing.hamcrest.MigrateHamcrestToAssertJ")),
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.hamcrest.MatcherAssert.assertThat;
+              import static org.hamcrest.Matchers.*;
+
+              class ATest {
+                  @Test
+                  void test() {
+                      assertThat("a", equalTo("a"));
+                      assertThat("reason", "b", startsWith("b"));
+                      assertThat(1, greaterThan(0));
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.assertj.core.api.Assertions.assertThat;
+
+              class ATest {
+                  @Test
+                  void test() {
+                      assertThat("a").isEqualTo("a");
+                      assertThat("b").as("reason").startsWith("b");
+                      assertThat(1).isGreaterThan(0);
+                  }
+              }
+              """
+          )
+        );
+    }
+
     @Test
     @DocumentExample
     void allOfStringMatchersAndConvert() {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.jmockit;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FindJMockitMigrationPatternsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "jmockit-1.49"))
+          .recipe(new FindJMockitMigrationPatterns());
+    }
+
+    @Test
+    void countsWithoutChangingSource() {
+        rewriteRun(
+          spec -> spec.dataTable(MigrationPatterns.Row.class, rows -> assertThat(rows).containsExactlyInAnyOrder(
+            row("@Mocked", 1),
+            row("new Expectations", 1),
+            row("new Verifications", 1)
+          )),
+          //language=java
+          java(
+            """
+              class MyObject {
+                  public String getSomeField() {
+                      return "X";
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              import mockit.Expectations;
+              import mockit.Mocked;
+              import mockit.Verifications;
+              import mockit.integration.junit5.JMockitExtension;
+              import org.junit.jupiter.api.extension.ExtendWith;
+
+              @ExtendWith(JMockitExtension.class)
+              class MyTest {
+                  @Mocked
+                  MyObject myObject;
+
+                  void test() {
+                      new Expectations() {{
+                          myObject.getSomeField();
+                          result = "Y";
+                      }};
+                      myObject.getSomeField();
+                      new Verifications() {{
+                          myObject.getSomeField();
+                      }};
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    private static MigrationPatterns.Row row(String pattern, int occurrences) {
+        return new MigrationPatterns.Row("MyTest.java", "org.openrewrite.java.testing.jmockit.JMockitToMockito", pattern, occurrences);
+    }
+}
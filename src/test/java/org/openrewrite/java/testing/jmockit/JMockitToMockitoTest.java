@@ -609,4 +609,311 @@ class JMockitToMockitoTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void jMockitExpectationsToMockitoMultipleBlocks() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              class MyObject {
+                  public String getSomeStringField() {
+                      return "X";
+                  }
+                  public int getSomeIntField() {
+                      return 0;
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              import mockit.Expectations;
+              import mockit.Mocked;
+              import mockit.integration.junit5.JMockitExtension;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              
+              @ExtendWith(JMockitExtension.class)
+              class MyTest {
+                  @Mocked
+                  MyObject myObject;
+                  
+                  void test() {
+                      new Expectations() {{
+                          myObject.getSomeIntField();
+                          result = 10;
+                      }};
+                      assertEquals(10, myObject.getSomeIntField());
+                      new Expectations() {{
+                          myObject.getSomeStringField();
+                          result = "foo";
+                          myObject.getSomeIntField();
+                          result = 20;
+                      }};
+                      assertEquals("foo", myObject.getSomeStringField());
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.Mock;
+              import org.mockito.junit.jupiter.MockitoExtension;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.mockito.Mockito.when;
+
+              @ExtendWith(MockitoExtension.class)
+              class MyTest {
+                  @Mock
+                  MyObject myObject;
+
+                  void test() {
+                      when(myObject.getSomeIntField()).thenReturn(10);
+                      assertEquals(10, myObject.getSomeIntField());
+                      when(myObject.getSomeStringField()).thenReturn("foo");
+                      when(myObject.getSomeIntField()).thenReturn(20);
+                      assertEquals("foo", myObject.getSomeStringField());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void jMockitVerificationsToMockito() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              class MyObject {
+                  public String getSomeStringField(String input) {
+                      return "X";
+                  }
+                  public void doSomething() {}
+              }
+              """
+          ),
+          java(
+            """
+              import mockit.Mocked;
+              import mockit.Verifications;
+              import mockit.integration.junit5.JMockitExtension;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              
+              @ExtendWith(JMockitExtension.class)
+              class MyTest {
+                  @Mocked
+                  MyObject myObject;
+                  
+                  void test() {
+                      myObject.doSomething();
+                      myObject.getSomeStringField("bar");
+                      new Verifications() {{
+                          myObject.doSomething();
+                          myObject.getSomeStringField(anyString);
+                          minTimes = 1;
+                      }};
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.Mock;
+              import org.mockito.junit.jupiter.MockitoExtension;
+
+              import static org.mockito.Mockito.*;
+
+              @ExtendWith(MockitoExtension.class)
+              class MyTest {
+                  @Mock
+                  MyObject myObject;
+
+                  void test() {
+                      myObject.doSomething();
+                      myObject.getSomeStringField("bar");
+                      verify(myObject, atLeastOnce()).doSomething();
+                      verify(myObject, atLeast(1)).getSomeStringField(anyString());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void jMockitVerificationsWithoutInvocationCountToAtLeastOnce() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              class MyObject {
+                  public void doSomething() {}
+              }
+              """
+          ),
+          java(
+            """
+              import mockit.Mocked;
+              import mockit.Verifications;
+              import mockit.integration.junit5.JMockitExtension;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              
+              @ExtendWith(JMockitExtension.class)
+              class MyTest {
+                  @Mocked
+                  MyObject myObject;
+                  
+                  void test() {
+                      myObject.doSomething();
+                      myObject.doSomething();
+                      new Verifications() {{
+                          myObject.doSomething();
+                      }};
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.Mock;
+              import org.mockito.junit.jupiter.MockitoExtension;
+
+              import static org.mockito.Mockito.atLeastOnce;
+              import static org.mockito.Mockito.verify;
+
+              @ExtendWith(MockitoExtension.class)
+              class MyTest {
+                  @Mock
+                  MyObject myObject;
+
+                  void test() {
+                      myObject.doSomething();
+                      myObject.doSomething();
+                      verify(myObject, atLeastOnce()).doSomething();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void jMockitExpectationsInvocationCountToVerify() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              class MyObject {
+                  public String getSomeStringField() {
+                      return "X";
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              import mockit.Expectations;
+              import mockit.Mocked;
+              import mockit.integration.junit5.JMockitExtension;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              
+              @ExtendWith(JMockitExtension.class)
+              class MyTest {
+                  @Mocked
+                  MyObject myObject;
+                  
+                  void test() {
+                      new Expectations() {{
+                          myObject.getSomeStringField();
+                          result = "foo";
+                          times = 2;
+                      }};
+                      assertEquals("foo", myObject.getSomeStringField());
+                      assertEquals("foo", myObject.getSomeStringField());
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.Mock;
+              import org.mockito.junit.jupiter.MockitoExtension;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.mockito.Mockito.*;
+
+              @ExtendWith(MockitoExtension.class)
+              class MyTest {
+                  @Mock
+                  MyObject myObject;
+
+                  void test() {
+                      when(myObject.getSomeStringField()).thenReturn("foo");
+                      assertEquals("foo", myObject.getSomeStringField());
+                      assertEquals("foo", myObject.getSomeStringField());
+                      verify(myObject, times(2)).getSomeStringField();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void jMockitInjectableAndTestedToMockito() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              class MyObject {
+                  public String getSomeStringField() {
+                      return "X";
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              class MyService {
+                  MyObject myObject;
+              }
+              """
+          ),
+          java(
+            """
+              import mockit.Injectable;
+              import mockit.Tested;
+              import mockit.integration.junit5.JMockitExtension;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              
+              @ExtendWith(JMockitExtension.class)
+              class MyTest {
+                  @Injectable
+                  MyObject myObject;
+                  
+                  @Tested
+                  MyService myService;
+              }
+              """,
+            """
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.InjectMocks;
+              import org.mockito.Mock;
+              import org.mockito.junit.jupiter.MockitoExtension;
+
+              @ExtendWith(MockitoExtension.class)
+              class MyTest {
+                  @Mock
+                  MyObject myObject;
+
+                  @InjectMocks
+                  MyService myService;
+              }
+              """
+          )
+        );
+    }
 }
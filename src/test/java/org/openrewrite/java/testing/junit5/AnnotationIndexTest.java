@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnnotationIndexTest {
+    private final ExecutionContext ctx = new InMemoryExecutionContext();
+
+    //language=java
+    private final J.CompilationUnit cu = (J.CompilationUnit) JavaParser.fromJavaVersion()
+      .classpathFromResources(ctx, "junit-4.13")
+      .build()
+      .parse(ctx,
+        """
+          import org.junit.Test;
+          import org.junit.experimental.runners.Enclosed;
+          import org.junit.runner.RunWith;
+
+          @RunWith(Enclosed.class)
+          public class OuterTest {
+              public static class InnerTest {
+                  @Test
+                  public void test() {
+                  }
+
+                  public @Test void annotatedAfterModifier() {
+                  }
+              }
+          }
+          """
+      )
+      .findFirst()
+      .orElseThrow(IllegalStateException::new);
+
+    private final J.ClassDeclaration outer = cu.getClasses().get(0);
+    private final J.ClassDeclaration inner = (J.ClassDeclaration) outer.getBody().getStatements().get(0);
+    private final J.MethodDeclaration test = (J.MethodDeclaration) inner.getBody().getStatements().get(0);
+    private final J.MethodDeclaration annotatedAfterModifier = (J.MethodDeclaration) inner.getBody().getStatements().get(1);
+
+    @Test
+    void indexesDirectlyAnnotatedDeclarations() {
+        AnnotationIndex index = AnnotationIndex.of(cu, ctx);
+        assertThat(index.isAnnotated(test, "org.junit.Test")).isTrue();
+        assertThat(index.isAnnotated(inner, "org.junit.Test")).isFalse();
+        assertThat(index.isAnnotated(outer, "org.junit.runner.RunWith")).isTrue();
+        assertThat(index.contains("org.junit.Ignore")).isFalse();
+    }
+
+    @Test
+    void indexesAnnotationsBetweenModifiers() {
+        AnnotationIndex index = AnnotationIndex.of(cu, ctx);
+        assertThat(index.isAnnotated(annotatedAfterModifier, "org.junit.Test")).isTrue();
+        assertThat(index.find(annotatedAfterModifier.getAllAnnotations(), "org.junit.Test")).hasSize(1);
+        assertThat(index.find(annotatedAfterModifier.getAllAnnotations(), "org.junit.Ignore")).isEmpty();
+    }
+
+    @Test
+    void indexesClassLiteralArguments() {
+        AnnotationIndex index = AnnotationIndex.of(cu, ctx);
+        assertThat(index.isAnnotated(outer, "org.junit.runner.RunWith(org.junit.experimental.runners.Enclosed.class)")).isTrue();
+        assertThat(index.isAnnotated(outer, "org.junit.runner.RunWith(org.junit.runners.JUnit4.class)")).isFalse();
+    }
+
+    @Test
+    void indexesAnnotationsWithinClasses() {
+        AnnotationIndex index = AnnotationIndex.of(cu, ctx);
+        assertThat(index.isAnnotatedWithin(outer, "org.junit.Test")).isTrue();
+        assertThat(index.isAnnotatedWithin(inner, "org.junit.Test")).isTrue();
+        assertThat(index.isAnnotatedWithin(inner, "org.junit.runner.RunWith")).isFalse();
+    }
+
+    @Test
+    void reusedUntilTheCompilationUnitChanges() {
+        AnnotationIndex index = AnnotationIndex.of(cu, ctx);
+        assertThat(AnnotationIndex.of(cu, ctx)).isSameAs(index);
+        assertThat(AnnotationIndex.of(cu.withImports(cu.getImports().subList(0, 1)), ctx)).isNotSameAs(index);
+    }
+}
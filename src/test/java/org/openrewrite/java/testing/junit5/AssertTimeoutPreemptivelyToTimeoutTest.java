@@ -0,0 +1,300 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+class AssertTimeoutPreemptivelyToTimeoutTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9"))
+          .recipe(new AssertTimeoutPreemptivelyToTimeout(null));
+    }
+
+    @DocumentExample
+    @Test
+    void wholeTestBecomesSameThreadTimeout() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+
+              import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+              class OrderServiceTest {
+                  @Test
+                  void placesOrder() {
+                      assertTimeoutPreemptively(Duration.ofMillis(500), () -> {
+                          String order = "order";
+                          System.out.println(order);
+                      });
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.Timeout;
+
+              import java.util.concurrent.TimeUnit;
+
+              class OrderServiceTest {
+                  @Test
+                  @Timeout(value = 500, unit = TimeUnit.MILLISECONDS, threadMode = Timeout.ThreadMode.SAME_THREAD)
+                  void placesOrder() {
+                      String order = "order";
+                      System.out.println(order);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void secondsNeedNoUnit() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Assertions;
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+
+              class OrderServiceTest {
+                  @Test
+                  void placesOrder() {
+                      Assertions.assertTimeoutPreemptively(Duration.ofSeconds(2), () -> System.out.println("order"));
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.Timeout;
+
+              class OrderServiceTest {
+                  @Test
+                  @Timeout(value = 2, threadMode = Timeout.ThreadMode.SAME_THREAD)
+                  void placesOrder() {
+                      System.out.println("order");
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void partialWrapperBecomesAssertTimeout() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+              class OrderServiceTest {
+                  @Test
+                  void placesOrder() {
+                      String order = assertTimeoutPreemptively(Duration.ofMillis(500), () -> "order");
+                      assertEquals("order", order);
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+              class OrderServiceTest {
+                  @Test
+                  void placesOrder() {
+                      String order = assertTimeout(Duration.ofMillis(500), () -> "order");
+                      assertEquals("order", order);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void blockingCodeKeepsPreemptiveTimeout() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+              import java.util.concurrent.CountDownLatch;
+
+              import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+              class OrderServiceTest {
+                  private final CountDownLatch shipped = new CountDownLatch(1);
+
+                  @Test
+                  void shipsOrder() {
+                      assertTimeoutPreemptively(Duration.ofSeconds(1), () -> shipped.await());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void loopingCodeKeepsPreemptiveTimeout() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+              import java.util.concurrent.atomic.AtomicBoolean;
+
+              import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+              class OrderServiceTest {
+                  private final AtomicBoolean shipped = new AtomicBoolean();
+
+                  @Test
+                  void shipsOrder() {
+                      assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                          for (; ; ) {
+                              if (shipped.get()) {
+                                  break;
+                              }
+                          }
+                      });
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void uncheckedExceptionsOnlyWithoutThrowsClause() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+
+              import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+              class OrderServiceTest {
+                  @Test
+                  void loadsOrder() {
+                      assertTimeoutPreemptively(Duration.ofSeconds(1), () -> Class.forName("Order"));
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.time.Duration;
+
+              import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+              class OrderServiceTest {
+                  @Test
+                  void loadsOrder() {
+                      assertTimeout(Duration.ofSeconds(1), () -> Class.forName("Order"));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void setsDefaultTimeoutUnlessConfigured() {
+        rewriteRun(
+          spec -> spec.recipe(new AssertTimeoutPreemptivelyToTimeout("5 m")),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class OrderServiceTest {
+                  @Test
+                  void placesOrder() {
+                  }
+              }
+              """
+          ),
+          properties(
+            """
+              junit.jupiter.execution.timeout.default=1 m
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          )
+        );
+    }
+
+    @Test
+    void generatesDefaultTimeout() {
+        rewriteRun(
+          spec -> spec.recipe(new AssertTimeoutPreemptivelyToTimeout("5 m")),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class OrderServiceTest {
+                  @Test
+                  void placesOrder() {
+                  }
+              }
+              """
+          ),
+          properties(
+            null,
+            """
+              junit.jupiter.execution.timeout.default=5 m
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          )
+        );
+    }
+}
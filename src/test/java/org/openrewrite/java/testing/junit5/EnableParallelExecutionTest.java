@@ -0,0 +1,500 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.test.SourceSpecs;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+class EnableParallelExecutionTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9"))
+          .recipe(new EnableParallelExecution());
+    }
+
+    private static SourceSpecs parallelExecutionEnabled() {
+        return properties(
+          null,
+          """
+            junit.jupiter.execution.parallel.enabled=true
+            """,
+          spec -> spec.path("src/test/resources/junit-platform.properties")
+        );
+    }
+
+    @DocumentExample
+    @Test
+    void runsClassesWithoutSharedStateConcurrently() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class CalculatorTest {
+                  private int total;
+
+                  @Test
+                  void adds() {
+                      total += 2;
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              @Execution(ExecutionMode.CONCURRENT)
+              class CalculatorTest {
+                  private int total;
+
+                  @Test
+                  void adds() {
+                      total += 2;
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void locksSystemProperties() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class ConfigurationTest {
+                  @Test
+                  void readsProperty() {
+                      System.setProperty("mode", "test");
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+              import org.junit.jupiter.api.parallel.ResourceLock;
+              import org.junit.jupiter.api.parallel.Resources;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              @ResourceLock(Resources.SYSTEM_PROPERTIES)
+              class ConfigurationTest {
+                  @Test
+                  void readsProperty() {
+                      System.setProperty("mode", "test");
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void keepsClassesWithMutableStaticStateOnOneThread() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class CounterTest {
+                  static int invocations;
+
+                  @Test
+                  void counts() {
+                      invocations++;
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              class CounterTest {
+                  static int invocations;
+
+                  @Test
+                  void counts() {
+                      invocations++;
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void runsClassesWithImmutableConstantsConcurrently() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class GreetingTest {
+                  private static final String NAME = "World";
+                  private static final int TIMES = 2;
+
+                  @Test
+                  void greets() {
+                      String greeting = "Hello " + NAME + TIMES;
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              @Execution(ExecutionMode.CONCURRENT)
+              class GreetingTest {
+                  private static final String NAME = "World";
+                  private static final int TIMES = 2;
+
+                  @Test
+                  void greets() {
+                      String greeting = "Hello " + NAME + TIMES;
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void keepsClassesWithStaticFinalCollectionOnOneThread() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              class OrdersTest {
+                  private static final List<String> ORDERS = new ArrayList<>();
+
+                  @Test
+                  void places() {
+                      ORDERS.add("order");
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              class OrdersTest {
+                  private static final List<String> ORDERS = new ArrayList<>();
+
+                  @Test
+                  void places() {
+                      ORDERS.add("order");
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void keepsClassesWithStaticFinalMockOnOneThread() {
+        //language=java
+        rewriteRun(
+          spec -> spec.parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "mockito-core-3.12")),
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.verify;
+
+              class CallbackTest {
+                  private static final Runnable callback = mock(Runnable.class);
+
+                  @Test
+                  void callsBack() {
+                      callback.run();
+                      verify(callback).run();
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.verify;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              class CallbackTest {
+                  private static final Runnable callback = mock(Runnable.class);
+
+                  @Test
+                  void callsBack() {
+                      callback.run();
+                      verify(callback).run();
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void updatesExistingProperties() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Isolated;
+
+              @Isolated
+              class IsolatedTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          ),
+          properties(
+            """
+              junit.jupiter.execution.parallel.mode.default=same_thread
+              """,
+            """
+              junit.jupiter.execution.parallel.mode.default=same_thread
+              junit.jupiter.execution.parallel.enabled=true
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          )
+        );
+    }
+
+    @Test
+    void keepsParallelExecutionDisabledExplicitly() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Isolated;
+
+              @Isolated
+              class IsolatedTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          ),
+          properties(
+            """
+              junit.jupiter.execution.parallel.enabled=false
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          )
+        );
+    }
+
+    @Test
+    void enablesParallelExecutionPerModule() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Isolated;
+
+              @Isolated
+              class IsolatedTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """,
+            spec -> spec.path("core/src/test/java/IsolatedTest.java")
+          ),
+          properties(
+            null,
+            """
+              junit.jupiter.execution.parallel.enabled=true
+              """,
+            spec -> spec.path("core/src/test/resources/junit-platform.properties")
+          )
+        );
+    }
+
+    @Test
+    void keepsSubclassesOnOneThread() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              abstract class DatabaseTest {
+                  protected static String url;
+              }
+              """
+          ),
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class RepositoryTest extends DatabaseTest {
+                  @Test
+                  void connects() {
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              class RepositoryTest extends DatabaseTest {
+                  @Test
+                  void connects() {
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void locksStateChangedByHelpersOfOtherClasses() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              class Fixtures {
+                  static void useFixedClock() {
+                      System.setProperty("clock", "fixed");
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class ClockTest {
+                  @Test
+                  void ticks() {
+                      Fixtures.useFixedClock();
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+              import org.junit.jupiter.api.parallel.ResourceLock;
+              import org.junit.jupiter.api.parallel.Resources;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              @ResourceLock(Resources.SYSTEM_PROPERTIES)
+              class ClockTest {
+                  @Test
+                  void ticks() {
+                      Fixtures.useFixedClock();
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+
+    @Test
+    void keepsPerClassInstancesWithMutableFieldsOnOneThread() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.TestInstance;
+
+              import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+              @TestInstance(PER_CLASS)
+              class SessionTest {
+                  private int logins;
+
+                  @Test
+                  void logsIn() {
+                      logins++;
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.TestInstance;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+
+              import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+              @Execution(ExecutionMode.SAME_THREAD)
+              @TestInstance(PER_CLASS)
+              class SessionTest {
+                  private int logins;
+
+                  @Test
+                  void logsIn() {
+                      logins++;
+                  }
+              }
+              """
+          ),
+          parallelExecutionEnabled()
+        );
+    }
+}
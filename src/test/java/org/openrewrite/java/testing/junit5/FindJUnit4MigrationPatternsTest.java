@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FindJUnit4MigrationPatternsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-4.13"))
+          .recipe(new FindJUnit4MigrationPatterns());
+    }
+
+    @Test
+    void countsWithoutChangingSource() {
+        rewriteRun(
+          spec -> spec.dataTable(MigrationPatterns.Row.class, rows -> assertThat(rows).containsExactlyInAnyOrder(
+            row("@Before", 1),
+            row("@Rule", 2),
+            row("@Rule ExpectedException", 1),
+            row("@Rule TemporaryFolder", 1),
+            row("@RunWith", 1),
+            row("@RunWith(JUnit4)", 1),
+            row("@Test", 2),
+            row("@Test(expected)", 1),
+            row("Assert.assertEquals", 2),
+            row("ExpectedException.expect", 1),
+            row("ExpectedException.none", 1)
+          )),
+          //language=java
+          java(
+            """
+              import org.junit.Assert;
+              import org.junit.Before;
+              import org.junit.Rule;
+              import org.junit.Test;
+              import org.junit.rules.ExpectedException;
+              import org.junit.rules.TemporaryFolder;
+              import org.junit.runner.RunWith;
+              import org.junit.runners.JUnit4;
+
+              @RunWith(JUnit4.class)
+              public class MyTest {
+                  @Rule
+                  public TemporaryFolder folder = new TemporaryFolder();
+
+                  @Rule
+                  public ExpectedException thrown = ExpectedException.none();
+
+                  @Before
+                  public void setUp() {
+                  }
+
+                  @Test(expected = IllegalStateException.class)
+                  public void first() {
+                      Assert.assertEquals(1, 1);
+                  }
+
+                  @Test
+                  public void second() {
+                      thrown.expect(IllegalArgumentException.class);
+                      Assert.assertEquals(2, 2);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void ignoresJUnit5() {
+        rewriteRun(
+          spec -> spec
+            .parser(JavaParser.fromJavaVersion()
+              .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9"))
+            .dataTable(MigrationPatterns.Row.class, rows -> assertThat(rows).isEmpty()),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              class MyTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    private static MigrationPatterns.Row row(String pattern, int occurrences) {
+        return new MigrationPatterns.Row("MyTest.java", "org.openrewrite.java.testing.junit5.JUnit4to5Migration", pattern, occurrences);
+    }
+}
@@ -20,6 +20,7 @@ import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Issue;
 import org.openrewrite.config.Environment;
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.RecipeRunBudget;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -215,4 +216,58 @@ class JUnit5MigrationTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void staysWithinWorkBudget() {
+        rewriteRun(
+          spec -> RecipeRunBudget.budget()
+            .maxVisitorPasses(250)
+            .maxTemplateApplications(4)
+            .applyTo(spec, Environment.builder()
+              .scanRuntimeClasspath("org.openrewrite.java.testing.junit5")
+              .build()
+              .activateRecipes("org.openrewrite.java.testing.junit5.JUnit4to5Migration")),
+          //language=java
+          java(
+            """
+              import org.junit.Assert;
+              import org.junit.Before;
+              import org.junit.Test;
+
+              public class MyTest {
+                  private int value;
+
+                  @Before
+                  public void setUp() {
+                      value = 1;
+                  }
+
+                  @Test
+                  public void test() {
+                      Assert.assertEquals(1, value);
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Assertions;
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              public class MyTest {
+                  private int value;
+
+                  @BeforeEach
+                  void setUp() {
+                      value = 1;
+                  }
+
+                  @Test
+                  void test() {
+                      Assertions.assertEquals(1, value);
+                  }
+              }
+              """
+          )
+        );
+    }
 }
@@ -674,4 +674,111 @@ class TemporaryFolderToTempDirTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void inMemoryFileSystem() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new TemporaryFolderToTempDir(true)),
+          java(
+            """
+              import org.junit.Rule;
+              import org.junit.rules.TemporaryFolder;
+
+              import java.io.IOException;
+              import java.nio.file.Path;
+
+              class MyTest {
+                  @Rule
+                  TemporaryFolder tempDir = new TemporaryFolder();
+
+                  void test() throws IOException {
+                      Path config = tempDir.newFile("config.yml").toPath();
+                      Path root = tempDir.getRoot().toPath();
+                      tempDir.newFolder("a", "b");
+                  }
+              }
+              """,
+            """
+              import com.google.common.jimfs.Configuration;
+              import com.google.common.jimfs.Jimfs;
+              import org.junit.jupiter.api.extension.AnnotatedElementContext;
+              import org.junit.jupiter.api.extension.ExtensionContext;
+              import org.junit.jupiter.api.io.TempDir;
+              import org.junit.jupiter.api.io.TempDirFactory;
+
+              import java.io.IOException;
+              import java.nio.file.FileSystem;
+              import java.nio.file.Files;
+              import java.nio.file.Path;
+
+              class MyTest {
+                  @TempDir(factory = InMemoryTempDirFactory.class)
+                  Path tempDir;
+
+                  void test() throws IOException {
+                      Path config = Files.createFile(tempDir.resolve("config.yml"));
+                      Path root = tempDir;
+                      Files.createDirectories(tempDir.resolve("a").resolve("b"));
+                  }
+
+                  static class InMemoryTempDirFactory implements TempDirFactory {
+                      private final FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix());
+
+                      @Override
+                      public Path createTempDirectory(AnnotatedElementContext elementContext, ExtensionContext extensionContext) throws IOException {
+                          return Files.createTempDirectory(Files.createDirectories(fileSystem.getPath("/tmp")), "junit");
+                      }
+
+                      @Override
+                      public void close() throws IOException {
+                          fileSystem.close();
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void inMemoryFileSystemNeedsPaths() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new TemporaryFolderToTempDir(true)),
+          java(
+            """
+              import org.junit.Rule;
+              import org.junit.rules.TemporaryFolder;
+
+              import java.io.File;
+              import java.io.IOException;
+
+              class MyTest {
+                  @Rule
+                  TemporaryFolder tempDir = new TemporaryFolder();
+
+                  void test() throws IOException {
+                      File config = tempDir.newFile("config.yml");
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.io.TempDir;
+
+              import java.io.File;
+              import java.io.IOException;
+
+              class MyTest {
+                  @TempDir
+                  File tempDir;
+
+                  void test() throws IOException {
+                      File config = File.createTempFile("config.yml", null, tempDir);
+                  }
+              }
+              """
+          )
+        );
+    }
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class TestDataLoopToParameterizedTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "junit-jupiter-params-5.9"))
+          .recipe(new TestDataLoopToParameterized());
+    }
+
+    @DocumentExample
+    @Test
+    void arrayOfRows() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class AdditionTest {
+                  private static final Object[][] DATA = {{1, 1, 2}, {2, 3, 5}};
+
+                  @Test
+                  void adds() {
+                      for (Object[] row : DATA) {
+                          int sum = (int) row[0] + (int) row[1];
+                          assertEquals(row[2], sum);
+                      }
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.params.ParameterizedTest;
+              import org.junit.jupiter.params.provider.Arguments;
+              import org.junit.jupiter.params.provider.MethodSource;
+
+              import java.util.Arrays;
+              import java.util.stream.Stream;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              class AdditionTest {
+                  private static final Object[][] DATA = {{1, 1, 2}, {2, 3, 5}};
+
+                  @ParameterizedTest
+                  @MethodSource("addsCases")
+                  void adds(Object[] row) {
+                      int sum = (int) row[0] + (int) row[1];
+                      assertEquals(row[2], sum);
+                  }
+
+                  static Stream<Arguments> addsCases() {
+                      return Arrays.stream(DATA).map(row -> Arguments.of((Object) row));
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void listOfValues() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.List;
+
+              import static org.junit.jupiter.api.Assertions.assertFalse;
+
+              class NameTest {
+                  static final List<String> NAMES = List.of("Ada", "Grace");
+
+                  @Test
+                  void namesAreNotBlank() {
+                      for (String name : NAMES)
+                          assertFalse(name.isBlank());
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.params.ParameterizedTest;
+              import org.junit.jupiter.params.provider.Arguments;
+              import org.junit.jupiter.params.provider.MethodSource;
+
+              import java.util.List;
+              import java.util.stream.Stream;
+
+              import static org.junit.jupiter.api.Assertions.assertFalse;
+
+              class NameTest {
+                  static final List<String> NAMES = List.of("Ada", "Grace");
+
+                  @ParameterizedTest
+                  @MethodSource("namesAreNotBlankCases")
+                  void namesAreNotBlank(String name) {
+                      assertFalse(name.isBlank());
+                  }
+
+                  static Stream<Arguments> namesAreNotBlankCases() {
+                      return NAMES.stream().map(Arguments::of);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void loopWithSideEffects() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              import static org.junit.jupiter.api.Assertions.assertTrue;
+
+              class NameTest {
+                  static final String[] NAMES = {"Ada", "Grace"};
+                  private final List<String> seen = new ArrayList<>();
+
+                  @Test
+                  void namesAreUnique() {
+                      for (String name : NAMES) {
+                          assertTrue(!seen.contains(name));
+                          seen.add(name);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void localWithSideEffects() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.atomic.AtomicInteger;
+
+              import static org.junit.jupiter.api.Assertions.assertTrue;
+
+              class OrderTest {
+                  static final String[] NAMES = {"Ada", "Grace"};
+                  static final AtomicInteger IDS = new AtomicInteger();
+
+                  @Test
+                  void idsIncrease() {
+                      for (String name : NAMES) {
+                          int id = IDS.incrementAndGet();
+                          assertTrue(id > 0);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void assertionArgumentWithSideEffects() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.atomic.AtomicInteger;
+
+              import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+              class OrderTest {
+                  static final String[] NAMES = {"Ada", "Grace"};
+                  static final AtomicInteger IDS = new AtomicInteger();
+
+                  @Test
+                  void idsIncrease() {
+                      for (String name : NAMES) {
+                          assertNotEquals(name.length(), IDS.incrementAndGet());
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void methodNamedLikeAnAssertion() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              class NameTest {
+                  static final String[] NAMES = {"Ada", "Grace"};
+                  private final List<String> seen = new ArrayList<>();
+
+                  @Test
+                  void namesAreUnique() {
+                      for (String name : NAMES) {
+                          assertUnseen(name);
+                      }
+                  }
+
+                  private void assertUnseen(String name) {
+                      if (!seen.add(name)) {
+                          throw new AssertionError(name);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void loopOverInstanceState() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+
+              import static org.junit.jupiter.api.Assertions.assertFalse;
+
+              class NameTest {
+                  private final String[] names = {"Ada", "Grace"};
+
+                  @Test
+                  void namesAreNotBlank() {
+                      for (String name : names) {
+                          assertFalse(name.isBlank());
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+}
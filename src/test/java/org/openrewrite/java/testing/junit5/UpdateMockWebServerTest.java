@@ -105,4 +105,94 @@ class UpdateMockWebServerTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void classScopedServer() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new UpdateMockWebServer(true)),
+          java(
+            """
+              import okhttp3.mockwebserver.MockWebServer;
+              import org.junit.Rule;
+              class MyTest {
+                  @Rule
+                  public MockWebServer server = new MockWebServer();
+              }
+              """,
+            """
+              import okhttp3.mockwebserver.MockWebServer;
+              import okhttp3.mockwebserver.QueueDispatcher;
+              import org.junit.jupiter.api.AfterAll;
+              import org.junit.jupiter.api.AfterEach;
+              import org.junit.jupiter.api.BeforeAll;
+              
+              import java.io.IOException;
+              import java.util.concurrent.TimeUnit;
+              
+              class MyTest {
+                  public static MockWebServer server = new MockWebServer();
+              
+                  @BeforeAll
+                  static void startMockWebServer() throws IOException {
+                      server.start();
+                  }
+              
+                  @AfterEach
+                  void resetMockWebServer() throws InterruptedException {
+                      server.setDispatcher(new QueueDispatcher());
+                      while (server.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+                      }
+                  }
+              
+                  @AfterAll
+                  static void shutdownMockWebServer() throws IOException {
+                      server.shutdown();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void requestCountNeedsServerPerTest() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new UpdateMockWebServer(true)),
+          java(
+            """
+              import okhttp3.mockwebserver.MockWebServer;
+              import org.junit.Rule;
+              class MyTest {
+                  @Rule
+                  public MockWebServer server = new MockWebServer();
+              
+                  void noRequests() {
+                      assert server.getRequestCount() == 0;
+                  }
+              }
+              """,
+            """
+              import okhttp3.mockwebserver.MockWebServer;
+              import org.junit.jupiter.api.AfterEach;
+              
+              import java.io.IOException;
+              
+              class MyTest {
+                  public MockWebServer server = new MockWebServer();
+              
+                  void noRequests() {
+                      assert server.getRequestCount() == 0;
+                  }
+              
+                  @AfterEach
+                  void afterEachTest() throws IOException {
+                      server.close();
+                  }
+              }
+              """
+          )
+        );
+    }
 }
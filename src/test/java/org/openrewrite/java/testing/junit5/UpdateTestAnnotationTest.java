@@ -540,6 +540,37 @@ class UpdateTestAnnotationTest implements RewriteTest {
         );
     }
 
+    @Test
+    void linkedInJavadoc() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.Test;
+              
+              /** Runs with {@link Test}. */
+              public class MyTest {
+                  /** Not a reference to {@code org.junit.Test}. */
+                  @Test
+                  public void test() {
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              
+              /** Runs with {@link Test}. */
+              public class MyTest {
+                  /** Not a reference to {@code org.junit.Test}. */
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
     @Test
     void fullyQualified() {
         rewriteRun(
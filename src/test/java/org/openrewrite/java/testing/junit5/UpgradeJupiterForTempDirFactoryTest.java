@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.mavenProject;
+import static org.openrewrite.maven.Assertions.pomXml;
+
+class UpgradeJupiterForTempDirFactoryTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-4.13"))
+          .recipe(new UpgradeJupiterForTempDirFactory());
+    }
+
+    //language=xml
+    private static final String POM = """
+      <project>
+        <modelVersion>4.0.0</modelVersion>
+        <groupId>com.example</groupId>
+        <artifactId>demo</artifactId>
+        <version>0.0.1-SNAPSHOT</version>
+        <dependencies>
+          <dependency>
+            <groupId>org.junit.jupiter</groupId>
+            <artifactId>junit-jupiter-api</artifactId>
+            <version>%s</version>
+            <scope>test</scope>
+          </dependency>
+        </dependencies>
+      </project>
+      """;
+
+    @Test
+    void upgradesForTemporaryFolderMovedInMemory() {
+        rewriteRun(
+          mavenProject("project",
+            //language=java
+            java(
+              """
+                import org.junit.Rule;
+                import org.junit.rules.TemporaryFolder;
+
+                import java.io.IOException;
+                import java.nio.file.Path;
+
+                class MyTest {
+                    @Rule
+                    TemporaryFolder tempDir = new TemporaryFolder();
+
+                    void test() throws IOException {
+                        Path root = tempDir.getRoot().toPath();
+                    }
+                }
+                """
+            ),
+            pomXml(
+              POM.formatted("5.9.3"),
+              spec -> spec.after(pom -> {
+                  Matcher matcher = Pattern.compile("<version>(5\\.10\\..+)</version>").matcher(pom);
+                  matcher.find();
+                  return POM.formatted(matcher.group(1));
+              })
+            )
+          )
+        );
+    }
+
+    @Test
+    void keepsVersionWithoutTempDirFactory() {
+        rewriteRun(
+          mavenProject("project",
+            //language=java
+            java(
+              """
+                import org.junit.Rule;
+                import org.junit.rules.TemporaryFolder;
+
+                import java.io.File;
+                import java.io.IOException;
+
+                class MyTest {
+                    @Rule
+                    TemporaryFolder tempDir = new TemporaryFolder();
+
+                    void test() throws IOException {
+                        File root = tempDir.getRoot();
+                    }
+                }
+                """
+            ),
+            pomXml(POM.formatted("5.9.3"))
+          )
+        );
+    }
+}
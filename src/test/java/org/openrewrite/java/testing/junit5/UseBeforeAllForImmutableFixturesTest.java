@@ -0,0 +1,326 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class UseBeforeAllForImmutableFixturesTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9"))
+          .recipe(new UseBeforeAllForImmutableFixtures());
+    }
+
+    @DocumentExample
+    @Test
+    void instanceFixture() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.regex.Pattern;
+
+              class MatcherTest {
+                  private Pattern pattern;
+
+                  @BeforeEach
+                  void setUp() {
+                      pattern = Pattern.compile("[a-z]+");
+                  }
+
+                  @Test
+                  void matches() {
+                      assert pattern.matcher("abc").matches();
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.BeforeAll;
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.TestInstance;
+
+              import java.util.regex.Pattern;
+
+              @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+              class MatcherTest {
+                  private Pattern pattern;
+
+                  @BeforeAll
+                  void setUp() {
+                      pattern = Pattern.compile("[a-z]+");
+                  }
+
+                  @Test
+                  void matches() {
+                      assert pattern.matcher("abc").matches();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void staticFixture() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.regex.Pattern;
+
+              class MatcherTest {
+                  private static Pattern pattern;
+
+                  @BeforeEach
+                  void setUp() {
+                      pattern = Pattern.compile("[a-z]+");
+                  }
+
+                  @Test
+                  void matches() {
+                      assert pattern.matcher("abc").matches();
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.BeforeAll;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.regex.Pattern;
+
+              class MatcherTest {
+                  private static Pattern pattern;
+
+                  @BeforeAll
+                  static void setUp() {
+                      pattern = Pattern.compile("[a-z]+");
+                  }
+
+                  @Test
+                  void matches() {
+                      assert pattern.matcher("abc").matches();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void releaseFixtureAfterAll() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.AfterEach;
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              class ExecutorTest {
+                  private ExecutorService executor;
+
+                  @BeforeEach
+                  public void setUp() {
+                      executor = Executors.newSingleThreadExecutor();
+                  }
+
+                  @AfterEach
+                  public void tearDown() {
+                      executor.shutdown();
+                  }
+
+                  @Test
+                  void submits() throws Exception {
+                      assert executor.submit(() -> 1).get() == 1;
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.AfterAll;
+              import org.junit.jupiter.api.BeforeAll;
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.TestInstance;
+
+              import java.util.concurrent.ExecutorService;
+              import java.util.concurrent.Executors;
+
+              @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+              class ExecutorTest {
+                  private ExecutorService executor;
+
+                  @BeforeAll
+                  public void setUp() {
+                      executor = Executors.newSingleThreadExecutor();
+                  }
+
+                  @AfterAll
+                  public void tearDown() {
+                      executor.shutdown();
+                  }
+
+                  @Test
+                  void submits() throws Exception {
+                      assert executor.submit(() -> 1).get() == 1;
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void fixtureMutatedByTest() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              class ListTest {
+                  private List<String> names;
+
+                  @BeforeEach
+                  void setUp() {
+                      names = new ArrayList<>();
+                  }
+
+                  @Test
+                  void adds() {
+                      names.add("a");
+                      assert names.size() == 1;
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void mockFixture() {
+        //language=java
+        rewriteRun(
+          spec -> spec.parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "mockito-core-3.12")),
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.verify;
+
+              class CallbackTest {
+                  private Runnable callback;
+
+                  @BeforeEach
+                  void setUp() {
+                      callback = mock(Runnable.class);
+                  }
+
+                  @Test
+                  void callsBack() {
+                      callback.run();
+                      verify(callback).run();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void stringBuilderFixture() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              class BuilderTest {
+                  private StringBuilder builder;
+
+                  @BeforeEach
+                  void setUp() {
+                      builder = new StringBuilder();
+                  }
+
+                  @Test
+                  void appends() {
+                      builder.append("a");
+                      assert builder.length() == 1;
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void otherMutableStateWouldBeShared() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.regex.Pattern;
+
+              class MatcherTest {
+                  private Pattern pattern;
+                  private int matches;
+
+                  @BeforeEach
+                  void setUp() {
+                      pattern = Pattern.compile("[a-z]+");
+                  }
+
+                  @Test
+                  void matches() {
+                      if (pattern.matcher("abc").matches()) {
+                          matches++;
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -155,4 +155,93 @@ class UseWiremockExtensionTest implements RewriteTest {
           )
         );
     }
+
+    @Test
+    void staticServerWithDynamicPort() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new UseWiremockExtension(true, true)),
+          java(
+            """
+              import com.github.tomakehurst.wiremock.junit.WireMockRule;
+              import org.junit.Rule;
+              
+              class Test {
+                  @Rule
+                  public WireMockRule wm = new WireMockRule(7001);
+              }
+              """,
+            """
+              import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+              import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+              import org.junit.jupiter.api.extension.RegisterExtension;
+              
+              class Test {
+                  @RegisterExtension
+                  public static WireMockExtension wm = WireMockExtension.newInstance().options(WireMockConfiguration.options().dynamicPort()).configureStaticDsl(true).build();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void staticServerKeepsFixedPort() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new UseWiremockExtension(true, null)),
+          java(
+            """
+              import com.github.tomakehurst.wiremock.junit.WireMockRule;
+              import org.junit.Rule;
+              
+              class Test {
+                  @Rule
+                  public WireMockRule wm = new WireMockRule(7001);
+              }
+              """,
+            """
+              import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+              import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+              import org.junit.jupiter.api.extension.RegisterExtension;
+              
+              class Test {
+                  @RegisterExtension
+                  public static WireMockExtension wm = WireMockExtension.newInstance().options(WireMockConfiguration.options().port(7001)).build();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void staticServerKeepsMentionedPort() {
+        //language=java
+        rewriteRun(
+          spec -> spec.recipe(new UseWiremockExtension(true, true)),
+          java(
+            """
+              import com.github.tomakehurst.wiremock.junit.WireMockRule;
+              import org.junit.ClassRule;
+              
+              class Test {
+                  @ClassRule
+                  public static WireMockRule wm = new WireMockRule(7001);
+                  String url = "http://localhost:7001/api";
+              }
+              """,
+            """
+              import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+              import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+              import org.junit.jupiter.api.extension.RegisterExtension;
+              
+              class Test {
+                  @RegisterExtension
+                  public static WireMockExtension wm = WireMockExtension.newInstance().options(WireMockConfiguration.options().port(7001)).build();
+                  String url = "http://localhost:7001/api";
+              }
+              """
+          )
+        );
+    }
 }
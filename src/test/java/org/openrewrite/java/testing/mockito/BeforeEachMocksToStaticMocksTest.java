@@ -0,0 +1,280 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+class BeforeEachMocksToStaticMocksTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(), "junit-jupiter-api-5.9", "mockito-core-3.12"))
+          .recipe(new BeforeEachMocksToStaticMocks());
+    }
+
+    @DocumentExample
+    @Test
+    void mocksCreatedOnce() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.List;
+              import java.util.Map;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.when;
+
+              class PaymentServiceTest {
+                  private List<String> ledger;
+                  private Map<String, Integer> balances;
+                  private String account;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = mock(List.class);
+                      this.balances = mock(Map.class);
+                      account = "acme";
+                  }
+
+                  @Test
+                  void charges() {
+                      when(balances.get(account)).thenReturn(10);
+                      ledger.add(account);
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.List;
+              import java.util.Map;
+
+              import static org.mockito.Mockito.*;
+
+              class PaymentServiceTest {
+                  private static final List<String> ledger = mock(List.class);
+                  private static final Map<String, Integer> balances = mock(Map.class);
+                  private String account;
+
+                  @BeforeEach
+                  void setUp() {
+                      reset(ledger, balances);
+                      account = "acme";
+                  }
+
+                  @Test
+                  void charges() {
+                      when(balances.get(account)).thenReturn(10);
+                      ledger.add(account);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void mockReassignedInTest() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+              import org.mockito.Mockito;
+
+              import java.util.List;
+
+              class PaymentServiceTest {
+                  private List<String> ledger;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = Mockito.mock(List.class);
+                  }
+
+                  @Test
+                  void charges() {
+                      ledger = Mockito.mock(List.class, Mockito.RETURNS_DEEP_STUBS);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void fieldVisibleToOtherClasses() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+              import org.mockito.Mockito;
+
+              import java.util.List;
+
+              class PaymentServiceTest {
+                  List<String> ledger;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = Mockito.mock(List.class);
+                  }
+
+                  @Test
+                  void charges() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void concurrentExecution() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.parallel.Execution;
+              import org.junit.jupiter.api.parallel.ExecutionMode;
+              import org.mockito.Mockito;
+
+              import java.util.List;
+
+              @Execution(ExecutionMode.CONCURRENT)
+              class PaymentServiceTest {
+                  private List<String> ledger;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = Mockito.mock(List.class);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void concurrentExecutionByDefault() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.mockito.Mockito;
+
+              import java.util.List;
+
+              class PaymentServiceTest {
+                  private List<String> ledger;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = Mockito.mock(List.class);
+                  }
+              }
+              """
+          ),
+          properties(
+            """
+              junit.jupiter.execution.parallel.enabled=true
+              junit.jupiter.execution.parallel.mode.default=concurrent
+              """,
+            spec -> spec.path("src/test/resources/junit-platform.properties")
+          )
+        );
+    }
+
+    @Test
+    void localOfTheSameNameIsNotTheField() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              import static org.mockito.Mockito.mock;
+
+              class PaymentServiceTest {
+                  private List<String> ledger;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = mock(List.class);
+                  }
+
+                  @Test
+                  void copies() {
+                      List<String> ledger;
+                      ledger = new ArrayList<>();
+                      ledger.add("acme");
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.BeforeEach;
+              import org.junit.jupiter.api.Test;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.reset;
+
+              class PaymentServiceTest {
+                  private static final List<String> ledger = mock(List.class);
+
+                  @BeforeEach
+                  void setUp() {
+                      reset(ledger);
+                  }
+
+                  @Test
+                  void copies() {
+                      List<String> ledger;
+                      ledger = new ArrayList<>();
+                      ledger.add("acme");
+                  }
+              }
+              """
+          )
+        );
+    }
+}
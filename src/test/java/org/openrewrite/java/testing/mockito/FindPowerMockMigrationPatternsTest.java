@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.table.MigrationPatterns;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FindPowerMockMigrationPatternsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(),
+              "junit-4.13",
+              "mockito-core-3.12",
+              "powermock-api-mockito-1.6",
+              "powermock-core-1.6"
+            ))
+          .recipe(new FindPowerMockMigrationPatterns());
+    }
+
+    @Test
+    void countsWithoutChangingSource() {
+        rewriteRun(
+          spec -> spec.dataTable(MigrationPatterns.Row.class, rows -> assertThat(rows).containsExactlyInAnyOrder(
+            row("@PrepareForTest", 1),
+            row("PowerMockito.mockStatic", 2)
+          )),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+              import org.powermock.api.mockito.PowerMockito;
+              import org.powermock.core.classloader.annotations.PrepareForTest;
+
+              import java.util.Calendar;
+              import java.util.Currency;
+
+              @PrepareForTest({Calendar.class, Currency.class})
+              public class MyTest {
+                  @Test
+                  public void test() {
+                      PowerMockito.mockStatic(Calendar.class);
+                      PowerMockito.mockStatic(Currency.class);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    private static MigrationPatterns.Row row(String pattern, int occurrences) {
+        return new MigrationPatterns.Row("MyTest.java", "org.openrewrite.java.testing.mockito.ReplacePowerMockito", pattern, occurrences);
+    }
+}
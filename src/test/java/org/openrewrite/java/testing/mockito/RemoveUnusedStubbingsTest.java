@@ -0,0 +1,246 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+
+class RemoveUnusedStubbingsTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .parser(JavaParser.fromJavaVersion()
+            .classpathFromResources(new InMemoryExecutionContext(),
+              "junit-jupiter-api-5.9", "mockito-core-3.12", "mockito-junit-jupiter-3.12"))
+          .recipe(new RemoveUnusedStubbings());
+    }
+
+    @DocumentExample
+    @Test
+    void stubbingOfMockNothingCanCall() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.junit.jupiter.MockitoExtension;
+              import org.mockito.junit.jupiter.MockitoSettings;
+              import org.mockito.quality.Strictness;
+
+              import java.util.List;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.when;
+
+              @ExtendWith(MockitoExtension.class)
+              @MockitoSettings(strictness = Strictness.LENIENT)
+              class LedgerTest {
+                  @Test
+                  void sizeOfNewLedger() {
+                      List<String> audit = mock(List.class);
+                      when(audit.size()).thenReturn(3);
+                      List<String> ledger = List.of();
+                      assertEquals(0, ledger.size());
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.junit.jupiter.MockitoExtension;
+
+              import java.util.List;
+
+              import static org.junit.jupiter.api.Assertions.assertEquals;
+
+              @ExtendWith(MockitoExtension.class)
+              class LedgerTest {
+                  @Test
+                  void sizeOfNewLedger() {
+                      List<String> ledger = List.of();
+                      assertEquals(0, ledger.size());
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void doReturnStubbing() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import java.util.List;
+
+              import static org.mockito.Mockito.doReturn;
+              import static org.mockito.Mockito.mock;
+
+              class LedgerTest {
+                  void sizeOfNewLedger() {
+                      List<String> audit = mock(List.class);
+                      doReturn(3).when(audit).size();
+                  }
+              }
+              """,
+            """
+              class LedgerTest {
+                  void sizeOfNewLedger() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void mockHandedToSubject() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import java.util.ArrayList;
+              import java.util.List;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.when;
+
+              class LedgerTest {
+                  void copiesLedger() {
+                      List<String> audit = mock(List.class);
+                      when(audit.toArray()).thenReturn(new Object[0]);
+                      new ArrayList<>(audit);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void lenientSettingsKeptWhileStubbingsRemain() {
+        //language=java
+        rewriteRun(
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.junit.jupiter.MockitoExtension;
+              import org.mockito.junit.jupiter.MockitoSettings;
+              import org.mockito.quality.Strictness;
+
+              import java.util.ArrayList;
+              import java.util.List;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.when;
+
+              @ExtendWith(MockitoExtension.class)
+              @MockitoSettings(strictness = Strictness.LENIENT)
+              class LedgerTest {
+                  @Test
+                  void copiesLedger() {
+                      List<String> audit = mock(List.class);
+                      when(audit.toArray()).thenReturn(new Object[0]);
+                      new ArrayList<>(audit);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void lenientSettingsKeptForSubclasses() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.BeforeEach;
+
+              import java.util.List;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.when;
+
+              abstract class LedgerTestBase {
+                  protected List<String> ledger;
+
+                  @BeforeEach
+                  void setUp() {
+                      ledger = mock(List.class);
+                      when(ledger.size()).thenReturn(3);
+                  }
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.junit.jupiter.MockitoExtension;
+              import org.mockito.junit.jupiter.MockitoSettings;
+              import org.mockito.quality.Strictness;
+
+              import java.util.List;
+
+              import static org.mockito.Mockito.mock;
+              import static org.mockito.Mockito.when;
+
+              @ExtendWith(MockitoExtension.class)
+              @MockitoSettings(strictness = Strictness.LENIENT)
+              class LedgerTest extends LedgerTestBase {
+                  @Test
+                  void sizeOfLedger() {
+                      List<String> audit = mock(List.class);
+                      when(audit.size()).thenReturn(3);
+                      List<String> entries = List.of("acme");
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+              import org.junit.jupiter.api.extension.ExtendWith;
+              import org.mockito.junit.jupiter.MockitoExtension;
+              import org.mockito.junit.jupiter.MockitoSettings;
+              import org.mockito.quality.Strictness;
+
+              import java.util.List;
+
+              @ExtendWith(MockitoExtension.class)
+              @MockitoSettings(strictness = Strictness.LENIENT)
+              class LedgerTest extends LedgerTestBase {
+                  @Test
+                  void sizeOfLedger() {
+                      List<String> entries = List.of("acme");
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.test.SourceSpecs;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.version;
+
+class WhiteboxToDirectAccessTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new WhiteboxToDirectAccess());
+    }
+
+    private static SourceSpecs whitebox() {
+        //language=java
+        return java(
+          """
+            package org.powermock.reflect;
+
+            public class Whitebox {
+                public static <T> T getInternalState(Object object, String fieldName) {
+                    return null;
+                }
+
+                public static void setInternalState(Object object, String fieldName, Object value) {
+                }
+
+                public static <T> T invokeMethod(Object instance, String methodToExecute, Object... arguments) {
+                    return null;
+                }
+            }
+            """
+        );
+    }
+
+    private static SourceSpecs account() {
+        //language=java
+        return java(
+          """
+            package com.example;
+
+            public class Account {
+                private int balance;
+                String owner;
+
+                void close(String reason) {
+                }
+            }
+            """
+        );
+    }
+
+    @DocumentExample
+    @Test
+    void visibleMembers() {
+        //language=java
+        rewriteRun(
+          whitebox(),
+          account(),
+          java(
+            """
+              package com.example;
+
+              import org.powermock.reflect.Whitebox;
+
+              class AccountTest {
+                  void closes() {
+                      Account account = new Account();
+                      Whitebox.setInternalState(account, "owner", "acme");
+                      String owner = Whitebox.getInternalState(account, "owner");
+                      Whitebox.invokeMethod(account, "close", owner);
+                  }
+              }
+              """,
+            """
+              package com.example;
+
+              class AccountTest {
+                  void closes() {
+                      Account account = new Account();
+                      account.owner = "acme";
+                      String owner = account.owner;
+                      account.close(owner);
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void privateFieldThroughVarHandle() {
+        //language=java
+        rewriteRun(
+          whitebox(),
+          account(),
+          java(
+            """
+              package com.example;
+
+              import org.powermock.reflect.Whitebox;
+
+              class AccountTest {
+                  void deposits() {
+                      Account account = new Account();
+                      Whitebox.setInternalState(account, "balance", 10);
+                      int balance = Whitebox.getInternalState(account, "balance");
+                  }
+              }
+              """,
+            """
+              package com.example;
+
+              import java.lang.invoke.MethodHandles;
+              import java.lang.invoke.VarHandle;
+
+              class AccountTest {
+                  private static final VarHandle ACCOUNT_BALANCE = varHandle(Account.class, "balance", int.class);
+
+                  void deposits() {
+                      Account account = new Account();
+                      ACCOUNT_BALANCE.set(account, 10);
+                      int balance = (int) ACCOUNT_BALANCE.get(account);
+                  }
+
+                  private static VarHandle varHandle(Class<?> type, String name, Class<?> fieldType) {
+                      try {
+                          return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).findVarHandle(type, name, fieldType);
+                      } catch (ReflectiveOperationException e) {
+                          throw new ExceptionInInitializerError(e);
+                      }
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void castsToTheInferredType() {
+        //language=java
+        rewriteRun(
+          whitebox(),
+          java(
+            """
+              package com.example;
+
+              public class Widget {
+                  Object label;
+
+                  Number size() {
+                      return 1;
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              package com.example;
+
+              import org.powermock.reflect.Whitebox;
+
+              class WidgetTest {
+                  void labels() throws Exception {
+                      Widget widget = new Widget();
+                      String label = Whitebox.getInternalState(widget, "label");
+                      int length = Whitebox.<String>getInternalState(widget, "label").length();
+                      Integer size = Whitebox.invokeMethod(widget, "size");
+                  }
+              }
+              """,
+            """
+              package com.example;
+
+              class WidgetTest {
+                  void labels() throws Exception {
+                      Widget widget = new Widget();
+                      String label = (String) widget.label;
+                      int length = ((String) widget.label).length();
+                      Integer size = (Integer) widget.size();
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void privateFieldKeepsWhiteboxBeforeJava9() {
+        //language=java
+        rewriteRun(
+          whitebox(),
+          account(),
+          version(
+            java(
+              """
+                package com.example;
+
+                import org.powermock.reflect.Whitebox;
+
+                class AccountTest {
+                    void deposits() {
+                        Account account = new Account();
+                        Whitebox.setInternalState(account, "balance", 10);
+                    }
+                }
+                """
+            ),
+            8
+          )
+        );
+    }
+
+    @Test
+    void privateMethodKeepsWhitebox() {
+        //language=java
+        rewriteRun(
+          whitebox(),
+          java(
+            """
+              package com.example;
+
+              public class Ledger {
+                  private void compact() {
+                  }
+              }
+              """
+          ),
+          java(
+            """
+              package com.example;
+
+              import org.powermock.reflect.Whitebox;
+
+              class LedgerTest {
+                  void compacts() throws Exception {
+                      Whitebox.invokeMethod(new Ledger(), "compact");
+                  }
+              }
+              """
+          )
+        );
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.testcontainers;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static java.util.Collections.singletonList;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+class AddContainerReuseTest implements RewriteTest {
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .recipe(new AddContainerReuse(singletonList("org.testcontainers.containers.NginxContainer")))
+          .parser(JavaParser.fromJavaVersion().classpath("testcontainers", "nginx"));
+    }
+
+    @Test
+    @DocumentExample
+    void addsReuseAndEnablesIt() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import org.testcontainers.containers.NginxContainer;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4");
+              }
+              """,
+            """
+              import org.testcontainers.containers.NginxContainer;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4").withReuse(true);
+              }
+              """
+          ),
+          properties(
+            null,
+            """
+              testcontainers.reuse.enable=true
+              """,
+            spec -> spec.path(".testcontainers.properties")
+          )
+        );
+    }
+
+    @Test
+    void addsReuseAfterOtherConfiguration() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import org.testcontainers.containers.NginxContainer;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4")
+                          .withExposedPorts(80);
+              }
+              """,
+            """
+              import org.testcontainers.containers.NginxContainer;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4")
+                          .withExposedPorts(80).withReuse(true);
+              }
+              """
+          ),
+          properties(
+            """
+              docker.client.strategy=org.testcontainers.dockerclient.UnixSocketClientProviderStrategy
+              """,
+            """
+              docker.client.strategy=org.testcontainers.dockerclient.UnixSocketClientProviderStrategy
+              testcontainers.reuse.enable=true
+              """,
+            spec -> spec.path(".testcontainers.properties")
+          )
+        );
+    }
+
+    @Test
+    void keepsReuseDisabledExplicitly() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import org.testcontainers.containers.NginxContainer;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4");
+              }
+              """,
+            """
+              import org.testcontainers.containers.NginxContainer;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4").withReuse(true);
+              }
+              """
+          ),
+          properties(
+            """
+              # reuse breaks the tests of the integration module
+              testcontainers.reuse.enable=false
+              """,
+            spec -> spec.path(".testcontainers.properties")
+          )
+        );
+    }
+
+    @Test
+    void skipsContainersWithPerRunState() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              import org.testcontainers.containers.NginxContainer;
+              import org.testcontainers.utility.MountableFile;
+
+              class Foo {
+                  NginxContainer<?> container = new NginxContainer<>("nginx:1.9.4")
+                          .withCopyFileToContainer(MountableFile.forClasspathResource("index.html"), "/usr/share/nginx/html/index.html");
+              }
+              """
+          )
+        );
+    }
+}
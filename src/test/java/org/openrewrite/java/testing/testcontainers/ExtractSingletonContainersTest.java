@@ -0,0 +1,330 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.testcontainers;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.java.Assertions.mavenProject;
+
+class ExtractSingletonContainersTest implements RewriteTest {
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec
+          .recipe(new ExtractSingletonContainers())
+          .parser(JavaParser.fromJavaVersion().classpath("junit", "testcontainers", "nginx"));
+    }
+
+    @Test
+    @DocumentExample
+    void sharesIdenticallyConfiguredContainers() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class FirstTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>("nginx:1.9.4");
+              }
+              """,
+            """
+              package com.example;
+
+              import org.testcontainers.containers.NginxContainer;
+
+              public class FirstTest {
+                  public static NginxContainer<?> nginx = SharedContainers.NGINX;
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class SecondTest {
+                  @ClassRule
+                  public static NginxContainer<?> server = new NginxContainer<>( "nginx:1.9.4" );
+              }
+              """,
+            """
+              package com.example;
+
+              import org.testcontainers.containers.NginxContainer;
+
+              public class SecondTest {
+                  public static NginxContainer<?> server = SharedContainers.NGINX;
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class OtherImageTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>("nginx:1.25");
+              }
+              """
+          ),
+          //language=java
+          java(
+            null,
+            """
+              package com.example;
+
+              import org.testcontainers.containers.NginxContainer;
+
+              public final class SharedContainers {
+                  public static final NginxContainer<?> NGINX = new NginxContainer<>("nginx:1.9.4");
+
+                  static {
+                      NGINX.start();
+                  }
+
+                  private SharedContainers() {
+                  }
+              }
+              """,
+            spec -> spec.path("com/example/SharedContainers.java")
+          )
+        );
+    }
+
+    @Test
+    void sharesContainersConfiguredThroughStaticImports() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              import static org.testcontainers.utility.DockerImageName.parse;
+
+              public class FirstTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>(parse("nginx:1.9.4"));
+              }
+              """,
+            """
+              package com.example;
+
+              import org.testcontainers.containers.NginxContainer;
+
+              public class FirstTest {
+                  public static NginxContainer<?> nginx = SharedContainers.NGINX;
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+              import org.testcontainers.utility.DockerImageName;
+
+              public class SecondTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>(DockerImageName.parse("nginx:1.9.4"));
+              }
+              """,
+            """
+              package com.example;
+
+              import org.testcontainers.containers.NginxContainer;
+
+              public class SecondTest {
+                  public static NginxContainer<?> nginx = SharedContainers.NGINX;
+              }
+              """
+          ),
+          //language=java
+          java(
+            null,
+            """
+              package com.example;
+
+              import org.testcontainers.containers.NginxContainer;
+
+              import static org.testcontainers.utility.DockerImageName.parse;
+
+              public final class SharedContainers {
+                  public static final NginxContainer<?> NGINX = new NginxContainer<>(parse("nginx:1.9.4"));
+
+                  static {
+                      NGINX.start();
+                  }
+
+                  private SharedContainers() {
+                  }
+              }
+              """,
+            spec -> spec.path("com/example/SharedContainers.java")
+          )
+        );
+    }
+
+    @Test
+    void leavesContainersWithDefaultImageAlone() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class FirstTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>();
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class SecondTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>();
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void leavesContainersDeclaredOnceAlone() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class OnlyTest {
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>("nginx:1.9.4");
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void leavesContainersConfiguredFromTheirTestClassAlone() {
+        rewriteRun(
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class FirstTest {
+                  static final String IMAGE = "nginx:1.9.4";
+
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>(IMAGE);
+              }
+              """
+          ),
+          //language=java
+          java(
+            """
+              package com.example;
+
+              import org.junit.ClassRule;
+              import org.testcontainers.containers.NginxContainer;
+
+              public class SecondTest {
+                  static final String IMAGE = "nginx:1.9.4";
+
+                  @ClassRule
+                  public static NginxContainer<?> nginx = new NginxContainer<>(IMAGE);
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void leavesContainersOfDifferentModulesAlone() {
+        rewriteRun(
+          mavenProject("first",
+            //language=java
+            java(
+              """
+                package com.example;
+
+                import org.junit.ClassRule;
+                import org.testcontainers.containers.NginxContainer;
+
+                public class FirstTest {
+                    @ClassRule
+                    public static NginxContainer<?> nginx = new NginxContainer<>("nginx:1.9.4");
+                }
+                """
+            )
+          ),
+          mavenProject("second",
+            //language=java
+            java(
+              """
+                package com.example;
+
+                import org.junit.ClassRule;
+                import org.testcontainers.containers.NginxContainer;
+
+                public class SecondTest {
+                    @ClassRule
+                    public static NginxContainer<?> nginx = new NginxContainer<>("nginx:1.9.4");
+                }
+                """
+            )
+          )
+        );
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2023 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.timeout;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.table.SlowSourceFiles;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.openrewrite.java.Assertions.java;
+
+class LimitRecipeDurationTest implements RewriteTest {
+    private static final String UPDATE_TEST_ANNOTATION = "org.openrewrite.java.testing.junit5.UpdateTestAnnotation";
+    private static final String TEMPORARY_FOLDER_TO_TEMP_DIR = "org.openrewrite.java.testing.junit5.TemporaryFolderToTempDir";
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(JavaParser.fromJavaVersion()
+          .classpathFromResources(new InMemoryExecutionContext(), "junit-4.13"));
+    }
+
+    @Test
+    void runsRecipeWithinBudget() {
+        rewriteRun(
+          spec -> spec.recipe(new LimitRecipeDuration(UPDATE_TEST_ANNOTATION, 60_000L)),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+
+              public class MyTest {
+                  @Test
+                  public void test() {
+                  }
+              }
+              """,
+            """
+              import org.junit.jupiter.api.Test;
+
+              public class MyTest {
+                  @Test
+                  void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void leavesSourceFileUnchangedWhenOverBudget() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new LimitRecipeDuration(UPDATE_TEST_ANNOTATION, 0L))
+            .dataTable(SlowSourceFiles.Row.class, rows -> assertThat(rows).singleElement().satisfies(row -> {
+                assertThat(row.getSourcePath()).isEqualTo("MyTest.java");
+                assertThat(row.getRecipe()).isEqualTo(UPDATE_TEST_ANNOTATION);
+            })),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+
+              public class MyTest {
+                  @Test
+                  public void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void abandonsRecipeThatChecksTheDeadline() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new LimitRecipeDuration(TEMPORARY_FOLDER_TO_TEMP_DIR, 0L))
+            .dataTable(SlowSourceFiles.Row.class, rows -> assertThat(rows).singleElement()
+              .extracting(SlowSourceFiles.Row::getRecipe)
+              .isEqualTo(TEMPORARY_FOLDER_TO_TEMP_DIR)),
+          //language=java
+          java(
+            """
+              import org.junit.Rule;
+              import org.junit.rules.TemporaryFolder;
+
+              import java.io.File;
+              import java.io.IOException;
+
+              public class MyTest {
+                  @Rule
+                  public TemporaryFolder tempDir = new TemporaryFolder();
+
+                  public void test() throws IOException {
+                      File file = tempDir.newFolder("sub");
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void abandonsSourceFileForWholeRecipeTree() {
+        rewriteRun(
+          spec -> spec
+            .recipe(new LimitRecipeDuration(SlowMigration.class.getName(), 500L))
+            .dataTable(SlowSourceFiles.Row.class, rows -> assertThat(rows).singleElement()
+              .extracting(SlowSourceFiles.Row::getRecipe)
+              .isEqualTo(Sleep.class.getName())),
+          //language=java
+          java(
+            """
+              import org.junit.Test;
+
+              public class MyTest {
+                  @Test
+                  public void test() {
+                  }
+              }
+              """
+          )
+        );
+    }
+
+    @Test
+    void checkOnlyThrowsOncePastTheDeadline() {
+        InMemoryExecutionContext ctx = new InMemoryExecutionContext();
+        assertThatCode(() -> RecipeDeadline.check(ctx)).doesNotThrowAnyException();
+
+        ctx.putMessage(RecipeDeadline.DEADLINE, System.nanoTime() + 60_000_000_000L);
+        assertThatCode(() -> RecipeDeadline.check(ctx)).doesNotThrowAnyException();
+
+        ctx.putMessage(RecipeDeadline.DEADLINE, System.nanoTime() - 1);
+        assertThatThrownBy(() -> RecipeDeadline.check(ctx)).isInstanceOf(RecipeDeadline.Exceeded.class);
+    }
+
+    /**
+     * Changes the test annotation's type quickly, then spends longer on the file than the budget allows.
+     */
+    public static class SlowMigration extends Recipe {
+        @Override
+        public String getDisplayName() {
+            return "Slow migration";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Change a type, then sleep.";
+        }
+
+        @Override
+        public List<Recipe> getRecipeList() {
+            return Arrays.asList(new ChangeType("org.junit.Test", "org.junit.jupiter.api.Test", null), new Sleep());
+        }
+    }
+
+    public static class Sleep extends Recipe {
+        @Override
+        public String getDisplayName() {
+            return "Sleep";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Sleep on every source file.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile) {
+                        try {
+                            Thread.sleep(1_000);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return tree;
+                }
+            };
+        }
+    }
+}